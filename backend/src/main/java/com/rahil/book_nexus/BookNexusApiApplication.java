@@ -3,15 +3,18 @@ package com.rahil.book_nexus;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.context.annotation.Bean;
 import com.rahil.book_nexus.role.RoleRepository;
 import com.rahil.book_nexus.role.Role;
+import com.rahil.book_nexus.googlebooks.PopularCategoriesProperties;
 
 @SpringBootApplication
 @EnableJpaAuditing(auditorAwareRef = "auditorAware")
 @EnableAsync
+@EnableConfigurationProperties(PopularCategoriesProperties.class)
 public class BookNexusApiApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,262 @@
+package com.rahil.book_nexus.admin;
+
+import com.rahil.book_nexus.book.BookResponseCache;
+import com.rahil.book_nexus.file.FileStorageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Set-based replacement for repository deleteAll() purges. Each table is
+ * emptied in keyset chunks (highest id first) with one short transaction per
+ * chunk, so nothing is loaded into a persistence context and no transaction
+ * grows with the table. Jobs run one at a time on a background thread; rows
+ * inserted while a job runs may survive it.
+ */
+@Service
+@Slf4j
+public class BulkPurgeService {
+
+    private static final int MAX_FINISHED_JOBS = 20;
+
+    private static final String BOOK_FEEDBACK = "SELECT id FROM feedback WHERE book_id IS NOT NULL";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FileStorageService fileStorageService;
+    private final BookResponseCache bookResponseCache;
+    private final int chunkSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, PurgeJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PurgeJob> eldest) {
+            return size() > MAX_FINISHED_JOBS && eldest.getValue().finished();
+        }
+    });
+    private PurgeJob activeJob;
+
+    public BulkPurgeService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            FileStorageService fileStorageService,
+            BookResponseCache bookResponseCache,
+            @Value("${application.admin.purge.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fileStorageService = fileStorageService;
+        this.bookResponseCache = bookResponseCache;
+        this.chunkSize = chunkSize;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a purge and returns its status. While a purge is queued or running
+     * the active job is returned instead of starting another one.
+     */
+    public synchronized PurgeJobStatus start(PurgeScope scope) {
+        if (activeJob != null && !activeJob.finished()) {
+            return activeJob.status();
+        }
+        PurgeJob job = new PurgeJob(UUID.randomUUID().toString(), scope);
+        jobs.put(job.id, job);
+        activeJob = job;
+        executor.execute(() -> run(job));
+        return job.status();
+    }
+
+    public Optional<PurgeJobStatus> status(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(PurgeJob::status);
+    }
+
+    private void run(PurgeJob job) {
+        job.running();
+        log.info("Purge {} ({}) started", job.id, job.scope);
+        try {
+            for (PurgeStep step : plan(job.scope)) {
+                purge(job, step);
+            }
+            job.completed();
+            log.info("Purge {} ({}) finished: {} rows", job.id, job.scope, job.status().totalDeleted());
+        } catch (RuntimeException e) {
+            job.failed(e);
+            log.error("Purge {} ({}) failed", job.id, job.scope, e);
+        } finally {
+            bookResponseCache.clear();
+        }
+    }
+
+    /**
+     * Deletes matching rows of one table chunk by chunk. The chunk's ids are
+     * selected below the previous chunk's lowest id, handed to the step's hook
+     * and deleted in the same transaction.
+     */
+    private void purge(PurgeJob job, PurgeStep step) {
+        job.startTable(step.table());
+        String select = "SELECT id FROM " + step.table() + " WHERE id < :before"
+                + (step.condition() != null ? " AND (" + step.condition() + ")" : "")
+                + " ORDER BY id DESC LIMIT :limit";
+        String delete = "DELETE FROM " + step.table() + " WHERE id IN (:ids)";
+        int before = Integer.MAX_VALUE;
+        while (true) {
+            int upperBound = before;
+            List<Integer> ids = transactionTemplate.execute(status -> {
+                List<Integer> chunk = jdbcTemplate.queryForList(select, new MapSqlParameterSource()
+                        .addValue("before", upperBound)
+                        .addValue("limit", chunkSize), Integer.class);
+                if (!chunk.isEmpty()) {
+                    if (step.beforeDelete() != null) {
+                        step.beforeDelete().accept(chunk);
+                    }
+                    jdbcTemplate.update(delete, new MapSqlParameterSource("ids", chunk));
+                }
+                return chunk;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            job.deleted(step.table(), ids.size());
+            before = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        log.info("Purge {}: {} rows deleted from {}", job.id, job.deletedFrom(step.table()), step.table());
+    }
+
+    /**
+     * Tables in foreign-key order: referencing rows go before the rows they
+     * point at.
+     */
+    private List<PurgeStep> plan(PurgeScope scope) {
+        PurgeStep books = new PurgeStep("book", null, this::releaseCovers);
+        if (scope == PurgeScope.BOOKS) {
+            return List.of(
+                    new PurgeStep("likes", "feedback_id IN (" + BOOK_FEEDBACK + ")"
+                            + " OR review_reply_id IN (SELECT id FROM review_reply WHERE parent_feedback_id IN ("
+                            + BOOK_FEEDBACK + "))", null),
+                    // Replies point at older replies; id DESC removes children first
+                    new PurgeStep("review_reply", "parent_feedback_id IN (" + BOOK_FEEDBACK + ")", null),
+                    new PurgeStep("feedback", "book_id IS NOT NULL", null),
+                    new PurgeStep("user_book_list", "book_id IS NOT NULL", null),
+                    new PurgeStep("reading_event", null, null),
+                    new PurgeStep("book_transaction_history", null, null),
+                    books);
+        }
+        return List.of(
+                new PurgeStep("likes", null, null),
+                new PurgeStep("user_activity_hidden", null, null),
+                new PurgeStep("review_reply", null, null),
+                new PurgeStep("activity_feed", null, null),
+                new PurgeStep("persistent_notifications", null, null),
+                new PurgeStep("feedback", null, null),
+                new PurgeStep("google_book_feedback", null, null),
+                new PurgeStep("user_book_list", null, null),
+                new PurgeStep("reading_event", null, null),
+                new PurgeStep("book_transaction_history", null, null),
+                new PurgeStep("follow", null, null),
+                books,
+                new PurgeStep("google_book", null, null),
+                new PurgeStep("tokens", null, null),
+                new PurgeStep("user_profile", null, this::releaseAvatars),
+                new PurgeStep("_user", null, ids -> jdbcTemplate.update(
+                        "DELETE FROM _user_roles WHERE users_id IN (:ids)", new MapSqlParameterSource("ids", ids))));
+    }
+
+    private void releaseCovers(List<Integer> bookIds) {
+        jdbcTemplate.queryForList("SELECT book_cover FROM book WHERE id IN (:ids) AND book_cover IS NOT NULL",
+                new MapSqlParameterSource("ids", bookIds), String.class)
+                .forEach(fileStorageService::releaseFile);
+    }
+
+    private void releaseAvatars(List<Integer> profileIds) {
+        jdbcTemplate.queryForList(
+                "SELECT avatar_path FROM user_profile WHERE id IN (:ids) AND avatar_path IS NOT NULL",
+                new MapSqlParameterSource("ids", profileIds), String.class)
+                .forEach(fileStorageService::releaseFile);
+    }
+
+    private record PurgeStep(String table, String condition, Consumer<List<Integer>> beforeDelete) {
+    }
+
+    private static final class PurgeJob {
+
+        private final String id;
+        private final PurgeScope scope;
+        private final Map<String, Long> deleted = new LinkedHashMap<>();
+        private PurgeJobStatus.State state = PurgeJobStatus.State.QUEUED;
+        private String currentTable;
+        private Instant startedAt;
+        private Instant finishedAt;
+        private String error;
+
+        private PurgeJob(String id, PurgeScope scope) {
+            this.id = id;
+            this.scope = scope;
+        }
+
+        synchronized void running() {
+            state = PurgeJobStatus.State.RUNNING;
+            startedAt = Instant.now();
+        }
+
+        synchronized void startTable(String table) {
+            currentTable = table;
+            deleted.putIfAbsent(table, 0L);
+        }
+
+        synchronized void deleted(String table, int rows) {
+            deleted.merge(table, (long) rows, Long::sum);
+        }
+
+        synchronized long deletedFrom(String table) {
+            return deleted.getOrDefault(table, 0L);
+        }
+
+        synchronized void completed() {
+            state = PurgeJobStatus.State.COMPLETED;
+            currentTable = null;
+            finishedAt = Instant.now();
+        }
+
+        synchronized void failed(Exception e) {
+            state = PurgeJobStatus.State.FAILED;
+            error = e.getMessage();
+            finishedAt = Instant.now();
+        }
+
+        synchronized boolean finished() {
+            return state == PurgeJobStatus.State.COMPLETED || state == PurgeJobStatus.State.FAILED;
+        }
+
+        synchronized PurgeJobStatus status() {
+            long total = deleted.values().stream().mapToLong(Long::longValue).sum();
+            return new PurgeJobStatus(id, scope, state, currentTable, new LinkedHashMap<>(deleted), total,
+                    startedAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.rahil.book_nexus.admin;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Snapshot of a bulk purge job, returned by the purge endpoints and polled via
+ * GET /admin/purge-jobs/{id}. deleted maps table name to rows removed so far.
+ */
+public record PurgeJobStatus(
+        String id,
+        PurgeScope scope,
+        State state,
+        String currentTable,
+        Map<String, Long> deleted,
+        long totalDeleted,
+        Instant startedAt,
+        Instant finishedAt,
+        String error) {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
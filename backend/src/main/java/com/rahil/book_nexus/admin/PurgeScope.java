@@ -0,0 +1,10 @@
+package com.rahil.book_nexus.admin;
+
+/**
+ * What a bulk purge removes. BOOKS drops books with everything that references
+ * them; ALL wipes every user-generated table (test data cleanup).
+ */
+public enum PurgeScope {
+    BOOKS,
+    ALL
+}
@@ -4,12 +4,16 @@ import com.rahil.book_nexus.common.BaseEntity;
 import com.rahil.book_nexus.feedback.Feedback;
 import com.rahil.book_nexus.history.BookTransactionHistory;
 import com.rahil.book_nexus.user.User;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -23,6 +27,10 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_book_created_date_id", columnList = "created_date, id"),
+        @Index(name = "idx_book_created_by_created_date_id", columnList = "created_by, created_date, id")
+})
 public class Book extends BaseEntity {
 
     @Column(length = 1000)
@@ -35,11 +43,17 @@ public class Book extends BaseEntity {
     private String synopsis;
     @Column(length = 500)
     private String bookCover;
+    // Tiny base64 JPEG data URI shown while the cover loads
+    @Column(length = 4000)
+    private String coverPlaceholder;
     private boolean archived;
     private boolean shareable;
     @ManyToOne
     @JoinColumn(name = "owner_id")
     private User owner;
+    @Embedded
+    @Builder.Default
+    private BookRating rating = new BookRating();
     @OneToMany(mappedBy = "book")
     private List<Feedback> feedbacks;
     @OneToMany(mappedBy = "book")
@@ -47,15 +61,6 @@ public class Book extends BaseEntity {
 
     @Transient
     public double getRate() {
-        if (feedbacks == null || feedbacks.isEmpty()) {
-            return 0.0;
-        }
-        var rate = this.feedbacks.stream()
-                .mapToDouble(Feedback::getRating)
-                .average()
-                .orElse(0.0);
-        double roundedRate = Math.round(rate * 10.0) / 10.0;
-
-        return roundedRate;
+        return rating != null ? rating.average() : 0.0;
     }
 }
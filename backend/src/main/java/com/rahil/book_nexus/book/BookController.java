@@ -1,11 +1,13 @@
 package com.rahil.book_nexus.book;
 
+import com.rahil.book_nexus.admin.AdminController;
+import com.rahil.book_nexus.admin.PurgeJobStatus;
+import com.rahil.book_nexus.common.CursorPageResponse;
 import com.rahil.book_nexus.common.PageResponse;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,9 +21,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.multipart.MultipartFile;
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("books")
@@ -29,10 +35,12 @@ import jakarta.persistence.EntityNotFoundException;
 @Tag(name = "Book")
 public class BookController {
     
-    private final RestTemplate restTemplate;
-
     private final BookService service;
 
+    private final BookCoverService coverService;
+
+    private final BookRatingService ratingService;
+
     @PostMapping
     public ResponseEntity<Integer> saveBook(
             @Valid @RequestBody BookRequest request,
@@ -46,6 +54,12 @@ public class BookController {
         return ResponseEntity.ok(service.findById(bookId));
     }
 
+    @GetMapping("/{book-id}/ratings")
+    public ResponseEntity<BookRatingResponse> getRatingDistribution(
+            @PathVariable("book-id") Integer bookId) {
+        return ResponseEntity.ok(ratingService.getRatingDistribution(bookId));
+    }
+
     @GetMapping
     public ResponseEntity<PageResponse<BookResponse>> findAllBooks(
             @RequestParam(name = "page", defaultValue = "0", required = false) int page,
@@ -63,6 +77,15 @@ public class BookController {
         return ResponseEntity.ok(imported);
     }
 
+    @PostMapping("/import/google")
+    public ResponseEntity<List<GoogleImportStats>> importFromGoogle(
+            @Valid @RequestBody GoogleImportRequest request,
+            Authentication connectedUser) {
+        int maxPerQuery = request.maxPerQuery() != null ? request.maxPerQuery() : 10;
+        return ResponseEntity.ok(service.importFromGoogle(request.queries(), Math.min(Math.max(maxPerQuery, 1), 40),
+                connectedUser));
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<PageResponse<BookResponse>> findAllBooksByOwner(
             @RequestParam(name = "page", defaultValue = "0", required = false) int page,
@@ -95,6 +118,46 @@ public class BookController {
         return ResponseEntity.ok(service.findAllReadBooks(page, size, connectedUser));
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<BookResponse>> findAllBooksCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false) int size,
+            Authentication connectedUser) {
+        return ResponseEntity.ok(service.findAllBooks(cursor, size, connectedUser));
+    }
+
+    @GetMapping("/owner/cursor")
+    public ResponseEntity<CursorPageResponse<BookResponse>> findAllBooksByOwnerCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false) int size,
+            Authentication connectedUser) {
+        return ResponseEntity.ok(service.findAllBooksByOwner(cursor, size, connectedUser));
+    }
+
+    @GetMapping("/borrowed/cursor")
+    public ResponseEntity<CursorPageResponse<BorrowedBookResponse>> findAllBorrowedBooksCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false) int size,
+            Authentication connectedUser) {
+        return ResponseEntity.ok(service.findAllBorrowedBooks(cursor, size, connectedUser));
+    }
+
+    @GetMapping("/returned/cursor")
+    public ResponseEntity<CursorPageResponse<BorrowedBookResponse>> findAllReturnedBooksCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false) int size,
+            Authentication connectedUser) {
+        return ResponseEntity.ok(service.findAllReturnedBooks(cursor, size, connectedUser));
+    }
+
+    @GetMapping("/read/cursor")
+    public ResponseEntity<CursorPageResponse<BorrowedBookResponse>> findAllReadBooksCursor(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false) int size,
+            Authentication connectedUser) {
+        return ResponseEntity.ok(service.findAllReadBooks(cursor, size, connectedUser));
+    }
+
     @PatchMapping("/shareable/{book-id}")
     public ResponseEntity<Integer> updateShareableStatus(
             @PathVariable("book-id") Integer bookId,
@@ -144,6 +207,14 @@ public class BookController {
         return ResponseEntity.ok(service.unmarkBookAsRead(bookId, connectedUser));
     }
 
+    @PatchMapping("borrow/progress/{book-id}")
+    public ResponseEntity<Integer> updateReadingProgress(
+            @PathVariable("book-id") Integer bookId,
+            @RequestParam("percent") int percent,
+            Authentication connectedUser) {
+        return ResponseEntity.ok(service.updateReadingProgress(bookId, percent, connectedUser));
+    }
+
     @PostMapping(value = "/cover/{book-id}", consumes = "multipart/form-data")
     public ResponseEntity<?> uploadBookCoverPicture(
             @PathVariable("book-id") Integer bookId,
@@ -165,33 +236,24 @@ public class BookController {
         }
     }
 
-        @GetMapping("/cover/{book-id}")
-    public ResponseEntity<byte[]> getBookCover(@PathVariable("book-id") Integer bookId) {
+    @GetMapping("/cover/{book-id}")
+    public void getBookCover(
+            @PathVariable("book-id") Integer bookId,
+            @RequestParam(name = "size", required = false) Integer size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         try {
-            BookResponse book = service.findById(bookId);
-            
-            if (book.getCover() != null && book.getCover() instanceof String
-                    && ((String) book.getCover()).startsWith("http")) {
-                // Proxy Google Books image
-                ResponseEntity<byte[]> response = restTemplate.getForEntity((String) book.getCover(), byte[].class);
-                return ResponseEntity.ok()
-                        .contentType(MediaType.IMAGE_JPEG)
-                        .body(response.getBody());
+            coverService.writeCover(bookId, size, request, response);
+        } catch (RestClientException e) {
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             }
-            
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
         }
     }
 
     @DeleteMapping("/all")
-    public ResponseEntity<String> deleteAllBooks(Authentication connectedUser) {
-        try {
-            service.deleteAllBooks();
-            return ResponseEntity.ok("All books deleted successfully");
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
-        }
+    public ResponseEntity<PurgeJobStatus> deleteAllBooks(Authentication connectedUser) {
+        return AdminController.accepted(service.deleteAllBooks());
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.rahil.book_nexus.book;
+
+import com.rahil.book_nexus.file.FileResponseWriter;
+import com.rahil.book_nexus.file.ImageDerivativeService;
+import com.rahil.book_nexus.file.LocalImageServer;
+import com.rahil.book_nexus.file.RemoteImageCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Serves book covers by reference. Responses carry a cover URL instead of the
+ * image bytes; this service answers that URL with strong ETags, byte ranges and
+ * long-lived caching. Uploaded covers can be requested at a derivative width
+ * via ?size=, falling back to the original until the derivative exists.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BookCoverService {
+
+    private final BookRepository bookRepository;
+    private final LocalImageServer localImageServer;
+    private final ImageDerivativeService imageDerivativeService;
+    private final RemoteImageCache remoteImageCache;
+    private final FileResponseWriter fileResponseWriter;
+
+    public String coverUrl(Integer bookId, String bookCover) {
+        return coverUrl(bookId, bookCover, null);
+    }
+
+    /**
+     * Absolute URL for a book's cover. Remote covers are returned as-is;
+     * uploaded covers point at GET /books/cover/{id} under the configured
+     * public base URL, with a version derived from the stored path, so a new
+     * upload always yields a new URL.
+     */
+    public String coverUrl(Integer bookId, String bookCover, Integer size) {
+        if (StringUtils.isBlank(bookCover)) {
+            return null;
+        }
+        if (bookCover.startsWith("http")) {
+            return bookCover;
+        }
+        return localImageServer.publicUrl("/books/cover/" + bookId + "?v=" + LocalImageServer.version(bookCover)
+                + (size != null ? "&size=" + size : ""));
+    }
+
+    public void writeCover(Integer bookId, Integer size, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String bookCover = bookRepository.findBookCoverById(bookId).orElse(null);
+        if (StringUtils.isBlank(bookCover)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (bookCover.startsWith("http")) {
+            // Remote covers are cached on disk and revalidated upstream; only
+            // the short revalidating policy is safe to hand to clients
+            RemoteImageCache.CachedImage cached = remoteImageCache.get(bookCover);
+            fileResponseWriter.writeFile(cached.path(), cached.size(), cached.etag(), cached.contentType(),
+                    LocalImageServer.REVALIDATE_CACHE_CONTROL, request, response);
+            return;
+        }
+
+        // A versioned URL that still resolves to the original (derivative not
+        // ready yet) must not be pinned as immutable
+        Path original = Path.of(bookCover);
+        Path variant = imageDerivativeService.resolveVariant(original, size);
+        boolean exact = size == null || !variant.equals(original);
+        String cacheControl = exact && LocalImageServer.version(bookCover).equals(request.getParameter("v"))
+                ? LocalImageServer.IMMUTABLE_CACHE_CONTROL
+                : LocalImageServer.REVALIDATE_CACHE_CONTROL;
+        if (!localImageServer.write(variant, cacheControl, request, response)) {
+            log.warn("Cover file missing for book {}: {}", bookId, variant);
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+}
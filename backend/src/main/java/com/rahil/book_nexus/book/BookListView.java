@@ -0,0 +1,25 @@
+package com.rahil.book_nexus.book;
+
+import java.time.LocalDate;
+
+/**
+ * Flat row for book listings, selected with a JPQL constructor expression so a
+ * page is read in one statement without loading Book, its owner or the
+ * owner's roles.
+ */
+public record BookListView(
+        Integer id,
+        LocalDate createdDate,
+        String title,
+        String authorName,
+        String isbn,
+        String synopsis,
+        String ownerFirstName,
+        String ownerLastName,
+        String bookCover,
+        String coverPlaceholder,
+        int ratingCount,
+        double ratingSum,
+        boolean archived,
+        boolean shareable) {
+}
@@ -2,14 +2,20 @@ package com.rahil.book_nexus.book;
 
 import org.springframework.stereotype.Service;
 
-import com.rahil.book_nexus.file.FileUtils;
+import com.rahil.book_nexus.file.ImageDerivativeService;
 import com.rahil.book_nexus.history.BookTransactionHistory;
+import com.rahil.book_nexus.history.BorrowedBookView;
+
+import lombok.RequiredArgsConstructor;
 
 @Service
+@RequiredArgsConstructor
 public class BookMapper {
+
+    private final BookCoverService bookCoverService;
+
     public Book toBook(BookRequest request) {
         return Book.builder()
-                .id(request.id())
                 .title(request.title())
                 .isbn(request.isbn())
                 .authorName(request.authorName())
@@ -31,8 +37,42 @@ public class BookMapper {
                 .archived(book.isArchived())
                 .shareable(book.isShareable())
                 .owner(book.getOwner().fullName())
-                .cover(book.getBookCover() != null && book.getBookCover().startsWith("http") ? book.getBookCover()
-                        : FileUtils.readFileFromLocation(book.getBookCover()))
+                .cover(bookCoverService.coverUrl(book.getId(), book.getBookCover()))
+                .coverPlaceholder(book.getCoverPlaceholder())
+                .build();
+    }
+
+    public BookResponse toBookResponse(BookListView view) {
+        return BookResponse.builder()
+                .id(view.id())
+                .title(view.title())
+                .authorName(view.authorName())
+                .isbn(view.isbn())
+                .synopsis(view.synopsis())
+                .rate(BookRating.average(view.ratingCount(), view.ratingSum()))
+                .archived(view.archived())
+                .shareable(view.shareable())
+                .owner((view.ownerFirstName() != null ? view.ownerFirstName() : "") + " "
+                        + (view.ownerLastName() != null ? view.ownerLastName() : ""))
+                .cover(bookCoverService.coverUrl(view.id(), view.bookCover(), ImageDerivativeService.LIST_WIDTH))
+                .coverPlaceholder(view.coverPlaceholder())
+                .build();
+    }
+
+    public BorrowedBookResponse toBorrowedBookResponse(BorrowedBookView view) {
+        return BorrowedBookResponse.builder()
+                .id(view.bookId())
+                .title(view.title())
+                .authorName(view.authorName())
+                .isbn(view.isbn())
+                .rate(BookRating.average(view.ratingCount(), view.ratingSum()))
+                .returned(view.returned())
+                .returnApproved(view.returnApproved())
+                .read(view.read())
+                .readCount(view.readCount() != null ? view.readCount() : 0)
+                .progress(view.progress() != null ? view.progress() : 0)
+                .cover(bookCoverService.coverUrl(view.bookId(), view.bookCover(), ImageDerivativeService.LIST_WIDTH))
+                .coverPlaceholder(view.coverPlaceholder())
                 .build();
     }
 
@@ -47,9 +87,10 @@ public class BookMapper {
                 .returnApproved(history.isReturnApproved())
                 .read(history.isRead())
                 .readCount(history.getReadCount() != null ? history.getReadCount() : 0)
-                .cover(history.getBook().getBookCover() != null && history.getBook().getBookCover().startsWith("http")
-                        ? history.getBook().getBookCover()
-                        : FileUtils.readFileFromLocation(history.getBook().getBookCover()))
+                .progress(history.getProgress() != null ? history.getProgress() : 0)
+                .cover(bookCoverService.coverUrl(history.getBook().getId(), history.getBook().getBookCover(),
+                        ImageDerivativeService.LIST_WIDTH))
+                .coverPlaceholder(history.getBook().getCoverPlaceholder())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.rahil.book_nexus.book;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Persisted rating aggregate for a book (count, sum and per-star histogram).
+ * Kept up to date by FeedbackService so reads never have to scan feedbacks.
+ * The columns are not updatable through the entity: only the delta UPDATE in
+ * BookRepository.adjustRating and BookRatingBackfill write them, so saving an
+ * edited Book never writes back a stale aggregate.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class BookRating {
+
+    @Column(name = "rating_count", updatable = false, columnDefinition = "integer default 0")
+    private int count;
+
+    @Column(name = "rating_sum", updatable = false, columnDefinition = "double precision default 0")
+    private double sum;
+
+    @Column(name = "rating_one_star", updatable = false, columnDefinition = "integer default 0")
+    private int oneStar;
+
+    @Column(name = "rating_two_star", updatable = false, columnDefinition = "integer default 0")
+    private int twoStar;
+
+    @Column(name = "rating_three_star", updatable = false, columnDefinition = "integer default 0")
+    private int threeStar;
+
+    @Column(name = "rating_four_star", updatable = false, columnDefinition = "integer default 0")
+    private int fourStar;
+
+    @Column(name = "rating_five_star", updatable = false, columnDefinition = "integer default 0")
+    private int fiveStar;
+
+    public double average() {
+        return average(count, sum);
+    }
+
+    /**
+     * Average rounded to one decimal, for callers that project the raw columns
+     */
+    public static double average(int count, double sum) {
+        if (count <= 0) {
+            return 0.0;
+        }
+        return Math.round((sum / count) * 10.0) / 10.0;
+    }
+
+    /**
+     * Star counts keyed from 5 down to 1
+     */
+    public Map<Integer, Integer> distribution() {
+        Map<Integer, Integer> distribution = new LinkedHashMap<>();
+        distribution.put(5, fiveStar);
+        distribution.put(4, fourStar);
+        distribution.put(3, threeStar);
+        distribution.put(2, twoStar);
+        distribution.put(1, oneStar);
+        return distribution;
+    }
+
+    /**
+     * Histogram bucket for a rating, or 0 when there is no rating.
+     * Must stay in line with the SQL bucketing used by BookRatingBackfill.
+     */
+    public static int starOf(Double rating) {
+        if (rating == null) {
+            return 0;
+        }
+        return (int) Math.max(1, Math.min(5, Math.round(rating)));
+    }
+}
@@ -0,0 +1,26 @@
+package com.rahil.book_nexus.book;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookRatingResponse {
+
+    private Integer bookId;
+
+    private double average;
+
+    private int count;
+
+    // Star value (5..1) -> number of reviews with that rating
+    private Map<Integer, Integer> distribution;
+}
@@ -0,0 +1,62 @@
+package com.rahil.book_nexus.book;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+
+/**
+ * Maintains the per-book rating aggregate as reviews are created, edited or
+ * deleted. Every write is a single atomic UPDATE on the book row.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class BookRatingService {
+
+    private final BookRepository bookRepository;
+
+    public void ratingAdded(Integer bookId, Double rating) {
+        if (bookId == null || rating == null) {
+            return;
+        }
+        bookRepository.adjustRating(bookId, 1, rating, BookRating.starOf(rating), 0);
+    }
+
+    public void ratingChanged(Integer bookId, Double oldRating, Double newRating) {
+        if (bookId == null || Objects.equals(oldRating, newRating)) {
+            return;
+        }
+        if (oldRating == null) {
+            ratingAdded(bookId, newRating);
+            return;
+        }
+        if (newRating == null) {
+            ratingRemoved(bookId, oldRating);
+            return;
+        }
+        bookRepository.adjustRating(bookId, 0, newRating - oldRating,
+                BookRating.starOf(newRating), BookRating.starOf(oldRating));
+    }
+
+    public void ratingRemoved(Integer bookId, Double rating) {
+        if (bookId == null || rating == null) {
+            return;
+        }
+        bookRepository.adjustRating(bookId, -1, -rating, 0, BookRating.starOf(rating));
+    }
+
+    @Transactional(readOnly = true)
+    public BookRatingResponse getRatingDistribution(Integer bookId) {
+        BookRating rating = bookRepository.findRatingByBookId(bookId)
+                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
+        return BookRatingResponse.builder()
+                .bookId(bookId)
+                .average(rating.average())
+                .count(rating.getCount())
+                .distribution(rating.distribution())
+                .build();
+    }
+}
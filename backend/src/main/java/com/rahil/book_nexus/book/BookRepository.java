@@ -1,23 +1,130 @@
 package com.rahil.book_nexus.book;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book> {
+
+    /**
+     * Select clause shared by the listing queries: one row per book with the
+     * owner's name joined in, nothing lazily loaded afterwards
+     */
+    String LIST_VIEW = """
+            SELECT new com.rahil.book_nexus.book.BookListView(
+                book.id, book.createdDate, book.title, book.authorName, book.isbn, book.synopsis,
+                owner.firstName, owner.lastName, book.bookCover, book.coverPlaceholder, book.rating.count,
+                book.rating.sum, book.archived, book.shareable)
+            FROM Book book
+            LEFT JOIN book.owner owner
+            """;
+
     /**
      * Finds all books that should be displayed in the main library
      * Note: Removed owner exclusion so user's own books also appear in main library
      */
-    @Query("""
-            SELECT book
+    @Query(value = LIST_VIEW + """
+            WHERE book.archived = false
+            AND book.shareable = true
+            """, countQuery = """
+            SELECT COUNT(book)
             FROM Book book
             WHERE book.archived = false
             AND book.shareable = true
             """)
-    Page<Book> findAllDisplayableBooks(Pageable pageable);
+    Page<BookListView> findAllDisplayableBooks(Pageable pageable);
+
+    @Query(value = LIST_VIEW + """
+            WHERE book.createdBy = :ownerId
+            """, countQuery = """
+            SELECT COUNT(book)
+            FROM Book book
+            WHERE book.createdBy = :ownerId
+            """)
+    Page<BookListView> findAllOwnerBooks(@Param("ownerId") Integer ownerId, Pageable pageable);
+
+    /**
+     * Keyset variant of findAllDisplayableBooks: seeks past (createdDate, id)
+     * instead of using OFFSET, and never runs a count query
+     */
+    @Query(LIST_VIEW + """
+            WHERE book.archived = false
+            AND book.shareable = true
+            AND (book.createdDate, book.id) < (:createdDate, :id)
+            ORDER BY book.createdDate DESC, book.id DESC
+            """)
+    List<BookListView> findDisplayableBooksBefore(@Param("createdDate") LocalDate createdDate, @Param("id") Integer id,
+            Limit limit);
+
+    @Query(LIST_VIEW + """
+            WHERE book.createdBy = :ownerId
+            AND (book.createdDate, book.id) < (:createdDate, :id)
+            ORDER BY book.createdDate DESC, book.id DESC
+            """)
+    List<BookListView> findOwnerBooksBefore(@Param("ownerId") Integer ownerId, @Param("createdDate") LocalDate createdDate,
+            @Param("id") Integer id, Limit limit);
 
     boolean existsByIsbn(String isbn);
+
+    @Query("SELECT book.isbn FROM Book book WHERE book.isbn IN :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    /**
+     * Applies a delta to the persisted rating aggregate in a single statement so
+     * concurrent review writes never lose updates. A star value of 0 means "none".
+     */
+    @Modifying
+    @Query("""
+            UPDATE Book book
+            SET book.rating.count = book.rating.count + :countDelta,
+                book.rating.sum = book.rating.sum + :sumDelta,
+                book.rating.oneStar = book.rating.oneStar
+                    + (CASE WHEN :addedStar = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removedStar = 1 THEN 1 ELSE 0 END),
+                book.rating.twoStar = book.rating.twoStar
+                    + (CASE WHEN :addedStar = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removedStar = 2 THEN 1 ELSE 0 END),
+                book.rating.threeStar = book.rating.threeStar
+                    + (CASE WHEN :addedStar = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removedStar = 3 THEN 1 ELSE 0 END),
+                book.rating.fourStar = book.rating.fourStar
+                    + (CASE WHEN :addedStar = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removedStar = 4 THEN 1 ELSE 0 END),
+                book.rating.fiveStar = book.rating.fiveStar
+                    + (CASE WHEN :addedStar = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removedStar = 5 THEN 1 ELSE 0 END)
+            WHERE book.id = :bookId
+            """)
+    int adjustRating(@Param("bookId") Integer bookId,
+            @Param("countDelta") int countDelta,
+            @Param("sumDelta") double sumDelta,
+            @Param("addedStar") int addedStar,
+            @Param("removedStar") int removedStar);
+
+    @Query("SELECT book.bookCover FROM Book book WHERE book.id = :bookId")
+    Optional<String> findBookCoverById(@Param("bookId") Integer bookId);
+
+    /**
+     * Stores a generated cover placeholder, but only while the book still has
+     * the cover it was generated from; a newer upload wins.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Book book
+            SET book.coverPlaceholder = :placeholder
+            WHERE book.id = :bookId
+            AND book.bookCover = :bookCover
+            """)
+    int updateCoverPlaceholder(@Param("bookId") Integer bookId, @Param("bookCover") String bookCover,
+            @Param("placeholder") String placeholder);
+
+    @Query("SELECT book.rating FROM Book book WHERE book.id = :bookId")
+    Optional<BookRating> findRatingByBookId(@Param("bookId") Integer bookId);
 }
\ No newline at end of file
@@ -25,7 +25,9 @@ public class BookResponse {
 
     private String owner;
 
-    private Object cover; // Can be byte[] for local files or String for URLs
+    private String cover; // Remote cover URL or GET /books/cover/{id} for uploaded covers
+
+    private String coverPlaceholder; // LQIP data URI for uploaded covers, null until generated
 
     private double rate;
 
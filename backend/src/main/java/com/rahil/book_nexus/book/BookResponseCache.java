@@ -0,0 +1,55 @@
+package com.rahil.book_nexus.book;
+
+import com.rahil.book_nexus.common.TtlLruCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Per-node cache of fully mapped book details for GET /books/{id}. Writers that
+ * change anything in BookResponse must call evict; inside a transaction the
+ * entry is dropped again after commit so a concurrent reader cannot re-cache
+ * the pre-commit state.
+ */
+@Component
+public class BookResponseCache {
+
+    private final TtlLruCache<Integer, BookResponse> cache;
+
+    public BookResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${application.cache.book-detail.max-entries:10000}") int maxEntries,
+            @Value("${application.cache.book-detail.ttl:10m}") Duration ttl) {
+        this.cache = new TtlLruCache<>("book-detail", maxEntries, ttl, meterRegistry);
+    }
+
+    public BookResponse get(Integer bookId, Supplier<BookResponse> loader) {
+        return cache.get(bookId, loader);
+    }
+
+    public void evict(Integer bookId) {
+        cache.invalidate(bookId);
+        afterCommit(() -> cache.invalidate(bookId));
+    }
+
+    public void clear() {
+        cache.clear();
+        afterCommit(cache::clear);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
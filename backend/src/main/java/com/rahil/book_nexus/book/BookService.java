@@ -1,31 +1,37 @@
 package com.rahil.book_nexus.book;
 
+import com.rahil.book_nexus.admin.BulkPurgeService;
+import com.rahil.book_nexus.admin.PurgeJobStatus;
+import com.rahil.book_nexus.admin.PurgeScope;
+import com.rahil.book_nexus.common.CursorPageResponse;
+import com.rahil.book_nexus.common.PageCursor;
 import com.rahil.book_nexus.common.PageResponse;
 import com.rahil.book_nexus.exception.OperationNotPermittedException;
 import com.rahil.book_nexus.file.FileStorageService;
+import com.rahil.book_nexus.file.ImageDerivativeService;
 import com.rahil.book_nexus.history.BookTransactionHistory;
 import com.rahil.book_nexus.history.BookTransactionHistoryRepository;
+import com.rahil.book_nexus.history.BorrowedBookView;
+import com.rahil.book_nexus.history.ReadingLedger;
 import com.rahil.book_nexus.user.User;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-
-import static com.rahil.book_nexus.book.BookSpecification.withOwnerId;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -37,20 +43,24 @@ public class BookService {
         private final BookMapper bookMapper;
         private final BookTransactionHistoryRepository transactionHistoryRepository;
         private final FileStorageService fileStorageService;
-        private final RestTemplate restTemplate;
-
-        @Value("${application.external.googlebooks.enabled:false}")
-        private boolean googleBooksEnabled;
+        private final GoogleBookImportService googleBookImportService;
+        private final BookResponseCache bookResponseCache;
+        private final ImageDerivativeService imageDerivativeService;
+        private final BulkPurgeService bulkPurgeService;
+        private final ReadingLedger readingLedger;
 
-        @Value("${application.external.googlebooks.api-key:}")
-        private String googleBooksApiKey;
+        private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
         /**
          * Saves a new book and automatically marks it as read for the owner
          * This ensures uploaded books appear in both "My Books" and "Read" sections
+         * A request carrying an id edits that book instead
          */
         public Integer save(BookRequest request, Authentication connectedUser) {
                 User user = ((User) connectedUser.getPrincipal());
+                if (request.id() != null) {
+                        return update(request, user);
+                }
                 log.info("Saving book for user: {}", user.getFullName());
 
                 Book book = bookMapper.toBook(request);
@@ -80,15 +90,42 @@ public class BookService {
                 return savedBook.getId();
         }
 
+        /**
+         * Copies only the owner-editable fields onto the stored book, so its
+         * rating aggregate, cover and archive flag survive and no second owner
+         * history row is written.
+         */
+        private Integer update(BookRequest request, User user) {
+                Book book = bookRepository.findById(request.id())
+                                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + request.id()));
+                if (!Objects.equals(book.getOwner().getId(), user.getId())) {
+                        throw new OperationNotPermittedException("You cannot update others books");
+                }
+                book.setTitle(request.title());
+                book.setAuthorName(request.authorName());
+                book.setIsbn(request.isbn());
+                book.setSynopsis(request.synopsis());
+                book.setShareable(request.shareable());
+                bookRepository.save(book);
+                bookResponseCache.evict(book.getId());
+                log.info("Book {} updated by user: {}", book.getId(), user.getFullName());
+                return book.getId();
+        }
+
         public BookResponse findById(Integer bookId) {
-                return bookRepository.findById(bookId)
+                BookResponse response = bookResponseCache.get(bookId, () -> bookRepository.findById(bookId)
                                 .map(bookMapper::toBookResponse)
-                                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
+                                .orElse(null));
+                if (response == null) {
+                        throw new EntityNotFoundException("No book found with ID:: " + bookId);
+                }
+                return response;
         }
 
+        @Transactional(readOnly = true)
         public PageResponse<BookResponse> findAllBooks(int page, int size, Authentication connectedUser) {
                 Pageable pageable = PageRequest.of(page, size, Sort.by("createdDate").descending());
-                Page<Book> books = bookRepository.findAllDisplayableBooks(pageable);
+                Page<BookListView> books = bookRepository.findAllDisplayableBooks(pageable);
                 List<BookResponse> booksResponse = books.stream()
                                 .map(bookMapper::toBookResponse)
                                 .toList();
@@ -102,104 +139,26 @@ public class BookService {
                                 books.isLast());
         }
 
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
         public int importFromGoogle(String query, int max, Authentication connectedUser) {
-                if (!googleBooksEnabled) {
-                        log.warn("Google Books import is disabled");
-                        return 0;
-                }
-                try {
-                        String apiKeyParam = (googleBooksApiKey != null && !googleBooksApiKey.isBlank())
-                                        ? "&key=" + googleBooksApiKey
-                                        : "";
-                        String url = "https://www.googleapis.com/books/v1/volumes?q="
-                                        + java.net.URLEncoder.encode(query, java.nio.charset.StandardCharsets.UTF_8)
-                                        + "&maxResults=" + max + apiKeyParam;
-                        ResponseEntity<java.util.Map> response = restTemplate.getForEntity(url, java.util.Map.class);
-                        Object items = response.getBody() != null ? response.getBody().get("items") : null;
-                        if (!(items instanceof java.util.List<?> list))
-                                return 0;
-
-                        int createdCount = 0;
-                        for (Object o : list) {
-                                if (!(o instanceof java.util.Map<?, ?> m))
-                                        continue;
-                                Object volumeInfoObj = m.get("volumeInfo");
-                                if (!(volumeInfoObj instanceof java.util.Map<?, ?> v))
-                                        continue;
-                                Object titleObj = v.get("title");
-                                String title = titleObj == null ? "" : String.valueOf(titleObj);
-                                if (title.isBlank())
-                                        continue;
-                                // Truncate title to fit database constraint
-                                if (title.length() > 1000) {
-                                        title = title.substring(0, 997) + "...";
-                                }
-                                String authors = "";
-                                Object authorsObj = v.get("authors");
-                                if (authorsObj instanceof java.util.List<?> al && !al.isEmpty()) {
-                                        authors = String.valueOf(al.get(0));
-                                        // Truncate author name to fit database constraint
-                                        if (authors.length() > 500) {
-                                                authors = authors.substring(0, 497) + "...";
-                                        }
-                                }
-                                Object descObj = v.get("description");
-                                String description = descObj == null ? "" : String.valueOf(descObj);
-                                // Truncate description to fit database constraint
-                                if (description.length() > 2000) {
-                                        description = description.substring(0, 1997) + "...";
-                                }
-
-                                // Extract cover image URL
-                                String coverUrl = null;
-                                Object imageLinks = v.get("imageLinks");
-                                if (imageLinks instanceof java.util.Map<?, ?> imgMap) {
-                                        Object thumbnail = imgMap.get("thumbnail");
-                                        if (thumbnail != null) {
-                                                coverUrl = String.valueOf(thumbnail);
-                                        }
-                                }
-
-                                String isbn13 = null;
-                                Object industryIds = v.get("industryIdentifiers");
-                                if (industryIds instanceof java.util.List<?> ids) {
-                                        for (Object idObj : ids) {
-                                                if (idObj instanceof java.util.Map<?, ?> idMap) {
-                                                        String type = String.valueOf(idMap.get("type"));
-                                                        String identifier = String.valueOf(idMap.get("identifier"));
-                                                        if ("ISBN_13".equalsIgnoreCase(type)) {
-                                                                isbn13 = identifier;
-                                                                break;
-                                                        }
-                                                }
-                                        }
-                                }
-                                // Skip if duplicate ISBN
-                                if (isbn13 != null && bookRepository.existsByIsbn(isbn13)) {
-                                        continue;
-                                }
-
-                                BookRequest req = new BookRequest(null, title, authors, isbn13, description, true,
-                                                coverUrl);
-                                try {
-                                        this.save(req, connectedUser);
-                                        createdCount++;
-                                } catch (Exception e) {
-                                        log.warn("Failed to import '{}': {}", title, e.getMessage());
-                                }
-                        }
-                        log.info("Imported {} books from Google for query '{}'", createdCount, query);
-                        return createdCount;
-                } catch (Exception e) {
-                        log.error("Google Books import failed: {}", e.getMessage());
-                        return 0;
-                }
+                return importFromGoogle(List.of(query), max, connectedUser).stream()
+                                .mapToInt(GoogleImportStats::imported)
+                                .sum();
         }
 
+        // No surrounding transaction: fetches run outside it and each query commits on its own
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        public List<GoogleImportStats> importFromGoogle(List<String> queries, int maxPerQuery,
+                        Authentication connectedUser) {
+                User user = ((User) connectedUser.getPrincipal());
+                return googleBookImportService.importQueries(queries, maxPerQuery, user);
+        }
+
+        @Transactional(readOnly = true)
         public PageResponse<BookResponse> findAllBooksByOwner(int page, int size, Authentication connectedUser) {
                 User user = ((User) connectedUser.getPrincipal());
                 Pageable pageable = PageRequest.of(page, size, Sort.by("createdDate").descending());
-                Page<Book> books = bookRepository.findAll(withOwnerId(user.getId()), pageable);
+                Page<BookListView> books = bookRepository.findAllOwnerBooks(user.getId(), pageable);
                 List<BookResponse> booksResponse = books.stream()
                                 .map(bookMapper::toBookResponse)
                                 .toList();
@@ -222,6 +181,7 @@ public class BookService {
                 }
                 book.setShareable(!book.isShareable());
                 bookRepository.save(book);
+                bookResponseCache.evict(bookId);
                 return bookId;
         }
 
@@ -234,6 +194,7 @@ public class BookService {
                 }
                 book.setArchived(!book.isArchived());
                 bookRepository.save(book);
+                bookResponseCache.evict(bookId);
                 return bookId;
         }
 
@@ -244,111 +205,97 @@ public class BookService {
          */
         public Integer borrowBook(Integer bookId, Authentication connectedUser) {
                 log.info("borrowBook called with bookId: {} and user: {}", bookId, connectedUser.getName());
+                User user = ((User) connectedUser.getPrincipal());
 
-                Book book = bookRepository.findById(bookId)
-                                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
-                log.info("Found book: {} (ID: {}), archived: {}, shareable: {}", book.getTitle(), book.getId(),
-                                book.isArchived(), book.isShareable());
+                // Note: Multiple users can read the same book simultaneously (like Goodreads)
+                Integer historyId = readingLedger.start(user.getId(), bookId)
+                                .orElseThrow(() -> borrowRejection(bookId, user));
+                log.info("Book borrowed successfully. Transaction ID: {}", historyId);
+                return historyId;
+        }
 
+        /**
+         * Works out why the borrow upsert matched nothing. Only runs on the
+         * rejected path, so successful borrows stay one statement.
+         */
+        private RuntimeException borrowRejection(Integer bookId, User user) {
+                Book book = bookRepository.findById(bookId).orElse(null);
+                if (book == null) {
+                        return new EntityNotFoundException("No book found with ID:: " + bookId);
+                }
                 if (book.isArchived() || !book.isShareable()) {
                         log.warn("Book cannot be borrowed - archived: {}, shareable: {}", book.isArchived(),
                                         book.isShareable());
-                        throw new OperationNotPermittedException(
+                        return new OperationNotPermittedException(
                                         "The requested book cannot be borrowed since it is archived or not shareable");
                 }
-
-                User user = ((User) connectedUser.getPrincipal());
-                log.info("User: {} (ID: {}), Book owner: {} (ID: {})", user.getFullName(), user.getId(),
-                                book.getOwner().getFullName(), book.getOwner().getId());
-
                 if (Objects.equals(book.getOwner().getId(), user.getId())) {
                         log.warn("User trying to borrow their own book");
-                        throw new OperationNotPermittedException("You cannot borrow your own book");
-                }
-
-                final boolean isAlreadyBorrowedByUser = transactionHistoryRepository.isAlreadyBorrowedByUser(bookId,
-                                user.getId());
-                log.info("Is already borrowed by user: {}", isAlreadyBorrowedByUser);
-                if (isAlreadyBorrowedByUser) {
-                        log.warn("User already started reading this book");
-                        throw new OperationNotPermittedException(
-                                        "You are already reading this book. Check your 'Currently Reading' list.");
+                        return new OperationNotPermittedException("You cannot borrow your own book");
                 }
-
-                // Note: Multiple users can read the same book simultaneously (like Goodreads)
-                // Removed the check for other users borrowing the book
-                log.info("Allowing multiple users to read the same book");
-
-                BookTransactionHistory bookTransactionHistory = BookTransactionHistory.builder()
-                                .user(user)
-                                .book(book)
-                                .returned(false)
-                                .returnApproved(false)
-                                .read(false)
-                                .readCount(0)
-                                .build();
-                BookTransactionHistory saved = transactionHistoryRepository.save(bookTransactionHistory);
-                log.info("Book borrowed successfully. Transaction ID: {}", saved.getId());
-                return saved.getId();
+                log.warn("User already started reading this book");
+                return new OperationNotPermittedException(
+                                "You are already reading this book. Check your 'Currently Reading' list.");
         }
 
         public Integer returnBorrowedBook(Integer bookId, Authentication connectedUser) {
                 log.info("returnBorrowedBook called with bookId: {} and user: {}", bookId, connectedUser.getName());
-
-                Book book = bookRepository.findById(bookId)
-                                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
                 User user = ((User) connectedUser.getPrincipal());
-                log.info("Found book: {} and user: {}", book.getTitle(), user.getFullName());
-
-                // Find the transaction history for this book and user
-                BookTransactionHistory bookTransactionHistory = transactionHistoryRepository
-                                .findByBookIdAndUserId(bookId, user.getId())
-                                .orElseThrow(() -> new OperationNotPermittedException("You did not borrow this book"));
 
-                log.info("Found transaction history: {}", bookTransactionHistory.getId());
-
-                // Mark as returned
-                bookTransactionHistory.setReturned(true);
-                BookTransactionHistory saved = transactionHistoryRepository.save(bookTransactionHistory);
-                log.info("Book returned successfully. Transaction ID: {}", saved.getId());
-                return saved.getId();
+                Integer historyId = readingLedger.returnBook(user.getId(), bookId)
+                                .orElseThrow(() -> bookRepository.existsById(bookId)
+                                                ? new OperationNotPermittedException("You did not borrow this book")
+                                                : new EntityNotFoundException("No book found with ID:: " + bookId));
+                log.info("Book returned successfully. Transaction ID: {}", historyId);
+                return historyId;
         }
 
+        /**
+         * Approves the book's pending returns and answers the first approved
+         * transaction id.
+         */
         public Integer approveReturnBorrowedBook(Integer bookId, Authentication connectedUser) {
+                User user = ((User) connectedUser.getPrincipal());
+                List<Integer> approved = readingLedger.approveReturns(user.getId(), bookId);
+                if (!approved.isEmpty()) {
+                        return approved.get(0);
+                }
+
                 Book book = bookRepository.findById(bookId)
                                 .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
                 if (book.isArchived() || !book.isShareable()) {
                         throw new OperationNotPermittedException("The requested book is archived or not shareable");
                 }
-                User user = ((User) connectedUser.getPrincipal());
-                if (!Objects.equals(book.getOwner().getId(), ((User) connectedUser.getPrincipal()).getId())) {
+                if (!Objects.equals(book.getOwner().getId(), user.getId())) {
                         throw new OperationNotPermittedException(
                                         "You cannot approve the return of a book you do not own");
                 }
-
-                BookTransactionHistory bookTransactionHistory = transactionHistoryRepository
-                                .findByBookIdAndOwnerId(bookId, user.getId())
-                                .orElseThrow(() -> new OperationNotPermittedException(
-                                                "The book is not returned yet. You cannot approve its return"));
-
-                bookTransactionHistory.setReturnApproved(true);
-                return transactionHistoryRepository.save(bookTransactionHistory).getId();
+                throw new OperationNotPermittedException(
+                                "The book is not returned yet. You cannot approve its return");
         }
 
         public void uploadBookCoverPicture(MultipartFile file, Authentication connectedUser, Integer bookId) {
                 Book book = bookRepository.findById(bookId)
                                 .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
                 User user = ((User) connectedUser.getPrincipal());
-                var profilePicture = fileStorageService.saveFile(file, connectedUser.getName());
+                var profilePicture = fileStorageService.saveFile(file);
+                fileStorageService.releaseFile(book.getBookCover());
                 book.setBookCover(profilePicture);
+                book.setCoverPlaceholder(null);
                 bookRepository.save(book);
+                bookResponseCache.evict(bookId);
+                imageDerivativeService.generateAfterCommit(profilePicture, placeholder -> {
+                        bookRepository.updateCoverPlaceholder(bookId, profilePicture, placeholder);
+                        bookResponseCache.evict(bookId);
+                });
         }
 
+        @Transactional(readOnly = true)
         public PageResponse<BorrowedBookResponse> findAllBorrowedBooks(int page, int size,
                         Authentication connectedUser) {
                 User user = ((User) connectedUser.getPrincipal());
                 Pageable pageable = PageRequest.of(page, size, Sort.by("createdDate").descending());
-                Page<BookTransactionHistory> allBorrowedBooks = transactionHistoryRepository.findAllBorrowedBooks(
+                Page<BorrowedBookView> allBorrowedBooks = transactionHistoryRepository.findAllBorrowedBooks(
                                 pageable,
                                 user.getId());
                 List<BorrowedBookResponse> booksResponse = allBorrowedBooks.stream()
@@ -364,11 +311,12 @@ public class BookService {
                                 allBorrowedBooks.isLast());
         }
 
+        @Transactional(readOnly = true)
         public PageResponse<BorrowedBookResponse> findAllReturnedBooks(int page, int size,
                         Authentication connectedUser) {
                 User user = ((User) connectedUser.getPrincipal());
                 Pageable pageable = PageRequest.of(page, size, Sort.by("createdDate").descending());
-                Page<BookTransactionHistory> allBorrowedBooks = transactionHistoryRepository.findAllReturnedBooks(
+                Page<BorrowedBookView> allBorrowedBooks = transactionHistoryRepository.findAllReturnedBooks(
                                 pageable,
                                 user.getId());
                 List<BorrowedBookResponse> booksResponse = allBorrowedBooks.stream()
@@ -384,124 +332,42 @@ public class BookService {
                                 allBorrowedBooks.isLast());
         }
 
+        /**
+         * Records a finished read. Owners and readers without a borrow get a
+         * snapshot on first use.
+         */
         public Integer markBookAsRead(Integer bookId, Authentication connectedUser) {
                 log.info("markBookAsRead called with bookId: {} and user: {}", bookId, connectedUser.getName());
-
-                Book book = bookRepository.findById(bookId)
-                                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
                 User user = ((User) connectedUser.getPrincipal());
-                log.info("Found book: {} and user: {}", book.getTitle(), user.getFullName());
-
-                // Check if user owns the book
-                boolean isOwner = Objects.equals(book.getOwner().getId(), user.getId());
-
-                BookTransactionHistory bookTransactionHistory;
-
-                if (isOwner) {
-                        // If user owns the book, find or create a transaction history
-                        bookTransactionHistory = transactionHistoryRepository
-                                        .findByBookIdAndUserId(bookId, user.getId())
-                                        .orElseGet(() -> {
-                                                // Create a new transaction history for owned book
-                                                BookTransactionHistory newHistory = BookTransactionHistory.builder()
-                                                                .user(user)
-                                                                .book(book)
-                                                                .returned(true)
-                                                                .returnApproved(true)
-                                                                .read(false)
-                                                                .build();
-                                                return transactionHistoryRepository.save(newHistory);
-                                        });
-                } else {
-                        // For non-owners, find any existing transaction history for this user/book
-                        List<BookTransactionHistory> histories = transactionHistoryRepository
-                                        .findAllByBookIdAndUserIdOrderByCreatedDateDesc(bookId, user.getId());
-
-                        if (histories.isEmpty()) {
-                                // No existing transaction, create a new one (user is "borrowing" to read)
-                                log.info("No existing transaction found, creating new one for user to read");
-                                bookTransactionHistory = BookTransactionHistory.builder()
-                                                .user(user)
-                                                .book(book)
-                                                .returned(true) // Mark as returned since they're just reading
-                                                .returnApproved(true)
-                                                .read(false)
-                                                .readCount(0)
-                                                .build();
-                                bookTransactionHistory = transactionHistoryRepository.save(bookTransactionHistory);
-                        } else {
-                                // Use the latest transaction history
-                                bookTransactionHistory = histories.get(0);
-                                log.info("Found existing transaction: {}", bookTransactionHistory.getId());
-                        }
-                }
-
-                log.info("Found/created transaction history: {}", bookTransactionHistory.getId());
 
-                // Mark as read and increment read count
-                bookTransactionHistory.setRead(true);
-                Integer currentCount = bookTransactionHistory.getReadCount();
-                if (currentCount == null) {
-                        currentCount = 0;
-                }
-                bookTransactionHistory.setReadCount(currentCount + 1);
-                BookTransactionHistory saved = transactionHistoryRepository.save(bookTransactionHistory);
-                log.info("Marked book as read successfully. Transaction ID: {}, Read count: {}", saved.getId(),
-                                saved.getReadCount());
-                return saved.getId();
+                Integer historyId = readingLedger.finish(user.getId(), bookId)
+                                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
+                log.info("Marked book as read successfully. Transaction ID: {}", historyId);
+                return historyId;
         }
 
         public Integer unmarkBookAsRead(Integer bookId, Authentication connectedUser) {
                 log.info("unmarkBookAsRead called with bookId: {} and user: {}", bookId, connectedUser.getName());
-
-                Book book = bookRepository.findById(bookId)
-                                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
                 User user = ((User) connectedUser.getPrincipal());
-                log.info("Found book: {} and user: {}", book.getTitle(), user.getFullName());
-
-                // Check if user owns the book
-                boolean isOwner = Objects.equals(book.getOwner().getId(), user.getId());
-
-                BookTransactionHistory bookTransactionHistory;
-
-                if (isOwner) {
-                        // If user owns the book, find or create a transaction history
-                        bookTransactionHistory = transactionHistoryRepository
-                                        .findByBookIdAndUserId(bookId, user.getId())
-                                        .orElseGet(() -> {
-                                                // Create a new transaction history for owned book
-                                                BookTransactionHistory newHistory = BookTransactionHistory.builder()
-                                                                .user(user)
-                                                                .book(book)
-                                                                .returned(true)
-                                                                .returnApproved(true)
-                                                                .read(false)
-                                                                .build();
-                                                return transactionHistoryRepository.save(newHistory);
-                                        });
-                } else {
-                        // For non-owners, find any existing transaction history for this user/book
-                        List<BookTransactionHistory> histories = transactionHistoryRepository
-                                        .findAllByBookIdAndUserIdOrderByCreatedDateDesc(bookId, user.getId());
-
-                        if (histories.isEmpty()) {
-                                throw new OperationNotPermittedException("You have not read this book yet");
-                        } else {
-                                // Use the latest transaction history
-                                bookTransactionHistory = histories.get(0);
-                                log.info("Found existing transaction: {}", bookTransactionHistory.getId());
-                        }
-                }
 
-                log.info("Found transaction history: {}", bookTransactionHistory.getId());
+                Integer historyId = readingLedger.unfinish(user.getId(), bookId)
+                                .orElseThrow(() -> bookRepository.existsById(bookId)
+                                                ? new OperationNotPermittedException("You have not read this book yet")
+                                                : new EntityNotFoundException("No book found with ID:: " + bookId));
+                log.info("Unmarked book as read successfully. Transaction ID: {}", historyId);
+                return historyId;
+        }
 
-                // Unmark as read without affecting return status
-                bookTransactionHistory.setRead(false);
-                BookTransactionHistory saved = transactionHistoryRepository.save(bookTransactionHistory);
-                log.info("Unmarked book as read successfully. Transaction ID: {}", saved.getId());
-                return saved.getId();
+        public Integer updateReadingProgress(Integer bookId, int percent, Authentication connectedUser) {
+                if (percent < 0 || percent > 100) {
+                        throw new OperationNotPermittedException("Reading progress must be between 0 and 100");
+                }
+                User user = ((User) connectedUser.getPrincipal());
+                return readingLedger.progress(user.getId(), bookId, percent)
+                                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
         }
 
+        @Transactional(readOnly = true)
         public PageResponse<BorrowedBookResponse> findAllReadBooks(int page, int size, Authentication connectedUser) {
                 User user = ((User) connectedUser.getPrincipal());
                 log.info("Finding read books for user: {} (ID: {})", user.getFullName(), user.getId());
@@ -510,14 +376,10 @@ public class BookService {
 
                 // Find all transaction histories where the user has returned the book (read
                 // books)
-                Page<BookTransactionHistory> readBooks = transactionHistoryRepository
+                Page<BorrowedBookView> readBooks = transactionHistoryRepository
                                 .findAllReadBooksByUser(user.getId(), pageable);
 
                 log.info("Found {} read books for user {}", readBooks.getTotalElements(), user.getFullName());
-                readBooks.getContent().forEach(transaction -> log.info("Read book: {} (Transaction ID: {}, Read: {})",
-                                transaction.getBook().getTitle(),
-                                transaction.getId(),
-                                transaction.isRead()));
 
                 List<BorrowedBookResponse> booksResponse = readBooks.stream()
                                 .map(bookMapper::toBorrowedBookResponse)
@@ -533,6 +395,88 @@ public class BookService {
                                 readBooks.isLast());
         }
 
+        @Transactional(readOnly = true)
+        public CursorPageResponse<BookResponse> findAllBooks(String cursor, int size, Authentication connectedUser) {
+                PageCursor position = PageCursor.decode(cursor);
+                int pageSize = cursorPageSize(size);
+                List<BookListView> books = bookRepository.findDisplayableBooksBefore(
+                                position.createdDate(), position.id(), Limit.of(pageSize + 1));
+                return toCursorPage(books, pageSize, book -> new PageCursor(book.createdDate(), book.id()),
+                                bookMapper::toBookResponse);
+        }
+
+        @Transactional(readOnly = true)
+        public CursorPageResponse<BookResponse> findAllBooksByOwner(String cursor, int size,
+                        Authentication connectedUser) {
+                User user = ((User) connectedUser.getPrincipal());
+                PageCursor position = PageCursor.decode(cursor);
+                int pageSize = cursorPageSize(size);
+                List<BookListView> books = bookRepository.findOwnerBooksBefore(
+                                user.getId(), position.createdDate(), position.id(), Limit.of(pageSize + 1));
+                return toCursorPage(books, pageSize, book -> new PageCursor(book.createdDate(), book.id()),
+                                bookMapper::toBookResponse);
+        }
+
+        @Transactional(readOnly = true)
+        public CursorPageResponse<BorrowedBookResponse> findAllBorrowedBooks(String cursor, int size,
+                        Authentication connectedUser) {
+                User user = ((User) connectedUser.getPrincipal());
+                PageCursor position = PageCursor.decode(cursor);
+                int pageSize = cursorPageSize(size);
+                List<BorrowedBookView> histories = transactionHistoryRepository.findBorrowedBooksBefore(
+                                user.getId(), position.createdDate(), position.id(), Limit.of(pageSize + 1));
+                return toCursorPage(histories, pageSize,
+                                history -> new PageCursor(history.createdDate(), history.historyId()),
+                                bookMapper::toBorrowedBookResponse);
+        }
+
+        @Transactional(readOnly = true)
+        public CursorPageResponse<BorrowedBookResponse> findAllReturnedBooks(String cursor, int size,
+                        Authentication connectedUser) {
+                User user = ((User) connectedUser.getPrincipal());
+                PageCursor position = PageCursor.decode(cursor);
+                int pageSize = cursorPageSize(size);
+                List<BorrowedBookView> histories = transactionHistoryRepository.findReturnedBooksBefore(
+                                user.getId(), position.createdDate(), position.id(), Limit.of(pageSize + 1));
+                return toCursorPage(histories, pageSize,
+                                history -> new PageCursor(history.createdDate(), history.historyId()),
+                                bookMapper::toBorrowedBookResponse);
+        }
+
+        @Transactional(readOnly = true)
+        public CursorPageResponse<BorrowedBookResponse> findAllReadBooks(String cursor, int size,
+                        Authentication connectedUser) {
+                User user = ((User) connectedUser.getPrincipal());
+                PageCursor position = PageCursor.decode(cursor);
+                int pageSize = cursorPageSize(size);
+                List<BorrowedBookView> histories = transactionHistoryRepository.findReadBooksBefore(
+                                user.getId(), position.createdDate(), position.id(), Limit.of(pageSize + 1));
+                return toCursorPage(histories, pageSize,
+                                history -> new PageCursor(history.createdDate(), history.historyId()),
+                                bookMapper::toBorrowedBookResponse);
+        }
+
+        private int cursorPageSize(int size) {
+                return Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        }
+
+        /**
+         * Rows are fetched with limit size + 1; the extra row only signals that
+         * another page exists and is not returned
+         */
+        private <E, R> CursorPageResponse<R> toCursorPage(List<E> rows, int size,
+                        Function<E, PageCursor> cursorOf, Function<E, R> mapper) {
+                boolean hasNext = rows.size() > size;
+                List<E> page = hasNext ? rows.subList(0, size) : rows;
+                String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+                return CursorPageResponse.<R>builder()
+                                .content(page.stream().map(mapper).toList())
+                                .size(size)
+                                .nextCursor(nextCursor)
+                                .hasNext(hasNext)
+                                .build();
+        }
+
         public void createTestTransaction(Integer bookId, Authentication connectedUser) {
                 User user = ((User) connectedUser.getPrincipal());
                 Book book = bookRepository.findById(bookId)
@@ -541,8 +485,7 @@ public class BookService {
                 log.info("Creating test transaction for book: {} and user: {}", book.getTitle(), user.getFullName());
 
                 // Check if transaction already exists
-                Optional<BookTransactionHistory> existingTransaction = transactionHistoryRepository
-                                .findByBookIdAndUserId(bookId, user.getId());
+                Optional<BookTransactionHistory> existingTransaction = readingLedger.snapshot(user.getId(), bookId);
 
                 if (existingTransaction.isPresent()) {
                         log.info("Transaction already exists with ID: {}", existingTransaction.get().getId());
@@ -562,12 +505,12 @@ public class BookService {
                                 savedTransaction.getId(), book.getTitle(), savedTransaction.isRead());
         }
 
-        public void deleteAllBooks() {
+        /**
+         * Queues a background purge of all books and the rows referencing them.
+         */
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        public PurgeJobStatus deleteAllBooks() {
                 log.info("Deleting all books from database");
-                // Delete transaction history first due to foreign key constraints
-                transactionHistoryRepository.deleteAll();
-                // Then delete books
-                bookRepository.deleteAll();
-                log.info("All books deleted successfully");
+                return bulkPurgeService.start(PurgeScope.BOOKS);
         }
 }
\ No newline at end of file
@@ -22,5 +22,7 @@ public class BorrowedBookResponse {
     private boolean returnApproved;
     private boolean read;
     private int readCount;
-    private Object cover; // Can be byte[] for local files or String for URLs
+    private int progress;
+    private String cover; // Remote cover URL or GET /books/cover/{id} for uploaded covers
+    private String coverPlaceholder; // LQIP data URI for uploaded covers, null until generated
 }
\ No newline at end of file
@@ -0,0 +1,250 @@
+package com.rahil.book_nexus.book;
+
+import com.rahil.book_nexus.googlebooks.GoogleBookDto;
+import com.rahil.book_nexus.googlebooks.GoogleBookResponse;
+import com.rahil.book_nexus.googlebooks.GoogleBookService;
+import com.rahil.book_nexus.history.BookTransactionHistory;
+import com.rahil.book_nexus.history.BookTransactionHistoryRepository;
+import com.rahil.book_nexus.user.User;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Imports Google Books search results as catalogue books. Queries are fetched
+ * concurrently on a small bounded pool; ISBNs across every result are checked
+ * with one IN query, and each query's books and owner history rows are written
+ * in their own transaction with JDBC batching. A failing query only affects its
+ * own stats entry.
+ */
+@Service
+@Slf4j
+public class GoogleBookImportService {
+
+    private final GoogleBookService googleBookService;
+    private final BookRepository bookRepository;
+    private final BookTransactionHistoryRepository transactionHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService fetchExecutor;
+
+    @Value("${application.external.googlebooks.enabled:false}")
+    private boolean googleBooksEnabled;
+
+    @Value("${application.external.googlebooks.import.fetch-timeout-seconds:20}")
+    private long fetchTimeoutSeconds;
+
+    public GoogleBookImportService(
+            GoogleBookService googleBookService,
+            BookRepository bookRepository,
+            BookTransactionHistoryRepository transactionHistoryRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.external.googlebooks.import.parallelism:4}") int parallelism) {
+        this.googleBookService = googleBookService;
+        this.bookRepository = bookRepository;
+        this.transactionHistoryRepository = transactionHistoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fetchExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "google-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Imports up to maxPerQuery books for each query, owned by the given user.
+     * Returns one stats entry per distinct query, in request order.
+     */
+    public List<GoogleImportStats> importQueries(List<String> queries, int maxPerQuery, User owner) {
+        return importQueries(queries, maxPerQuery, owner, null, stats -> {
+        });
+    }
+
+    /**
+     * As above, but no fetch is waited on past the deadline (when not null) and
+     * each query's stats are handed to onQueryDone as soon as it is persisted.
+     */
+    public List<GoogleImportStats> importQueries(List<String> queries, int maxPerQuery, User owner,
+            Instant deadline, Consumer<GoogleImportStats> onQueryDone) {
+        List<String> distinctQueries = distinct(queries);
+        if (!googleBooksEnabled) {
+            log.warn("Google Books import is disabled");
+            List<GoogleImportStats> stats = distinctQueries.stream()
+                    .map(query -> GoogleImportStats.failed(query, "Google Books import is disabled", 0))
+                    .toList();
+            stats.forEach(onQueryDone);
+            return stats;
+        }
+
+        long started = System.nanoTime();
+        Map<String, Future<GoogleBookResponse>> fetches = new LinkedHashMap<>();
+        for (String query : distinctQueries) {
+            fetches.put(query, fetchExecutor.submit(() -> googleBookService.fetchVolumes(query, maxPerQuery, 0)));
+        }
+
+        Map<String, List<GoogleBookDto>> fetched = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<GoogleBookResponse>> entry : fetches.entrySet()) {
+            long waitMillis = TimeUnit.SECONDS.toMillis(fetchTimeoutSeconds);
+            if (deadline != null) {
+                waitMillis = Math.max(0, Math.min(waitMillis, Duration.between(Instant.now(), deadline).toMillis()));
+            }
+            try {
+                GoogleBookResponse response = entry.getValue().get(waitMillis, TimeUnit.MILLISECONDS);
+                fetched.put(entry.getKey(), response.getItems() != null ? response.getItems() : List.of());
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                errors.put(entry.getKey(), "Timed out after " + waitMillis + "ms");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                errors.put(entry.getKey(), cause.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors.put(entry.getKey(), "Interrupted");
+            }
+        }
+        return persistAll(distinctQueries, fetched, errors, owner, started, onQueryDone);
+    }
+
+    /**
+     * Imports already fetched results, keyed by the query that produced them,
+     * e.g. a bundled catalogue snapshot. Needs no network access, so it runs
+     * whether or not the Google Books integration is enabled.
+     */
+    public List<GoogleImportStats> importItems(Map<String, List<GoogleBookDto>> itemsByQuery, User owner,
+            Consumer<GoogleImportStats> onQueryDone) {
+        Map<String, List<GoogleBookDto>> items = new LinkedHashMap<>();
+        itemsByQuery.forEach((query, list) -> items.put(query, list != null ? list : List.of()));
+        return persistAll(List.copyOf(items.keySet()), items, Map.of(), owner, System.nanoTime(), onQueryDone);
+    }
+
+    private List<GoogleImportStats> persistAll(List<String> queries, Map<String, List<GoogleBookDto>> fetched,
+            Map<String, String> errors, User owner, long started, Consumer<GoogleImportStats> onQueryDone) {
+        Set<String> isbns = new HashSet<>();
+        fetched.values().forEach(items -> items.stream()
+                .map(GoogleBookDto::getIsbn13)
+                .filter(isbn -> isbn != null && !isbn.isBlank())
+                .forEach(isbns::add));
+        Set<String> seenIsbns = isbns.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(bookRepository.findExistingIsbns(isbns));
+
+        List<GoogleImportStats> stats = new ArrayList<>();
+        for (String query : queries) {
+            GoogleImportStats queryStats;
+            if (errors.containsKey(query)) {
+                log.warn("Google Books import for '{}' failed: {}", query, errors.get(query));
+                queryStats = GoogleImportStats.failed(query, errors.get(query),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            } else {
+                queryStats = persist(query, fetched.get(query), seenIsbns, owner, started);
+            }
+            stats.add(queryStats);
+            onQueryDone.accept(queryStats);
+        }
+        return stats;
+    }
+
+    private static List<String> distinct(List<String> queries) {
+        return queries.stream()
+                .filter(query -> query != null && !query.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+    }
+
+    private GoogleImportStats persist(String query, List<GoogleBookDto> items, Set<String> seenIsbns, User owner,
+            long started) {
+        List<Book> books = new ArrayList<>();
+        Set<String> claimed = new HashSet<>();
+        int duplicates = 0;
+        try {
+            for (GoogleBookDto item : items) {
+                String isbn = item.getIsbn13();
+                if (isbn != null && (seenIsbns.contains(isbn) || !claimed.add(isbn))) {
+                    duplicates++;
+                    continue;
+                }
+                books.add(toBook(item, owner));
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                bookRepository.saveAll(books);
+                transactionHistoryRepository.saveAll(books.stream()
+                        .map(book -> BookTransactionHistory.builder()
+                                .user(owner)
+                                .book(book)
+                                .returned(true)
+                                .returnApproved(true)
+                                .read(false)
+                                .readCount(0)
+                                .createdBy(owner.getId())
+                                .build())
+                        .toList());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Google Books import for '{}' failed to persist: {}", query, e.getMessage());
+            return GoogleImportStats.failed(query, e.getMessage(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+        seenIsbns.addAll(claimed);
+        log.info("Imported {} books from Google for query '{}'", books.size(), query);
+        return new GoogleImportStats(query, items.size(), duplicates, books.size(), null,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private Book toBook(GoogleBookDto item, User owner) {
+        // A JSON null in the authors array comes through as a null element
+        String authors = item.getAuthors() == null ? "" : item.getAuthors().stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse("");
+        String coverUrl = item.getImageLinks() != null ? item.getImageLinks().getThumbnail() : null;
+        Book book = Book.builder()
+                .title(truncate(item.getTitle(), 1000))
+                .authorName(truncate(authors, 500))
+                .isbn(item.getIsbn13())
+                .synopsis(truncate(item.getDescription() != null ? item.getDescription() : "", 2000))
+                .archived(false)
+                .shareable(true)
+                .bookCover(coverUrl)
+                .owner(owner)
+                .build();
+        book.setCreatedBy(owner.getId());
+        return book;
+    }
+
+    private String truncate(String value, int maxLength) {
+        if (value == null) {
+            return null;
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength - 3) + "..." : value;
+    }
+}
@@ -0,0 +1,10 @@
+package com.rahil.book_nexus.book;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record GoogleImportRequest(
+        @NotEmpty List<String> queries,
+        Integer maxPerQuery) {
+}
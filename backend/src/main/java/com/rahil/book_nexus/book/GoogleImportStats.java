@@ -0,0 +1,18 @@
+package com.rahil.book_nexus.book;
+
+/**
+ * Outcome of importing one Google Books query. error is null on success;
+ * elapsedMillis is measured from the start of the whole batch.
+ */
+public record GoogleImportStats(
+        String query,
+        int fetched,
+        int duplicates,
+        int imported,
+        String error,
+        long elapsedMillis) {
+
+    static GoogleImportStats failed(String query, String error, long elapsedMillis) {
+        return new GoogleImportStats(query, 0, 0, 0, error, elapsedMillis);
+    }
+}
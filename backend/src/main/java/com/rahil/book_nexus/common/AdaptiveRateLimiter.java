@@ -0,0 +1,191 @@
+package com.rahil.book_nexus.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket with prioritised waiters and an adaptive rate. Callers that
+ * find no token queue by priority (INTERACTIVE before LOOKUP before
+ * BACKGROUND, FIFO within a class) and give up with CallRejectedException
+ * once their wait limit passes. The rate follows AIMD: each throttled
+ * response halves it (at most once per second, and never below minRate) and
+ * empties the bucket; each success adds additiveIncrease, up to maxRate.
+ *
+ * Publishes ratelimiter.rate, ratelimiter.waiting, ratelimiter.rejected
+ * (by priority) and ratelimiter.throttled, tagged with the limiter name.
+ */
+@Slf4j
+public class AdaptiveRateLimiter {
+
+    public enum Priority {
+        INTERACTIVE, LOOKUP, BACKGROUND
+    }
+
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final double maxRate;
+    private final double minRate;
+    private final double burst;
+    private final double additiveIncrease;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+    private long sequence;
+    private double rate;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private long decreasedAt = System.nanoTime() - DECREASE_COOLDOWN_NANOS;
+
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+    private final Counter throttled;
+
+    public AdaptiveRateLimiter(String name, double maxRate, double minRate, int burst, double additiveIncrease,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxRate = maxRate;
+        this.minRate = Math.min(minRate, maxRate);
+        this.burst = burst;
+        this.additiveIncrease = additiveIncrease;
+        this.rate = maxRate;
+        this.tokens = burst;
+        Gauge.builder("ratelimiter.rate", this, AdaptiveRateLimiter::rate)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("ratelimiter.waiting", this, AdaptiveRateLimiter::waiting)
+                .tag("name", name)
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("ratelimiter.rejected")
+                    .tag("name", name)
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.throttled = Counter.builder("ratelimiter.throttled")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token, waiting up to maxWait behind any higher-priority or
+     * earlier callers.
+     */
+    public void acquire(Priority priority, Duration maxWait) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        lock.lock();
+        try {
+            refill();
+            if (waiters.isEmpty() && tokens >= 1) {
+                tokens -= 1;
+                return;
+            }
+            Waiter waiter = new Waiter(priority, sequence++);
+            waiters.add(waiter);
+            try {
+                while (true) {
+                    refill();
+                    boolean first = waiters.peek() == waiter;
+                    if (first && tokens >= 1) {
+                        waiters.poll();
+                        tokens -= 1;
+                        changed.signalAll();
+                        return;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        waiters.remove(waiter);
+                        changed.signalAll();
+                        rejected.get(priority).increment();
+                        throw new CallRejectedException(name, "no token within " + maxWait + " for " + priority);
+                    }
+                    changed.awaitNanos(first ? Math.min(remaining, nanosUntilToken()) : remaining);
+                }
+            } catch (InterruptedException e) {
+                waiters.remove(waiter);
+                changed.signalAll();
+                Thread.currentThread().interrupt();
+                throw new CallRejectedException(name, "interrupted waiting for a token");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            if (rate < maxRate) {
+                refill();
+                rate = Math.min(maxRate, rate + additiveIncrease);
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Backs off after the remote side reported a quota or rate limit breach.
+     */
+    public void onThrottled() {
+        lock.lock();
+        try {
+            throttled.increment();
+            long now = System.nanoTime();
+            if (now - decreasedAt < DECREASE_COOLDOWN_NANOS) {
+                return;
+            }
+            refill();
+            decreasedAt = now;
+            rate = Math.max(minRate, rate / 2);
+            tokens = 0;
+            log.warn("Rate limiter {} throttled upstream; rate reduced to {}/s", name, String.format("%.2f", rate));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double rate() {
+        lock.lock();
+        try {
+            return rate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int waiting() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * rate / TimeUnit.SECONDS.toNanos(1));
+        refilledAt = now;
+    }
+
+    private long nanosUntilToken() {
+        return Math.max(1, (long) ((1 - tokens) / rate * TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private record Waiter(Priority priority, long sequence) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.rahil.book_nexus.common;
+
+import lombok.Getter;
+
+/**
+ * Thrown without running the call when a CircuitBreaker is open or a
+ * Bulkhead is full.
+ */
+@Getter
+public class CallRejectedException extends RuntimeException {
+
+    private final String name;
+
+    public CallRejectedException(String name, String reason) {
+        super(name + " rejected call: " + reason, null, false, false);
+        this.name = name;
+    }
+}
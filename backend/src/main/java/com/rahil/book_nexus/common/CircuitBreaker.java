@@ -0,0 +1,176 @@
+package com.rahil.book_nexus.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Count-based circuit breaker. While CLOSED it records the outcome of the
+ * last windowSize calls, and opens once at least minimumCalls are recorded
+ * and the failure rate reaches the threshold. While OPEN every call is
+ * rejected with CallRejectedException. After openDuration it goes HALF_OPEN
+ * and lets halfOpenProbes calls through: if they all succeed it closes, and
+ * the first failure reopens it.
+ *
+ * Publishes circuit.breaker.state (0 closed, 1 half-open, 2 open) and
+ * circuit.breaker.calls (outcome success, failure or rejected), both tagged
+ * with the breaker name.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    // Ring buffer of the last outcomes while closed; true is a failure
+    private final boolean[] window;
+    private int windowIndex;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    private final Counter successes;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+            Duration openDuration, int halfOpenProbes, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        Gauge.builder("circuit.breaker.state", this, breaker -> breaker.state().ordinal())
+                .tag("name", name)
+                .register(meterRegistry);
+        this.successes = calls(meterRegistry, "success");
+        this.failed = calls(meterRegistry, "failure");
+        this.rejected = calls(meterRegistry, "rejected");
+    }
+
+    private Counter calls(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("circuit.breaker.calls")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs call if the breaker admits it. Exceptions matching isFailure count
+     * against the breaker; any other exception counts as a success, since the
+     * remote side answered. Either way the exception is rethrown.
+     */
+    public <T> T execute(Supplier<T> call, Predicate<RuntimeException> isFailure) {
+        if (!tryAcquire()) {
+            rejected.increment();
+            throw new CallRejectedException(name, "circuit open");
+        }
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isFailure.test(e)) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+            throw e;
+        }
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    private synchronized void onSuccess() {
+        successes.increment();
+        if (state == State.CLOSED) {
+            record(false);
+        } else if (state == State.HALF_OPEN && ++probeSuccesses >= halfOpenProbes) {
+            transition(State.CLOSED);
+        }
+    }
+
+    private synchronized void onFailure() {
+        failed.increment();
+        if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+                open();
+            }
+        } else if (state == State.HALF_OPEN) {
+            open();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[windowIndex]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            failures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        transition(State.OPEN);
+    }
+
+    private void transition(State next) {
+        if (next == State.CLOSED) {
+            recorded = 0;
+            failures = 0;
+            windowIndex = 0;
+        }
+        if (state != next) {
+            log.warn("Circuit breaker {} {} -> {}", name, state, next);
+            state = next;
+        }
+    }
+}
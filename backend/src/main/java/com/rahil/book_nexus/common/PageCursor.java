@@ -0,0 +1,43 @@
+package com.rahil.book_nexus.common;
+
+import com.rahil.book_nexus.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Seek position for keyset pagination ordered by (createdDate DESC, id DESC).
+ * Encoded as an opaque URL-safe token so clients never build cursors themselves.
+ */
+public record PageCursor(LocalDate createdDate, Integer id) {
+
+    /**
+     * Position before the first row, so the first page uses the same seek query.
+     */
+    public static final PageCursor START = new PageCursor(LocalDate.of(9999, 12, 31), Integer.MAX_VALUE);
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid page cursor");
+            }
+            return new PageCursor(
+                    LocalDate.parse(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,199 @@
+package com.rahil.book_nexus.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded in-process cache with a per-entry TTL and LRU eviction once the entry
+ * cap (or, when a weigher is given, the total weight cap) is reached. Publishes
+ * the standard Micrometer cache meters (cache.gets, cache.evictions,
+ * cache.size) tagged with the cache name; callers that joined another caller's
+ * load count as cache.gets with result=coalesced.
+ *
+ * Loads run outside the lock, and concurrent misses on one key share a single
+ * load. A load that overlaps an invalidation is returned to its callers but
+ * not stored, so an eviction is never undone by a reader that fetched the old
+ * state.
+ */
+public class TtlLruCache<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, CompletableFuture<V>> loading = new HashMap<>();
+    private long totalWeight;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter explicitEvictions;
+
+    public TtlLruCache(String name, int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this(name, maxEntries, Long.MAX_VALUE, value -> 1, ttl, meterRegistry);
+    }
+
+    /**
+     * A cache bounded by both entry count and the summed weight of its values.
+     * A value heavier than maxWeight on its own is returned but never stored.
+     */
+    public TtlLruCache(String name, int maxEntries, long maxWeight, ToLongFunction<V> weigher, Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.gets").tag("cache", name).tag("result", "coalesced")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("cache.evictions").tag("cache", name).tag("cause", "size")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("cache.evictions").tag("cache", name).tag("cause", "expired")
+                .register(meterRegistry);
+        this.explicitEvictions = Counter.builder("cache.evictions").tag("cache", name).tag("cause", "explicit")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, TtlLruCache::size).tag("cache", name).register(meterRegistry);
+        if (maxWeight != Long.MAX_VALUE) {
+            Gauge.builder("cache.weight", this, TtlLruCache::weight).tag("cache", name).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns the cached value or loads, stores and returns it. Null results are
+     * not cached; exceptions from the loader propagate to every caller sharing
+     * that load.
+     */
+    public V get(K key, Supplier<V> loader) {
+        CompletableFuture<V> load;
+        boolean joined;
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() - System.nanoTime() > 0) {
+                    hits.increment();
+                    return entry.value();
+                }
+                remove(key);
+                expiredEvictions.increment();
+            }
+            CompletableFuture<V> pending = loading.get(key);
+            if (pending != null) {
+                coalesced.increment();
+                load = pending;
+                joined = true;
+            } else {
+                misses.increment();
+                load = new CompletableFuture<>();
+                loading.put(key, load);
+                joined = false;
+            }
+            loadGeneration = generation;
+        }
+        if (joined) {
+            return await(load);
+        }
+
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                loading.remove(key, load);
+            }
+            load.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (this) {
+            loading.remove(key, load);
+            if (value != null && loadGeneration == generation) {
+                long weight = weigher.applyAsLong(value);
+                if (weight <= maxWeight) {
+                    remove(key);
+                    entries.put(key, new Entry<>(value, weight, System.nanoTime() + ttlNanos));
+                    totalWeight += weight;
+                    trim();
+                }
+            }
+        }
+        load.complete(value);
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        loading.remove(key);
+        if (remove(key)) {
+            explicitEvictions.increment();
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        loading.clear();
+        explicitEvictions.increment(entries.size());
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    private boolean remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed == null) {
+            return false;
+        }
+        totalWeight -= removed.weight();
+        return true;
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && eldest.hasNext()) {
+            totalWeight -= eldest.next().getValue().weight();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry<V>(V value, long weight, long expiresAt) {
+    }
+}
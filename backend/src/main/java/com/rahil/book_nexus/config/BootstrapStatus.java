@@ -0,0 +1,27 @@
+package com.rahil.book_nexus.config;
+
+import com.rahil.book_nexus.book.GoogleImportStats;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of the startup catalogue seeding, polled via GET /admin/bootstrap.
+ * queries holds one stats entry per finished query; message explains a skip
+ * or failure.
+ */
+public record BootstrapStatus(
+        State state,
+        DataBootstrap.Source source,
+        int queriesTotal,
+        int queriesDone,
+        int booksImported,
+        List<GoogleImportStats> queries,
+        Instant startedAt,
+        Instant finishedAt,
+        String message) {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, SKIPPED, FAILED
+    }
+}
@@ -1,58 +1,179 @@
 package com.rahil.book_nexus.config;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rahil.book_nexus.book.BookRepository;
-import com.rahil.book_nexus.book.BookService;
+import com.rahil.book_nexus.book.GoogleBookImportService;
+import com.rahil.book_nexus.book.GoogleImportStats;
+import com.rahil.book_nexus.googlebooks.GoogleBookDto;
 import com.rahil.book_nexus.user.User;
 import com.rahil.book_nexus.user.UserRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.core.annotation.Order;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Seeds an empty catalogue once at startup. Seeding runs on a background
+ * thread so it never delays readiness: from Google Books (queries fetched
+ * concurrently by GoogleBookImportService, bounded by a total time budget) or
+ * from a bundled JSON snapshot that needs no network access.
+ */
 @Component
 @Order(1)
-@RequiredArgsConstructor
 @Slf4j
 public class DataBootstrap implements ApplicationRunner {
 
-    private final BookService bookService;
+    private static final List<String> QUERIES =
+            List.of("bestsellers fiction", "fantasy", "science", "history", "self help");
+    private static final int MAX_PER_QUERY = 5;
+
+    public enum Source {
+        NONE, GOOGLE, SNAPSHOT
+    }
+
+    private final GoogleBookImportService googleBookImportService;
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final Source source;
+    private final boolean googleBooksEnabled;
+    private final Duration timeBudget;
+    private final String snapshotLocation;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "data-bootstrap");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private BootstrapStatus status;
 
-    @Value("${application.external.googlebooks.enabled:false}")
-    private boolean googleBooksEnabled;
+    public DataBootstrap(
+            GoogleBookImportService googleBookImportService,
+            BookRepository bookRepository,
+            UserRepository userRepository,
+            ResourceLoader resourceLoader,
+            ObjectMapper objectMapper,
+            @Value("${application.bootstrap.source:google}") Source source,
+            @Value("${application.external.googlebooks.enabled:false}") boolean googleBooksEnabled,
+            @Value("${application.bootstrap.time-budget:60s}") Duration timeBudget,
+            @Value("${application.bootstrap.snapshot:classpath:seed/catalog-snapshot.json}") String snapshotLocation) {
+        this.googleBookImportService = googleBookImportService;
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.source = source;
+        this.googleBooksEnabled = googleBooksEnabled;
+        this.timeBudget = timeBudget;
+        this.snapshotLocation = snapshotLocation;
+        this.status = new BootstrapStatus(BootstrapStatus.State.PENDING, source, 0, 0, 0, List.of(),
+                null, null, null);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
 
     @Override
     public void run(ApplicationArguments args) {
+        start();
+    }
+
+    /**
+     * Queues a seeding run unless one is already queued or running. Returns
+     * immediately with the current status.
+     */
+    public synchronized BootstrapStatus start() {
+        if (status.state() == BootstrapStatus.State.RUNNING) {
+            return status;
+        }
+        status = new BootstrapStatus(BootstrapStatus.State.RUNNING, source, 0, 0, 0, List.of(),
+                Instant.now(), null, null);
+        executor.execute(this::seed);
+        return status;
+    }
+
+    public synchronized BootstrapStatus status() {
+        return status;
+    }
+
+    private void seed() {
         try {
-            if (!googleBooksEnabled) {
-                log.info("Google Books import disabled; skipping bootstrap import");
+            if (source == Source.NONE) {
+                finish(BootstrapStatus.State.SKIPPED, "Bootstrap disabled");
+                return;
+            }
+            if (source == Source.GOOGLE && !googleBooksEnabled) {
+                finish(BootstrapStatus.State.SKIPPED, "Google Books import disabled");
                 return;
             }
             if (bookRepository.count() > 0) {
-                log.info("Books already present; skipping bootstrap import");
+                finish(BootstrapStatus.State.SKIPPED, "Books already present");
                 return;
             }
             User owner = userRepository.findAll().stream().findFirst().orElse(null);
             if (owner == null) {
-                log.info("No users found; skip bootstrap import until a user registers");
+                finish(BootstrapStatus.State.SKIPPED, "No users found; waiting for a user to register");
                 return;
             }
-            var auth = new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities());
-            List<String> queries = List.of("bestsellers fiction", "fantasy", "science", "history", "self help");
-            int total = 0;
-            for (String q : queries) {
-                total += bookService.importFromGoogle(q, 5, auth);
+            if (source == Source.SNAPSHOT) {
+                Map<String, List<GoogleBookDto>> snapshot = readSnapshot();
+                expect(snapshot.size());
+                googleBookImportService.importItems(snapshot, owner, this::queryDone);
+            } else {
+                expect(QUERIES.size());
+                googleBookImportService.importQueries(QUERIES, MAX_PER_QUERY, owner,
+                        Instant.now().plus(timeBudget), this::queryDone);
             }
-            log.info("Bootstrap import added {} books from Google Books", total);
+            finish(BootstrapStatus.State.COMPLETED, null);
         } catch (Exception e) {
             log.warn("Bootstrap import failed: {}", e.getMessage());
+            finish(BootstrapStatus.State.FAILED, e.getMessage());
+        }
+    }
+
+    private Map<String, List<GoogleBookDto>> readSnapshot() throws IOException {
+        Resource resource = resourceLoader.getResource(snapshotLocation);
+        try (InputStream in = resource.getInputStream()) {
+            return objectMapper.readValue(in, new TypeReference<>() {
+            });
         }
     }
+
+    private synchronized void expect(int queries) {
+        status = new BootstrapStatus(status.state(), source, queries, 0, 0, List.of(), status.startedAt(), null,
+                null);
+    }
+
+    private synchronized void queryDone(GoogleImportStats stats) {
+        List<GoogleImportStats> queries = new ArrayList<>(status.queries());
+        queries.add(stats);
+        status = new BootstrapStatus(status.state(), source, status.queriesTotal(), queries.size(),
+                status.booksImported() + stats.imported(), List.copyOf(queries), status.startedAt(), null, null);
+    }
+
+    private synchronized void finish(BootstrapStatus.State state, String message) {
+        status = new BootstrapStatus(state, source, status.queriesTotal(), status.queriesDone(),
+                status.booksImported(), status.queries(), status.startedAt(), Instant.now(), message);
+        log.info("Bootstrap {} ({}): {} books from {} of {} queries{}", state, source, status.booksImported(),
+                status.queriesDone(), status.queriesTotal(), message != null ? " - " + message : "");
+    }
 }
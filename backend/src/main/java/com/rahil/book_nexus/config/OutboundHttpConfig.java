@@ -0,0 +1,57 @@
+package com.rahil.book_nexus.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * The shared RestTemplate for outbound calls (Google Books, remote covers).
+ * It is backed by a single JDK HttpClient, which pools and keeps connections
+ * alive and negotiates HTTP/2 over TLS.
+ *
+ * - connect-timeout bounds the TCP and TLS handshake.
+ * - read-timeout bounds the wait for response headers.
+ * - total-timeout bounds the whole exchange, including the body.
+ * - max-per-host caps concurrent requests to one destination.
+ *
+ * Requests are observed by the RestTemplateBuilder as http.client.requests,
+ * tagged with the destination host as client.name.
+ */
+@Configuration
+public class OutboundHttpConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public OutboundHttpInterceptor outboundHttpInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${application.http.outbound.max-per-host:16}") int maxPerHost,
+            @Value("${application.http.outbound.acquire-timeout:1s}") Duration acquireTimeout,
+            @Value("${application.http.outbound.total-timeout:15s}") Duration totalTimeout) {
+        return new OutboundHttpInterceptor(meterRegistry, maxPerHost, acquireTimeout, totalTimeout);
+    }
+
+    @Bean
+    public RestTemplate restTemplate(
+            RestTemplateBuilder builder,
+            OutboundHttpInterceptor outboundHttpInterceptor,
+            @Value("${application.http.outbound.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${application.http.outbound.read-timeout:5s}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return builder
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(outboundHttpInterceptor)
+                .build();
+    }
+}
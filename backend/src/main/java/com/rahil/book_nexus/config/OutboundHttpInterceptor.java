@@ -0,0 +1,241 @@
+package com.rahil.book_nexus.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent requests per destination host and enforces a total
+ * deadline per request, including the time spent waiting for a slot and
+ * reading the body. A slot is held until the response is closed, which
+ * RestTemplate does once the extractor returns. An exchange still running at
+ * the deadline fails with a SocketTimeoutException.
+ *
+ * Publishes http.client.outbound.in-flight and
+ * http.client.outbound.rejected (reason saturated or deadline) per host.
+ */
+public class OutboundHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxPerHost;
+    private final Duration acquireTimeout;
+    private final Duration totalTimeout;
+    private final Map<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbound-http-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OutboundHttpInterceptor(MeterRegistry meterRegistry, int maxPerHost, Duration acquireTimeout,
+            Duration totalTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.maxPerHost = maxPerHost;
+        this.acquireTimeout = acquireTimeout;
+        this.totalTimeout = totalTimeout;
+    }
+
+    public void shutdown() {
+        deadlines.shutdownNow();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost() != null ? request.getURI().getHost() : "none";
+        Semaphore permits = permitsByHost.computeIfAbsent(host, this::register);
+        Deadline deadline = new Deadline(host, permits);
+        try {
+            if (!permits.tryAcquire(Math.min(acquireTimeout.toNanos(), totalTimeout.toNanos()),
+                    TimeUnit.NANOSECONDS)) {
+                deadline.cancel(false);
+                rejected(host, "saturated");
+                throw new IOException("Too many concurrent requests to " + host);
+            }
+        } catch (InterruptedException e) {
+            deadline.cancel(false);
+            throw deadline.failure(e);
+        }
+
+        try {
+            return new DeadlineResponse(execution.execute(request, body), deadline);
+        } catch (IOException | RuntimeException e) {
+            deadline.cancel(true);
+            throw deadline.failure(e);
+        }
+    }
+
+    private Semaphore register(String host) {
+        Semaphore permits = new Semaphore(maxPerHost);
+        Gauge.builder("http.client.outbound.in-flight", permits, p -> maxPerHost - p.availablePermits())
+                .tag("host", host)
+                .register(meterRegistry);
+        return permits;
+    }
+
+    private void rejected(String host, String reason) {
+        Counter.builder("http.client.outbound.rejected")
+                .tag("host", host)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Interrupts the calling thread if the exchange is still running at the
+     * deadline; the JDK client's send and body reads are interruptible. The
+     * interrupt can only land before cancel, and cancel clears it, so it never
+     * leaks past the exchange.
+     */
+    private final class Deadline {
+
+        private final String host;
+        private final Semaphore permits;
+        private final Thread caller = Thread.currentThread();
+        private final ScheduledFuture<?> timer;
+        private boolean done;
+        private boolean expired;
+
+        private Deadline(String host, Semaphore permits) {
+            this.host = host;
+            this.permits = permits;
+            this.timer = deadlines.schedule(this::expire, totalTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void expire() {
+            if (!done) {
+                expired = true;
+                rejected(host, "deadline");
+                caller.interrupt();
+            }
+        }
+
+        /**
+         * Ends the exchange, releasing the host slot if one was taken.
+         */
+        private void cancel(boolean release) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            timer.cancel(false);
+            if (expired) {
+                Thread.interrupted();
+            }
+            if (release) {
+                permits.release();
+            }
+        }
+
+        private synchronized boolean expired() {
+            return expired;
+        }
+
+        private IOException failure(Exception cause) {
+            if (expired()) {
+                Thread.interrupted();
+                SocketTimeoutException timeout = new SocketTimeoutException(
+                        "Request to " + host + " exceeded " + totalTimeout);
+                timeout.initCause(cause);
+                return timeout;
+            }
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                return new IOException("Interrupted waiting for a connection to " + host, cause);
+            }
+            if (cause instanceof IOException io) {
+                return io;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    private static final class DeadlineResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Deadline deadline;
+
+        private DeadlineResponse(ClientHttpResponse delegate, Deadline deadline) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            InputStream body = delegate.getBody();
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    try {
+                        return body.read();
+                    } catch (IOException e) {
+                        throw deadline.failure(e);
+                    }
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    try {
+                        return body.read(buffer, offset, length);
+                    } catch (IOException e) {
+                        throw deadline.failure(e);
+                    }
+                }
+
+                @Override
+                public int available() throws IOException {
+                    return body.available();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    body.close();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                deadline.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.rahil.book_nexus.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
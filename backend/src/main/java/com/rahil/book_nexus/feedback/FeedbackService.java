@@ -1,7 +1,9 @@
 package com.rahil.book_nexus.feedback;
 
 import com.rahil.book_nexus.book.Book;
+import com.rahil.book_nexus.book.BookRatingService;
 import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.book.BookResponseCache;
 import com.rahil.book_nexus.common.PageResponse;
 import com.rahil.book_nexus.exception.OperationNotPermittedException;
 import com.rahil.book_nexus.user.User;
@@ -34,7 +36,10 @@ public class FeedbackService {
     private final GoogleBookFeedbackRepository googleBookFeedbackRepository;
     private final NotificationService notificationService;
     private final UserProfileRepository userProfileRepository;
+    private final BookRatingService bookRatingService;
+    private final BookResponseCache bookResponseCache;
 
+    @Transactional
     public Integer save(FeedbackRequest request, Authentication connectedUser) {
         Book book = bookRepository.findById(request.bookId())
                 .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + request.bookId()));
@@ -49,6 +54,8 @@ public class FeedbackService {
         Feedback feedback = feedbackMapper.toFeedback(request);
         feedback.setUser(user);
         Feedback savedFeedback = feedbackRepository.save(feedback);
+        bookRatingService.ratingAdded(book.getId(), savedFeedback.getRating());
+        bookResponseCache.evict(book.getId());
         
         // Send activity feed update for new review
         String userDisplayName = userProfileRepository.findByUserId(user.getId())
@@ -166,11 +173,17 @@ public class FeedbackService {
             throw new IllegalArgumentException("You can only update your own feedback");
         }
         
+        Double previousRating = feedback.getRating();
         feedback.setRating(request.rating());
         feedback.setReview(request.review());
         feedback.setAnonymous(request.isAnonymous() != null ? request.isAnonymous() : false);
         
-        return feedbackRepository.save(feedback).getId();
+        Integer savedId = feedbackRepository.save(feedback).getId();
+        if (feedback.getBook() != null) {
+            bookRatingService.ratingChanged(feedback.getBook().getId(), previousRating, feedback.getRating());
+            bookResponseCache.evict(feedback.getBook().getId());
+        }
+        return savedId;
     }
 
     @Transactional
@@ -184,6 +197,10 @@ public class FeedbackService {
         }
         
         feedbackRepository.delete(feedback);
+        if (feedback.getBook() != null) {
+            bookRatingService.ratingRemoved(feedback.getBook().getId(), feedback.getRating());
+            bookResponseCache.evict(feedback.getBook().getId());
+        }
     }
     
     public List<FeedbackResponse> findAllFeedbacksByGoogleBookId(String googleBookId) {
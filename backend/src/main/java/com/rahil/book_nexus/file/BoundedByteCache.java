@@ -0,0 +1,53 @@
+package com.rahil.book_nexus.file;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small LRU cache of byte arrays bounded by total size in bytes. Entries larger
+ * than the per-entry limit are never cached.
+ */
+public class BoundedByteCache<K> {
+
+    private final long maxTotalBytes;
+    private final int maxEntryBytes;
+    private final LinkedHashMap<K, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public BoundedByteCache(long maxTotalBytes, int maxEntryBytes) {
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    public boolean accepts(long size) {
+        return size <= maxEntryBytes && size <= maxTotalBytes;
+    }
+
+    public synchronized byte[] get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, byte[] value) {
+        if (!accepts(value.length)) {
+            return;
+        }
+        byte[] previous = entries.put(key, value);
+        if (previous != null) {
+            totalBytes -= previous.length;
+        }
+        totalBytes += value.length;
+        Iterator<Map.Entry<K, byte[]>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxTotalBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized void remove(K key) {
+        byte[] previous = entries.remove(key);
+        if (previous != null) {
+            totalBytes -= previous.length;
+        }
+    }
+}
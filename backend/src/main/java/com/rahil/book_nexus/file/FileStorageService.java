@@ -5,56 +5,130 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
-import static java.io.File.separator;
-import static java.lang.System.currentTimeMillis;
-
+/**
+ * Stores uploads content-addressed under the upload root as
+ * ab/cd/<sha256>.<ext>. The upload is streamed through a fixed buffer into a
+ * temp file while it is hashed, then moved into place atomically; identical
+ * content lands on the same path and only bumps its reference count.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FileStorageService {
 
+    private static final int BUFFER_SIZE = 8192;
+    private static final String TEMP_DIR = ".incoming";
+
+    private final StoredFileRepository storedFileRepository;
+
     @Value("${application.file.uploads.photos-output-path}")
     private String fileUploadPath;
 
-    public String saveFile(
-            @Nonnull MultipartFile sourceFile,
-            @Nonnull String userId) {
-        final String fileUploadSubPath = "users" + separator + userId;
-        return uploadFile(sourceFile, fileUploadSubPath);
-    }
-
-    private String uploadFile(
-            @Nonnull MultipartFile sourceFile,
-            @Nonnull String fileUploadSubPath) {
-        final String finalUploadPath = fileUploadPath + separator + fileUploadSubPath;
-        File targetFolder = new File(finalUploadPath);
+    /**
+     * Returns the stored file's filesystem path, or null when it could not be
+     * written. The caller owns one reference to the returned path.
+     */
+    @Transactional
+    public String saveFile(@Nonnull MultipartFile sourceFile) {
+        Path root = Paths.get(fileUploadPath);
+        Path tempFile = null;
+        try {
+            Path tempDir = Files.createDirectories(root.resolve(TEMP_DIR));
+            tempFile = Files.createTempFile(tempDir, "upload-", ".part");
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (InputStream in = sourceFile.getInputStream();
+                    OutputStream out = Files.newOutputStream(tempFile)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                    size += read;
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String relativePath = relativePath(hash, getFileExtension(sourceFile.getOriginalFilename()));
+            Path target = root.resolve(relativePath);
 
-        if (!targetFolder.exists()) {
-            boolean folderCreated = targetFolder.mkdirs();
-            if (!folderCreated) {
-                log.warn("Failed to create the target folder: " + targetFolder);
-                return null;
+            // Reference first: the row lock keeps StoredFileSweeper from
+            // deleting the blob between the existence check and commit
+            storedFileRepository.retain(relativePath, hash, size);
+            if (Files.exists(target)) {
+                log.debug("Upload {} already stored, adding reference", relativePath);
+            } else {
+                Files.createDirectories(target.getParent());
+                moveIntoPlace(tempFile, target);
+                tempFile = null;
+                log.info("File saved to: " + target);
             }
-        }
-        final String fileExtension = getFileExtension(sourceFile.getOriginalFilename());
-        String targetFilePath = finalUploadPath + separator + currentTimeMillis() + "." + fileExtension;
-        Path targetPath = Paths.get(targetFilePath);
-        try {
-            Files.write(targetPath, sourceFile.getBytes());
-            log.info("File saved to: " + targetFilePath);
-            return targetFilePath;
+            return target.toString();
         } catch (IOException e) {
             log.error("File was not saved", e);
+            return null;
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    log.warn("Could not delete temp upload {}", tempFile);
+                }
+            }
         }
-        return null;
+    }
+
+    /**
+     * Drops one reference to a file previously returned by saveFile. Paths
+     * outside the content-addressed store (legacy uploads, remote URLs) are
+     * ignored. StoredFileSweeper deletes blobs left unreferenced past the grace
+     * period.
+     */
+    @Transactional
+    public void releaseFile(String storedPath) {
+        if (storedPath == null || storedPath.startsWith("http")) {
+            return;
+        }
+        Path root = Paths.get(fileUploadPath).toAbsolutePath().normalize();
+        Path path = Paths.get(storedPath).toAbsolutePath().normalize();
+        if (path.startsWith(root)) {
+            storedFileRepository.release(root.relativize(path).toString().replace('\\', '/'));
+        }
+    }
+
+    private void moveIntoPlace(Path tempFile, Path target) throws IOException {
+        try {
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Same content won a concurrent race; keep the existing copy
+            Files.deleteIfExists(tempFile);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(tempFile, target);
+            } catch (FileAlreadyExistsException alreadyStored) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+
+    private String relativePath(String hash, String extension) {
+        String fileName = extension.isEmpty() ? hash : hash + "." + extension;
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + fileName;
     }
 
     private String getFileExtension(String fileName) {
@@ -65,6 +139,16 @@ public class FileStorageService {
         if (lastDotIndex == -1) {
             return "";
         }
-        return fileName.substring(lastDotIndex + 1).toLowerCase();
+        String extension = fileName.substring(lastDotIndex + 1).toLowerCase();
+        // Extension becomes part of the path; keep it to a plain token
+        return extension.matches("[a-z0-9]{1,10}") ? extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,251 @@
+package com.rahil.book_nexus.file;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Generates fixed-width JPEG derivatives and a tiny LQIP placeholder for
+ * uploaded images on a small bounded pool. Derivatives sit next to the
+ * original as <name>.w<width>.jpg; since originals are content-addressed the
+ * work is idempotent and existing derivatives are never regenerated.
+ *
+ * Uploads are untrusted: the declared dimensions are read from the header
+ * first and images over max-pixels are skipped, and the rest is decoded
+ * subsampled to about the largest derivative width rather than at full size.
+ */
+@Service
+@Slf4j
+public class ImageDerivativeService {
+
+    public static final List<Integer> WIDTHS = List.of(96, 256, 512);
+    public static final int LIST_WIDTH = 256;
+
+    private static final int MAX_WIDTH = WIDTHS.get(WIDTHS.size() - 1);
+
+    private static final int PLACEHOLDER_WIDTH = 16;
+    private static final float DERIVATIVE_QUALITY = 0.82f;
+    private static final float PLACEHOLDER_QUALITY = 0.5f;
+
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+
+    public ImageDerivativeService(
+            @Value("${application.file.images.worker-threads:2}") int workerThreads,
+            @Value("${application.file.images.queue-capacity:100}") int queueCapacity,
+            @Value("${application.file.images.max-pixels:40000000}") long maxPixels) {
+        this.maxPixels = maxPixels;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues derivative generation for a stored image once the current
+     * transaction commits (immediately when there is none). The placeholder
+     * data URI is passed to onPlaceholder when ready. A full queue drops the
+     * job; the original keeps being served in that case.
+     */
+    public void generateAfterCommit(String storedPath, Consumer<String> onPlaceholder) {
+        if (storedPath == null || storedPath.startsWith("http")) {
+            return;
+        }
+        Runnable submit = () -> generate(Path.of(storedPath))
+                .thenAccept(placeholder -> {
+                    if (placeholder != null) {
+                        onPlaceholder.accept(placeholder);
+                    }
+                })
+                .exceptionally(e -> {
+                    log.warn("Image derivatives failed for {}: {}", storedPath, e.getMessage());
+                    return null;
+                });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    public CompletableFuture<String> generate(Path original) {
+        try {
+            return CompletableFuture.supplyAsync(() -> createDerivatives(original), executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Image derivative queue full, skipping {}", original);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Path of the smallest derivative at least as wide as requested that exists
+     * on disk, or the original when there is none.
+     */
+    public Path resolveVariant(Path original, Integer requestedWidth) {
+        if (requestedWidth == null) {
+            return original;
+        }
+        for (int width : WIDTHS) {
+            if (width >= requestedWidth) {
+                Path variant = variantPath(original, width);
+                return Files.exists(variant) ? variant : original;
+            }
+        }
+        return original;
+    }
+
+    public static Path variantPath(Path original, int width) {
+        String name = original.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot < 0 ? name : name.substring(0, dot);
+        return original.resolveSibling(base + ".w" + width + ".jpg");
+    }
+
+    private String createDerivatives(Path original) {
+        try {
+            BufferedImage source = decode(original);
+            if (source == null) {
+                return null;
+            }
+            for (int width : WIDTHS) {
+                Path target = variantPath(original, width);
+                if (!Files.exists(target)) {
+                    writeAtomically(scale(source, width), target);
+                }
+            }
+            ByteArrayOutputStream placeholder = new ByteArrayOutputStream();
+            writeJpeg(scale(source, PLACEHOLDER_WIDTH), placeholder, PLACEHOLDER_QUALITY);
+            return "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(placeholder.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes the first image of a file, subsampled so it is no narrower than
+     * the largest derivative. Returns null when there is no reader for the file
+     * or its declared size is over the pixel budget.
+     */
+    private BufferedImage decode(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                log.debug("No image reader for {}, skipping derivatives", original);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Skipping derivatives for {}: {}x{} is over {} pixels", original, width, height,
+                            maxPixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / MAX_WIDTH);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales to the given width keeping the aspect ratio (never upscaling) onto
+     * an opaque white background, since JPEG has no alpha.
+     */
+    private BufferedImage scale(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, Math.round(source.getHeight() * (targetWidth / (float) source.getWidth())));
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeAtomically(BufferedImage image, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "derivative-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writeJpeg(image, out, DERIVATIVE_QUALITY);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream out, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.rahil.book_nexus.file;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves locally stored images (covers, avatars and their derivatives) through
+ * FileResponseWriter with strong ETags, keeping small hot files in memory.
+ */
+@Component
+public class LocalImageServer {
+
+    public static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    public static final String REVALIDATE_CACHE_CONTROL = "public, max-age=300";
+
+    private static final int MAX_METADATA_ENTRIES = 4096;
+    // <sha256>.<ext> originals and <sha256>.w<width>.<ext> derivatives
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64}(?:\\.w\\d+)?)\\.[a-z0-9]+");
+
+    private final FileResponseWriter fileResponseWriter;
+    private final String publicBaseUrl;
+    private final BoundedByteCache<String> memoryCache;
+    private final Map<String, ImageFile> metadata = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ImageFile> eldest) {
+                    return size() > MAX_METADATA_ENTRIES;
+                }
+            });
+
+    public LocalImageServer(
+            FileResponseWriter fileResponseWriter,
+            @Value("${application.file.covers.public-base-url}") String publicBaseUrl,
+            @Value("${application.file.covers.memory-cache.max-bytes:33554432}") long memoryCacheMaxBytes,
+            @Value("${application.file.covers.memory-cache.max-entry-bytes:262144}") int memoryCacheMaxEntryBytes) {
+        // Image URLs end up in cached responses and background jobs, where there
+        // is no request to derive a host from
+        if (!StringUtils.startsWithAny(publicBaseUrl, "http://", "https://")) {
+            throw new IllegalStateException(
+                    "application.file.covers.public-base-url must be an absolute URL, got: " + publicBaseUrl);
+        }
+        this.fileResponseWriter = fileResponseWriter;
+        this.publicBaseUrl = StringUtils.removeEnd(publicBaseUrl.trim(), "/");
+        this.memoryCache = new BoundedByteCache<>(memoryCacheMaxBytes, memoryCacheMaxEntryBytes);
+    }
+
+    /**
+     * Absolute public URL for an API path such as /books/cover/1.
+     */
+    public String publicUrl(String path) {
+        return publicBaseUrl + path;
+    }
+
+    /**
+     * Short URL version token for a stored path; content-addressed paths change
+     * with the content, so a versioned URL can be cached as immutable.
+     */
+    public static String version(String storedPath) {
+        byte[] hash = sha256().digest(storedPath.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash, 0, 6);
+    }
+
+    /**
+     * Writes the file, answering conditional and range requests. Returns false
+     * without touching the response when the file does not exist.
+     */
+    public boolean write(Path path, String cacheControl, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ImageFile image;
+        try {
+            image = describe(path);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        byte[] cached = memoryCache.get(image.etag());
+        if (cached != null) {
+            fileResponseWriter.writeBytes(cached, image.etag(), image.contentType(), cacheControl, request, response);
+            return true;
+        }
+        fileResponseWriter.writeFile(image.path(), image.size(), image.etag(), image.contentType(), cacheControl,
+                request, response);
+        return true;
+    }
+
+    /**
+     * Resolves size, content type and a strong ETag for a file. Metadata is
+     * memoized and revalidated against size and mtime; content-addressed files
+     * take their ETag from the name, others are digested once. Small files are
+     * loaded into the memory cache on the way.
+     */
+    private ImageFile describe(Path path) throws IOException {
+        long size = Files.size(path);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        String key = path.toString();
+        ImageFile known = metadata.get(key);
+        if (known != null && known.size() == size && known.modified() == modified) {
+            return known;
+        }
+
+        Matcher addressed = CONTENT_ADDRESSED.matcher(path.getFileName().toString());
+        String storedHash = addressed.matches() ? addressed.group(1) : null;
+        String etag;
+        if (memoryCache.accepts(size)) {
+            byte[] content = Files.readAllBytes(path);
+            etag = storedHash != null ? storedHash : HexFormat.of().formatHex(sha256().digest(content));
+            memoryCache.put(etag, content);
+        } else if (storedHash != null) {
+            etag = storedHash;
+        } else {
+            MessageDigest digest = sha256();
+            try (InputStream in = Files.newInputStream(path)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            etag = HexFormat.of().formatHex(digest.digest());
+        }
+        ImageFile image = new ImageFile(path, size, modified, etag, contentType(path));
+        metadata.put(key, image);
+        return image;
+    }
+
+    private String contentType(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        if (name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        if (name.endsWith(".png")) {
+            return MediaType.IMAGE_PNG_VALUE;
+        }
+        if (name.endsWith(".gif")) {
+            return MediaType.IMAGE_GIF_VALUE;
+        }
+        if (name.endsWith(".webp")) {
+            return "image/webp";
+        }
+        try {
+            String probed = Files.probeContentType(path);
+            return probed != null ? probed : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        } catch (IOException e) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record ImageFile(Path path, long size, long modified, String etag, String contentType) {
+    }
+}
@@ -0,0 +1,382 @@
+package com.rahil.book_nexus.file;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Disk-backed LRU cache for proxied remote images (Google-hosted covers).
+ * Entries are stored as <key>.<content-hash>.bin with a .meta sidecar holding
+ * the upstream validators, and the index is rebuilt from the sidecars on
+ * startup. Concurrent misses for one URL share a single upstream fetch; stale
+ * entries are revalidated with If-None-Match / If-Modified-Since and served
+ * stale when the upstream is unreachable.
+ *
+ * Cover URLs are user-supplied and the copy is served from the API origin, so
+ * only raster image types (JPEG, PNG, GIF, WebP) are accepted; HTML, SVG and
+ * anything else is refused before the body is read.
+ */
+@Component
+@Slf4j
+public class RemoteImageCache {
+
+    private static final String DATA_SUFFIX = ".bin";
+    private static final String META_SUFFIX = ".meta";
+    private static final String TEMP_PREFIX = "fetch-";
+    private static final int BUFFER_SIZE = 8192;
+    private static final Set<String> IMAGE_CONTENT_TYPES = Set.of(
+            MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp");
+
+    private final RestTemplate restTemplate;
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final Duration freshFor;
+
+    // Access-ordered; guarded by this
+    private final LinkedHashMap<String, CachedImage> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private final Map<String, CompletableFuture<CachedImage>> inFlight = new ConcurrentHashMap<>();
+
+    public RemoteImageCache(
+            RestTemplate restTemplate,
+            @Value("${application.file.covers.remote-cache.path:${application.file.uploads.photos-output-path}/.remote}") String directory,
+            @Value("${application.file.covers.remote-cache.max-bytes:268435456}") long maxBytes,
+            @Value("${application.file.covers.remote-cache.max-entry-bytes:5242880}") long maxEntryBytes,
+            @Value("${application.file.covers.remote-cache.fresh-for:1d}") Duration freshFor) {
+        this.restTemplate = restTemplate;
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.freshFor = freshFor;
+    }
+
+    /**
+     * Rebuilds the index from the sidecar files, least recently fetched first,
+     * and drops leftovers from interrupted fetches.
+     */
+    @PostConstruct
+    void load() throws IOException {
+        Files.createDirectories(directory);
+        List<CachedImage> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(TEMP_PREFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(META_SUFFIX)) {
+                    CachedImage image = readMeta(file);
+                    if (image != null && Files.exists(image.path())) {
+                        found.add(image);
+                    } else {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong(CachedImage::fetchedAt));
+        synchronized (this) {
+            for (CachedImage image : found) {
+                index.put(image.key(), image);
+                totalBytes += image.size();
+            }
+            trim(null);
+        }
+        log.info("Remote image cache loaded {} entries ({} bytes) from {}", found.size(), totalBytes, directory);
+    }
+
+    /**
+     * Returns the cached copy of a remote image, fetching or revalidating it
+     * first when needed. Upstream failures surface as RestClientException.
+     */
+    public CachedImage get(String url) {
+        String key = sha256Hex(url.getBytes(StandardCharsets.UTF_8));
+        CachedImage cached = lookup(key);
+        if (cached != null && System.currentTimeMillis() - cached.fetchedAt() < freshFor.toMillis()) {
+            return cached;
+        }
+
+        CompletableFuture<CachedImage> mine = new CompletableFuture<>();
+        CompletableFuture<CachedImage> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            CachedImage fetched = fetch(url, key, cached);
+            mine.complete(fetched);
+            return fetched;
+        } catch (RuntimeException e) {
+            if (cached != null && Files.exists(cached.path())) {
+                log.warn("Revalidating {} failed, serving stale copy: {}", url, e.getMessage());
+                mine.complete(cached);
+                return cached;
+            }
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private synchronized CachedImage lookup(String key) {
+        CachedImage image = index.get(key);
+        if (image != null && !Files.exists(image.path())) {
+            index.remove(key);
+            totalBytes -= image.size();
+            return null;
+        }
+        return image;
+    }
+
+    private CachedImage fetch(String url, String key, CachedImage cached) {
+        return restTemplate.execute(url, HttpMethod.GET, request -> {
+            if (cached != null) {
+                if (cached.upstreamEtag() != null) {
+                    request.getHeaders().setIfNoneMatch(cached.upstreamEtag());
+                }
+                if (cached.upstreamLastModified() > 0) {
+                    request.getHeaders().setIfModifiedSince(cached.upstreamLastModified());
+                }
+            }
+        }, response -> {
+            if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                CachedImage revalidated = cached.withFetchedAt(System.currentTimeMillis());
+                writeMeta(revalidated);
+                replace(revalidated);
+                return revalidated;
+            }
+            return store(url, key, response.getHeaders(), response.getBody());
+        });
+    }
+
+    private CachedImage store(String url, String key, HttpHeaders headers, InputStream body) throws IOException {
+        String contentType = imageContentType(headers.getContentType());
+        if (contentType == null) {
+            throw new RestClientException("Remote image has unsupported content type "
+                    + headers.getContentType() + ": " + url);
+        }
+        Path temp = Files.createTempFile(directory, TEMP_PREFIX, ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxEntryBytes) {
+                        throw new RestClientException("Remote image exceeds " + maxEntryBytes + " bytes: " + url);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            Path target = directory.resolve(key + "." + contentHash.substring(0, 16) + DATA_SUFFIX);
+            if (!Files.exists(target)) {
+                moveIntoPlace(temp, target);
+            }
+            CachedImage image = new CachedImage(key, url, target, size, contentHash, contentType,
+                    headers.getETag(), headers.getLastModified(), System.currentTimeMillis());
+            writeMeta(image);
+            replace(image);
+            return image;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Swaps the index entry and evicts least recently used entries over
+     * budget. A replaced data file is deleted when the new one differs.
+     */
+    private void replace(CachedImage image) {
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (this) {
+            CachedImage previous = index.put(image.key(), image);
+            if (previous != null) {
+                totalBytes -= previous.size();
+                if (!previous.path().equals(image.path())) {
+                    obsolete.add(previous.path());
+                }
+            }
+            totalBytes += image.size();
+            obsolete.addAll(trim(image.key()));
+        }
+        obsolete.forEach(this::deleteQuietly);
+    }
+
+    private List<Path> trim(String keep) {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<CachedImage> eldest = index.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            CachedImage image = eldest.next();
+            if (image.key().equals(keep)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= image.size();
+            evicted.add(image.path());
+            evicted.add(metaPath(image.key()));
+        }
+        return evicted;
+    }
+
+    private void writeMeta(CachedImage image) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("url", image.url());
+        meta.setProperty("file", image.path().getFileName().toString());
+        meta.setProperty("size", Long.toString(image.size()));
+        meta.setProperty("etag", image.etag());
+        meta.setProperty("contentType", image.contentType());
+        if (image.upstreamEtag() != null) {
+            meta.setProperty("upstreamEtag", image.upstreamEtag());
+        }
+        meta.setProperty("upstreamLastModified", Long.toString(image.upstreamLastModified()));
+        meta.setProperty("fetchedAt", Long.toString(image.fetchedAt()));
+        Path temp = Files.createTempFile(directory, TEMP_PREFIX, ".meta.part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                meta.store(out, null);
+            }
+            moveIntoPlace(temp, metaPath(image.key()));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private CachedImage readMeta(Path metaFile) {
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaFile)) {
+            meta.load(in);
+            String name = metaFile.getFileName().toString();
+            // Entries written before the allowlist may hold any upstream type
+            String contentType = imageContentType(MediaType.parseMediaType(meta.getProperty("contentType")));
+            if (contentType == null) {
+                log.warn("Dropping remote cache entry {} with content type {}", metaFile,
+                        meta.getProperty("contentType"));
+                return null;
+            }
+            return new CachedImage(
+                    name.substring(0, name.length() - META_SUFFIX.length()),
+                    meta.getProperty("url"),
+                    directory.resolve(meta.getProperty("file")),
+                    Long.parseLong(meta.getProperty("size")),
+                    meta.getProperty("etag"),
+                    contentType,
+                    meta.getProperty("upstreamEtag"),
+                    Long.parseLong(meta.getProperty("upstreamLastModified", "-1")),
+                    Long.parseLong(meta.getProperty("fetchedAt", "0")));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable remote cache entry {}: {}", metaFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private Path metaPath(String key) {
+        return directory.resolve(key + META_SUFFIX);
+    }
+
+    private void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete remote cache file {}", path);
+        }
+    }
+
+    private static CachedImage await(CompletableFuture<CachedImage> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        }
+    }
+
+    /**
+     * The bare type to serve for an upstream Content-Type, or null when it is
+     * not an allowed raster type. A missing type is served as JPEG, as covers
+     * always were.
+     */
+    static String imageContentType(MediaType contentType) {
+        if (contentType == null) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        String type = (contentType.getType() + "/" + contentType.getSubtype()).toLowerCase(Locale.ROOT);
+        return IMAGE_CONTENT_TYPES.contains(type) ? type : null;
+    }
+
+    private static String sha256Hex(byte[] value) {
+        return HexFormat.of().formatHex(sha256().digest(value));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A cached remote image. etag is our strong validator (content hash); the
+     * upstream validators are only used for revalidation.
+     */
+    public record CachedImage(String key, String url, Path path, long size, String etag, String contentType,
+            String upstreamEtag, long upstreamLastModified, long fetchedAt) {
+
+        CachedImage withFetchedAt(long time) {
+            return new CachedImage(key, url, path, size, etag, contentType, upstreamEtag, upstreamLastModified, time);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.rahil.book_nexus.file;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One content-addressed blob under the upload root, keyed by its relative path
+ * (ab/cd/<sha256>.<ext>). refCount tracks how many records point at it, so a
+ * duplicate upload is a counter bump instead of a second copy on disk.
+ * releasedAt is when the count last dropped to zero; StoredFileSweeper
+ * deletes the blob once that is older than its grace period.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "stored_file")
+public class StoredFile {
+
+    @Id
+    @Column(length = 200)
+    private String path;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    private long sizeBytes;
+
+    private int refCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime releasedAt;
+}
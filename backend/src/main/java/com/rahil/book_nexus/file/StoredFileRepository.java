@@ -0,0 +1,58 @@
+package com.rahil.book_nexus.file;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    /**
+     * Registers one more reference to a blob, creating its row on first use.
+     * Single statement, so concurrent uploads of the same content cannot race.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO stored_file (path, sha256, size_bytes, ref_count, created_at)
+            VALUES (:path, :sha256, :sizeBytes, 1, now())
+            ON CONFLICT (path) DO UPDATE SET ref_count = stored_file.ref_count + 1, released_at = NULL
+            """, nativeQuery = true)
+    int retain(@Param("path") String path, @Param("sha256") String sha256, @Param("sizeBytes") long sizeBytes);
+
+    /**
+     * Drops one reference, stamping releasedAt when it was the last one
+     */
+    @Modifying
+    @Query("""
+            UPDATE StoredFile file
+            SET file.refCount = file.refCount - 1,
+                file.releasedAt = CASE WHEN file.refCount = 1 THEN LOCAL DATETIME ELSE file.releasedAt END
+            WHERE file.path = :path
+            AND file.refCount > 0
+            """)
+    int release(@Param("path") String path);
+
+    /**
+     * Unreferenced blobs released before the cutoff. Rows that reached zero
+     * before releasedAt existed count from their creation.
+     */
+    @Query("""
+            SELECT file.path FROM StoredFile file
+            WHERE file.refCount = 0
+            AND COALESCE(file.releasedAt, file.createdAt) < :cutoff
+            ORDER BY file.path
+            """)
+    List<String> findUnreferencedBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Deletes the row if it is still unreferenced; 0 means an upload took a
+     * new reference since it was found.
+     */
+    @Modifying
+    @Query("DELETE FROM StoredFile file WHERE file.path = :path AND file.refCount = 0")
+    int deleteUnreferenced(@Param("path") String path);
+}
@@ -0,0 +1,127 @@
+package com.rahil.book_nexus.file;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes content-addressed blobs nobody references any more. Every interval
+ * it takes up to batch-size stored_file rows whose count has been zero for
+ * longer than grace-period and removes each row together with the blob and
+ * its derivatives. The grace period covers records that release a blob and
+ * take it again shortly after, such as a cover being re-uploaded.
+ */
+@Component
+@Slf4j
+public class StoredFileSweeper {
+
+    private final StoredFileRepository storedFileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path root;
+    private final boolean enabled;
+    private final Duration interval;
+    private final Duration gracePeriod;
+    private final int batchSize;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stored-file-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StoredFileSweeper(
+            StoredFileRepository storedFileRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.file.uploads.photos-output-path}") String fileUploadPath,
+            @Value("${application.file.uploads.sweep.enabled:true}") boolean enabled,
+            @Value("${application.file.uploads.sweep.interval:1h}") Duration interval,
+            @Value("${application.file.uploads.sweep.grace-period:1d}") Duration gracePeriod,
+            @Value("${application.file.uploads.sweep.batch-size:500}") int batchSize) {
+        this.storedFileRepository = storedFileRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.root = Paths.get(fileUploadPath);
+        this.enabled = enabled;
+        this.interval = interval;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @PostConstruct
+    void schedule() {
+        if (!enabled) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (Exception e) {
+                log.warn("Stored file sweep failed: {}", e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Sweeps up to batch-size expired blobs and returns how many were deleted.
+     */
+    public synchronized int runOnce() {
+        List<String> paths = storedFileRepository.findUnreferencedBefore(
+                LocalDateTime.now().minus(gracePeriod), Limit.of(batchSize));
+        int swept = 0;
+        for (String path : paths) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> sweep(path)))) {
+                    swept++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Stored file {} not swept: {}", path, e.getMessage());
+            }
+        }
+        if (swept > 0) {
+            log.info("Swept {} unreferenced stored files", swept);
+        }
+        return swept;
+    }
+
+    /**
+     * Deletes the row, then the files, in one transaction. An upload of the
+     * same content waits on the row until the files are gone and then writes
+     * both again; a failed file delete rolls the row back for the next run.
+     */
+    private boolean sweep(String path) {
+        if (storedFileRepository.deleteUnreferenced(path) == 0) {
+            return false;
+        }
+        Path blob = root.resolve(path);
+        try {
+            for (int width : ImageDerivativeService.WIDTHS) {
+                Files.deleteIfExists(ImageDerivativeService.variantPath(blob, width));
+            }
+            Files.deleteIfExists(blob);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+}
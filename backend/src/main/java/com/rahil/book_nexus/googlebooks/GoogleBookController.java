@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 import com.rahil.book_nexus.feedback.FeedbackService;
 import com.rahil.book_nexus.feedback.FeedbackResponse;
 import com.rahil.book_nexus.common.PageResponse;
+import com.rahil.book_nexus.user.User;
 
 import java.util.List;
 
@@ -19,6 +20,8 @@ import java.util.List;
 public class GoogleBookController {
 
     private final GoogleBookService googleBookService;
+    private final GoogleVolumeResolver googleVolumeResolver;
+    private final GoogleBookDiscoveryService discoveryService;
     private final GoogleBookFeedbackService googleBookFeedbackService;
     private final FeedbackService feedbackService;
 
@@ -33,19 +36,16 @@ public class GoogleBookController {
     }
 
     @GetMapping("/{bookId}")
-    public ResponseEntity<GoogleBookDto> getBookById(@PathVariable String bookId) {
-        GoogleBookDto book = googleBookService.getBookById(bookId);
-        if (book != null) {
-            return ResponseEntity.ok(book);
-        }
-        return ResponseEntity.notFound().build();
+    public ResponseEntity<GoogleBookDto> getBookById(@PathVariable String bookId, Authentication connectedUser) {
+        User user = connectedUser != null ? (User) connectedUser.getPrincipal() : null;
+        return ResponseEntity.of(googleVolumeResolver.resolve(bookId, user));
     }
 
     @GetMapping("/trending")
     public ResponseEntity<GoogleBookResponse> getTrendingBooks(
             @RequestParam(name = "maxResults", defaultValue = "10") int maxResults) {
         
-        GoogleBookResponse response = googleBookService.getTrendingBooks(maxResults);
+        GoogleBookResponse response = discoveryService.getTrendingBooks(maxResults);
         return ResponseEntity.ok(response);
     }
 
@@ -54,7 +54,7 @@ public class GoogleBookController {
             @RequestParam(name = "category", defaultValue = "fiction") String category,
             @RequestParam(name = "maxResults", defaultValue = "10") int maxResults) {
         
-        GoogleBookResponse response = googleBookService.getPopularBooks(category, maxResults);
+        GoogleBookResponse response = discoveryService.getPopularBooks(category, maxResults);
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,265 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.common.AdaptiveRateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Curated discovery lists built from Google Books searches: the trending
+ * shelf and one shelf per configured popular category. Each shelf is an
+ * immutable snapshot swapped atomically. A scheduler refreshes it ahead of
+ * expiry, fetching every query in parallel with a shared timeout. A query still
+ * running at the timeout is cancelled, which interrupts its thread so it gives
+ * up its rate-limiter wait or HTTP exchange. A query that fails keeps its books
+ * from the previous snapshot, so a failed refresh never empties a shelf.
+ * Shelves are warmed in the background at startup; only a request that beats
+ * the warm-up waits for a fetch, made at interactive priority, and concurrent
+ * cold callers share it. A cold shelf that cannot be fetched is served from
+ * the local google_book catalog.
+ */
+@Service
+@Slf4j
+public class GoogleBookDiscoveryService {
+
+    static final String TRENDING = "trending";
+
+    // Combined queries keep the fan-out small
+    private static final List<String> TRENDING_QUERIES = List.of(
+            "Red Rising OR Atomic Habits OR Harry Potter",
+            "Court Thorns Roses OR Poppy War OR Fourth Wing",
+            "It Ends with Us OR Seven Husbands Evelyn Hugo",
+            "Project Hail Mary OR Silent Patient OR Dune",
+            "Midnight Library OR Circe OR Where Crawdads Sing");
+
+    private final GoogleBookService googleBookService;
+    private final boolean googleBooksEnabled;
+    private final Duration trendingRefreshInterval;
+    private final Duration popularRefreshInterval;
+    private final Duration fetchTimeout;
+    private final Shelf trending;
+    private final Map<String, Shelf> popular;
+
+    private final ExecutorService fetchExecutor;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "discovery-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GoogleBookDiscoveryService(
+            GoogleBookService googleBookService,
+            PopularCategoriesProperties popularCategories,
+            @Value("${application.external.googlebooks.enabled:false}") boolean googleBooksEnabled,
+            @Value("${application.external.googlebooks.trending.books-per-query:8}") int booksPerQuery,
+            @Value("${application.external.googlebooks.trending.refresh-interval:4m}") Duration refreshInterval,
+            @Value("${application.external.googlebooks.trending.fetch-timeout:5s}") Duration fetchTimeout) {
+        this.googleBookService = googleBookService;
+        this.googleBooksEnabled = googleBooksEnabled;
+        this.trendingRefreshInterval = refreshInterval;
+        this.popularRefreshInterval = popularCategories.refreshInterval();
+        this.fetchTimeout = fetchTimeout;
+        this.trending = new Shelf(TRENDING, TRENDING_QUERIES, booksPerQuery);
+        Map<String, Shelf> shelves = new LinkedHashMap<>();
+        popularCategories.categories().forEach((category, queries) -> shelves.put(category.toLowerCase(Locale.ROOT),
+                new Shelf(category, queries, popularCategories.booksPerQuery())));
+        this.popular = Collections.unmodifiableMap(shelves);
+
+        int threads = Math.max(TRENDING_QUERIES.size(),
+                shelves.values().stream().mapToInt(shelf -> shelf.queries.size()).max().orElse(0));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fetchExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "discovery-fetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void scheduleRefresh() {
+        if (!googleBooksEnabled) {
+            return;
+        }
+        schedule(trending, trendingRefreshInterval);
+        popular.values().forEach(shelf -> schedule(shelf, popularRefreshInterval));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        fetchExecutor.shutdownNow();
+    }
+
+    public GoogleBookResponse getTrendingBooks(int maxResults) {
+        return serve(trending, maxResults);
+    }
+
+    /**
+     * Serves a configured category from memory. Unknown categories fall back to
+     * the trending shelf.
+     */
+    public GoogleBookResponse getPopularBooks(String category, int maxResults) {
+        Shelf shelf = category != null ? popular.get(category.toLowerCase(Locale.ROOT)) : null;
+        return serve(shelf != null ? shelf : trending, maxResults);
+    }
+
+    /**
+     * Rebuilds a shelf's snapshot, or joins a rebuild already in progress.
+     * Throws when no query succeeded and there is nothing to fall back to.
+     */
+    ShelfSnapshot refresh(Shelf shelf) {
+        return refresh(shelf, AdaptiveRateLimiter.Priority.BACKGROUND);
+    }
+
+    private ShelfSnapshot refresh(Shelf shelf, AdaptiveRateLimiter.Priority priority) {
+        CompletableFuture<ShelfSnapshot> mine = new CompletableFuture<>();
+        CompletableFuture<ShelfSnapshot> running = shelf.refreshing.compareAndExchange(null, mine);
+        if (running != null) {
+            return running.join();
+        }
+        try {
+            ShelfSnapshot snapshot = fetch(shelf, shelf.snapshot.get(), priority);
+            shelf.snapshot.set(snapshot);
+            mine.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            shelf.refreshing.set(null);
+        }
+    }
+
+    Shelf shelf(String name) {
+        return TRENDING.equals(name) ? trending : popular.get(name);
+    }
+
+    private GoogleBookResponse serve(Shelf shelf, int maxResults) {
+        if (!googleBooksEnabled) {
+            log.warn("Google Books API is disabled");
+            return response(List.of(), null);
+        }
+        ShelfSnapshot snapshot = shelf.snapshot.get();
+        if (snapshot == null) {
+            try {
+                snapshot = refresh(shelf, AdaptiveRateLimiter.Priority.INTERACTIVE);
+            } catch (RuntimeException e) {
+                log.warn("{} books unavailable, serving local catalog: {}", shelf.name, e.getMessage());
+                return googleBookService.localCatalog(maxResults);
+            }
+        }
+        List<GoogleBookDto> books = new ArrayList<>(snapshot.books());
+        Collections.shuffle(books);
+        return response(books.stream().limit(maxResults).collect(Collectors.toList()), snapshot.refreshedAt());
+    }
+
+    private void schedule(Shelf shelf, Duration interval) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                refresh(shelf);
+            } catch (RuntimeException e) {
+                log.warn("Refresh of {} failed, serving previous snapshot: {}", shelf.name, e.getMessage());
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private ShelfSnapshot fetch(Shelf shelf, ShelfSnapshot previous, AdaptiveRateLimiter.Priority priority) {
+        // Submitted rather than supplyAsync so that cancel(true) interrupts
+        Map<String, Future<GoogleBookResponse>> fetches = new LinkedHashMap<>();
+        for (String query : shelf.queries) {
+            fetches.put(query, fetchExecutor.submit(
+                    () -> googleBookService.fetchVolumes(query, shelf.booksPerQuery, 0, priority)));
+        }
+
+        long deadline = System.nanoTime() + fetchTimeout.toNanos();
+        Map<String, List<GoogleBookDto>> byQuery = new LinkedHashMap<>();
+        int failed = 0;
+        for (Map.Entry<String, Future<GoogleBookResponse>> entry : fetches.entrySet()) {
+            String query = entry.getKey();
+            try {
+                GoogleBookResponse result = entry.getValue()
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                byQuery.put(query, result.getItems() != null ? List.copyOf(result.getItems()) : List.of());
+                continue;
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                log.warn("{} query '{}' timed out after {}", shelf.name, query, fetchTimeout);
+            } catch (ExecutionException e) {
+                log.warn("{} query '{}' failed: {}", shelf.name, query, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                fetches.values().forEach(fetch -> fetch.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while refreshing " + shelf.name, e);
+            }
+            failed++;
+            if (previous != null && previous.byQuery().containsKey(query)) {
+                byQuery.put(query, previous.byQuery().get(query));
+            }
+        }
+        if (failed == shelf.queries.size() && previous == null) {
+            throw new IllegalStateException("Every " + shelf.name + " query failed");
+        }
+        if (failed > 0) {
+            log.info("{} refresh reused previous results for {} of {} queries", shelf.name, failed,
+                    shelf.queries.size());
+        }
+        return new ShelfSnapshot(byQuery, Instant.now());
+    }
+
+    private static GoogleBookResponse response(List<GoogleBookDto> books, Instant refreshedAt) {
+        return GoogleBookResponse.builder()
+                .items(books)
+                .totalItems(books.size())
+                .kind("books#volumes")
+                .refreshedAt(refreshedAt)
+                .build();
+    }
+
+    static final class Shelf {
+
+        private final String name;
+        private final List<String> queries;
+        private final int booksPerQuery;
+        private final AtomicReference<ShelfSnapshot> snapshot = new AtomicReference<>();
+        private final AtomicReference<CompletableFuture<ShelfSnapshot>> refreshing = new AtomicReference<>();
+
+        private Shelf(String name, List<String> queries, int booksPerQuery) {
+            this.name = name;
+            this.queries = List.copyOf(queries);
+            this.booksPerQuery = booksPerQuery;
+        }
+    }
+
+    record ShelfSnapshot(Map<String, List<GoogleBookDto>> byQuery, Instant refreshedAt) {
+
+        ShelfSnapshot {
+            byQuery = Collections.unmodifiableMap(new LinkedHashMap<>(byQuery));
+        }
+
+        List<GoogleBookDto> books() {
+            return byQuery.values().stream().flatMap(List::stream).toList();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -25,6 +26,8 @@ public class GoogleBookDto {
     private String isbn10;
     private GoogleBookImageLinks imageLinks;
     private List<GoogleBookIndustryIdentifier> industryIdentifiers;
+    // Set when served from the local catalog: when the data was last copied from Google
+    private Instant lastRefreshedAt;
     
     @Data
     @Builder
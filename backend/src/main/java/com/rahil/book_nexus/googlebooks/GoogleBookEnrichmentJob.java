@@ -0,0 +1,254 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.common.CallRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps stored Google volumes current. Every interval it walks google_book in
+ * id order from where the last run stopped, picks active rows not refreshed
+ * within max-age, re-fetches them from Google at background priority (so the
+ * shared rate limiter paces it behind user traffic) and writes each batch
+ * back with one JDBC batch update. A run handles at most max-per-run rows and
+ * stops early while Google is rejecting calls; the cursor wraps to the start
+ * once the end of the table is reached.
+ *
+ * Volumes Google no longer has are stamped as refreshed and keep their data;
+ * rows that failed for other reasons are retried on the next pass.
+ */
+@Component
+@Slf4j
+public class GoogleBookEnrichmentJob {
+
+    private static final String STALE_ROWS = """
+            SELECT id, google_book_id FROM google_book
+            WHERE id > :after
+            AND is_active = true
+            AND (last_refreshed_at IS NULL OR last_refreshed_at < :cutoff)
+            ORDER BY id
+            LIMIT :limit
+            """;
+
+    private static final String UPDATE_VOLUME = """
+            UPDATE google_book
+            SET title = :title,
+                author_name = :authorName,
+                description = :description,
+                cover_url = :coverUrl,
+                published_date = :publishedDate,
+                page_count = :pageCount,
+                categories = :categories,
+                average_rating = :averageRating,
+                ratings_count = :ratingsCount,
+                isbn13 = :isbn13,
+                isbn10 = :isbn10,
+                last_refreshed_at = :refreshedAt,
+                last_modified_date = :today
+            WHERE id = :id
+            """;
+
+    private static final String MARK_REFRESHED = """
+            UPDATE google_book SET last_refreshed_at = :refreshedAt WHERE id = :id
+            """;
+
+    private final GoogleBookService googleBookService;
+    private final GoogleVolumeResolver googleVolumeResolver;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration maxAge;
+    private final Duration interval;
+    private final int batchSize;
+    private final int maxPerRun;
+
+    private final Counter refreshedCounter;
+    private final Counter missingCounter;
+    private final Counter failedCounter;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "google-book-enrichment");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int cursor;
+
+    public GoogleBookEnrichmentJob(
+            GoogleBookService googleBookService,
+            GoogleVolumeResolver googleVolumeResolver,
+            NamedParameterJdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${application.external.googlebooks.enabled:false}") boolean googleBooksEnabled,
+            @Value("${application.external.googlebooks.enrichment.enabled:true}") boolean enrichmentEnabled,
+            @Value("${application.external.googlebooks.enrichment.max-age:7d}") Duration maxAge,
+            @Value("${application.external.googlebooks.enrichment.interval:15m}") Duration interval,
+            @Value("${application.external.googlebooks.enrichment.batch-size:50}") int batchSize,
+            @Value("${application.external.googlebooks.enrichment.max-per-run:500}") int maxPerRun) {
+        this.googleBookService = googleBookService;
+        this.googleVolumeResolver = googleVolumeResolver;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = googleBooksEnabled && enrichmentEnabled;
+        this.maxAge = maxAge;
+        this.interval = interval;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPerRun = maxPerRun;
+        this.refreshedCounter = outcome(meterRegistry, "refreshed");
+        this.missingCounter = outcome(meterRegistry, "missing");
+        this.failedCounter = outcome(meterRegistry, "failed");
+    }
+
+    @PostConstruct
+    void schedule() {
+        if (!enabled) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (Exception e) {
+                log.warn("Google book enrichment run failed: {}", e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Refreshes up to max-per-run stale rows, continuing from the previous
+     * run's position.
+     */
+    public synchronized EnrichmentRun runOnce() {
+        Instant cutoff = Instant.now().minus(maxAge);
+        int examined = 0;
+        int refreshed = 0;
+        int missing = 0;
+        int failed = 0;
+        boolean rejected = false;
+
+        while (examined < maxPerRun && !rejected) {
+            List<StaleRow> rows = jdbcTemplate.query(STALE_ROWS, new MapSqlParameterSource()
+                            .addValue("after", cursor)
+                            .addValue("cutoff", Timestamp.from(cutoff))
+                            .addValue("limit", Math.min(batchSize, maxPerRun - examined)),
+                    (rs, rowNum) -> new StaleRow(rs.getInt("id"), rs.getString("google_book_id")));
+            if (rows.isEmpty()) {
+                cursor = 0;
+                break;
+            }
+
+            List<GoogleBookEntity> updates = new ArrayList<>();
+            List<StaleRow> gone = new ArrayList<>();
+            List<String> refreshedIds = new ArrayList<>();
+            for (StaleRow row : rows) {
+                try {
+                    GoogleBookDto dto = googleBookService.fetchVolume(row.googleBookId());
+                    if (dto == null) {
+                        gone.add(row);
+                    } else {
+                        GoogleBookEntity entity = new GoogleBookEntity();
+                        entity.setId(row.id());
+                        GoogleVolumeResolver.apply(entity, dto);
+                        updates.add(entity);
+                        refreshedIds.add(row.googleBookId());
+                    }
+                } catch (CallRejectedException e) {
+                    // Leave the cursor on this row; the rest waits for the next run
+                    log.info("Google book enrichment paused: {}", e.getMessage());
+                    rejected = true;
+                    break;
+                } catch (HttpClientErrorException e) {
+                    if (e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                        gone.add(row);
+                    } else {
+                        failed++;
+                        log.debug("Google volume {} not refreshed: {}", row.googleBookId(), e.getMessage());
+                    }
+                } catch (Exception e) {
+                    failed++;
+                    log.debug("Google volume {} not refreshed: {}", row.googleBookId(), e.getMessage());
+                }
+                examined++;
+                cursor = row.id();
+            }
+
+            write(updates, gone);
+            refreshed += updates.size();
+            missing += gone.size();
+            refreshedIds.forEach(googleVolumeResolver::evict);
+        }
+
+        refreshedCounter.increment(refreshed);
+        missingCounter.increment(missing);
+        failedCounter.increment(failed);
+        EnrichmentRun run = new EnrichmentRun(examined, refreshed, missing, failed);
+        if (examined > 0) {
+            log.info("Google book enrichment: {}", run);
+        }
+        return run;
+    }
+
+    private void write(List<GoogleBookEntity> updates, List<StaleRow> gone) {
+        if (updates.isEmpty() && gone.isEmpty()) {
+            return;
+        }
+        Date today = Date.valueOf(LocalDate.now());
+        SqlParameterSource[] volumes = updates.stream()
+                .map(entity -> GoogleVolumeWriter.volumeParameters(entity)
+                        .addValue("id", entity.getId())
+                        .addValue("today", today))
+                .toArray(SqlParameterSource[]::new);
+        Timestamp now = Timestamp.from(Instant.now());
+        SqlParameterSource[] stamps = gone.stream()
+                .map(row -> new MapSqlParameterSource()
+                        .addValue("id", row.id())
+                        .addValue("refreshedAt", now))
+                .toArray(SqlParameterSource[]::new);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (volumes.length > 0) {
+                jdbcTemplate.batchUpdate(UPDATE_VOLUME, volumes);
+            }
+            if (stamps.length > 0) {
+                jdbcTemplate.batchUpdate(MARK_REFRESHED, stamps);
+            }
+        });
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("googlebooks.enrichment.volumes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public record EnrichmentRun(int examined, int refreshed, int missing, int failed) {
+    }
+
+    private record StaleRow(int id, String googleBookId) {
+    }
+}
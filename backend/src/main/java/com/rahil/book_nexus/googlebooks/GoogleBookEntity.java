@@ -1,6 +1,6 @@
 package com.rahil.book_nexus.googlebooks;
 
-import com.rahil.book_nexus.common.BaseEntity;
+import com.rahil.book_nexus.common.AuditedEntity;
 import com.rahil.book_nexus.user.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -10,6 +10,8 @@ import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import java.time.Instant;
+
 @Getter
 @Setter
 @SuperBuilder
@@ -18,7 +20,13 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @Entity
 @Table(name = "google_book")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-public class GoogleBookEntity extends BaseEntity {
+public class GoogleBookEntity extends AuditedEntity {
+
+    // Shared one value per row with GoogleVolumeWriter's native upsert
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "google_book_seq")
+    @SequenceGenerator(name = "google_book_seq", sequenceName = "google_book_seq", allocationSize = 1)
+    private Integer id;
 
     @Column(unique = true, nullable = false)
     private String googleBookId;
@@ -61,6 +69,9 @@ public class GoogleBookEntity extends BaseEntity {
     @JoinColumn(name = "discovered_by")
     private User discoveredBy;
 
+    // When the volume data was last copied from Google; null for rows that predate the column
+    private Instant lastRefreshedAt;
+
     // Security: Only store essential data, fetch live data from Google Books API when needed
     @Column(nullable = false)
     private Boolean isActive = true;
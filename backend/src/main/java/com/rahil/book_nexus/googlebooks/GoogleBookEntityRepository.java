@@ -1,5 +1,7 @@
 package com.rahil.book_nexus.googlebooks;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,4 +26,17 @@ public interface GoogleBookEntityRepository extends JpaRepository<GoogleBookEnti
     List<GoogleBookEntity> findTopRatedBooks(@Param("minRating") Double minRating);
     
     boolean existsByGoogleBookId(String googleBookId);
+
+    List<GoogleBookEntity> findByIsActiveTrue(Pageable pageable);
+
+    // pattern is lower-case with % wildcards
+    @Query("""
+            SELECT gb FROM GoogleBookEntity gb
+            WHERE gb.isActive = true
+            AND (LOWER(gb.title) LIKE :pattern
+                OR LOWER(gb.authorName) LIKE :pattern
+                OR LOWER(gb.categories) LIKE :pattern)
+            ORDER BY gb.ratingsCount DESC NULLS LAST, gb.id
+            """)
+    Page<GoogleBookEntity> searchActive(@Param("pattern") String pattern, Pageable pageable);
 }
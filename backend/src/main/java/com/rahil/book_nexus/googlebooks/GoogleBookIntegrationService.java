@@ -10,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,34 +20,32 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class GoogleBookIntegrationService {
     
-    private final GoogleBookService googleBookService;
+    private final GoogleVolumeResolver googleVolumeResolver;
     private final GoogleBookEntityRepository googleBookEntityRepository;
     private final UserBookListRepository userBookListRepository;
     private final ActivityFeedService activityFeedService;
     private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
     
     /**
      * Add a Google Book to a user's list
-     * If the book doesn't exist in our database, it will be saved first
+     * If the book doesn't exist in our database, it is fetched from Google and saved first.
+     * That happens before the list write's transaction, so the Google call holds no connection.
      */
-    @Transactional
     public UserBookList addGoogleBookToList(String googleBookId, User user, UserBookList.ListType listType) {
-        // First, get the book from Google Books API
-        GoogleBookDto googleBookDto = googleBookService.getBookById(googleBookId);
-        if (googleBookDto == null) {
-            throw new IllegalArgumentException("Google Book not found with ID: " + googleBookId);
-        }
-        
-        // Check if we already have this book in our database
-        GoogleBookEntity googleBookEntity = googleBookEntityRepository.findByGoogleBookId(googleBookId)
-                .orElseGet(() -> saveGoogleBookToDatabase(googleBookDto, user));
-        
+        GoogleBookEntity googleBookEntity = googleVolumeResolver.resolveEntity(googleBookId, user)
+                .orElseThrow(() -> new IllegalArgumentException("Google Book not found with ID: " + googleBookId));
+        return transactionTemplate.execute(status -> addToList(googleBookEntity, user, listType));
+    }
+
+    private UserBookList addToList(GoogleBookEntity googleBookEntity, User user, UserBookList.ListType listType) {
         // Check if user already has this book in the specified list
         Optional<UserBookList> existingEntry = userBookListRepository
                 .findByUserAndGoogleBookAndListTypeAndIsActiveTrue(user, googleBookEntity, listType);
         
         if (existingEntry.isPresent()) {
-            log.info("User {} already has Google Book {} in {} list", user.getEmail(), googleBookId, listType);
+            log.info("User {} already has Google Book {} in {} list", user.getEmail(),
+                    googleBookEntity.getGoogleBookId(), listType);
             return existingEntry.get();
         }
         
@@ -230,44 +229,6 @@ public class GoogleBookIntegrationService {
         return userBookListRepository.save(entry);
     }
     
-    /**
-     * Save Google Book data to our database
-     */
-    private GoogleBookEntity saveGoogleBookToDatabase(GoogleBookDto googleBookDto, User user) {
-        // Truncate description if it's too long (limit is 2000 characters)
-        String description = googleBookDto.getDescription();
-        if (description != null && description.length() > 2000) {
-            description = description.substring(0, 1997) + "...";
-        }
-        
-        // Truncate categories if too long (limit is 100 characters)
-        String categories = googleBookDto.getCategories() != null ? String.join(", ", googleBookDto.getCategories()) : null;
-        if (categories != null && categories.length() > 100) {
-            categories = categories.substring(0, 97) + "...";
-        }
-        
-        GoogleBookEntity googleBookEntity = GoogleBookEntity.builder()
-                .googleBookId(googleBookDto.getId())
-                .title(googleBookDto.getTitle())
-                .authorName(googleBookDto.getAuthors() != null && !googleBookDto.getAuthors().isEmpty() 
-                        ? googleBookDto.getAuthors().get(0) : "Unknown Author")
-                .description(description)
-                .coverUrl(googleBookDto.getImageLinks() != null ? googleBookDto.getImageLinks().getThumbnail() : null)
-                .publishedDate(googleBookDto.getPublishedDate())
-                .pageCount(googleBookDto.getPageCount())
-                .categories(categories)
-                .averageRating(googleBookDto.getAverageRating())
-                .ratingsCount(googleBookDto.getRatingsCount())
-                .isbn13(googleBookDto.getIsbn13())
-                .isbn10(googleBookDto.getIsbn10())
-                .discoveredBy(user)
-                .isActive(true)
-                .createdBy(user.getId())
-                .build();
-        
-        return googleBookEntityRepository.save(googleBookEntity);
-    }
-    
     /**
      * Create activity feed entry and send notification for book list actions
      */
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -15,4 +16,8 @@ public class GoogleBookResponse {
     private List<GoogleBookDto> items;
     private Integer totalItems;
     private String kind;
+    // Set on discovery lists served from a precomputed snapshot
+    private Instant refreshedAt;
+    // Set when served from the local google_book catalog because Google is unavailable
+    private Boolean degraded;
 }
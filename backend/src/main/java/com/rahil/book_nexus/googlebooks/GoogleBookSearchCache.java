@@ -0,0 +1,77 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.common.TtlLruCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Per-node cache of parsed Google Books search results, keyed on the
+ * normalized (query, maxResults, startIndex) tuple so repeated keystroke
+ * searches are served locally. Concurrent identical misses share one upstream
+ * call. Entries are weighed by their approximate in-memory size. Hit, miss and
+ * coalesced counts are published as the cache.gets meters of "google-search".
+ */
+@Component
+public class GoogleBookSearchCache {
+
+    private final TtlLruCache<SearchKey, GoogleBookResponse> cache;
+
+    public GoogleBookSearchCache(
+            MeterRegistry meterRegistry,
+            @Value("${application.external.googlebooks.search-cache.max-entries:1000}") int maxEntries,
+            @Value("${application.external.googlebooks.search-cache.max-bytes:16777216}") long maxBytes,
+            @Value("${application.external.googlebooks.search-cache.ttl:10m}") Duration ttl) {
+        this.cache = new TtlLruCache<>("google-search", maxEntries, maxBytes, GoogleBookSearchCache::weigh, ttl,
+                meterRegistry);
+    }
+
+    public GoogleBookResponse get(String query, int maxResults, int startIndex, Supplier<GoogleBookResponse> loader) {
+        return cache.get(new SearchKey(normalize(query), maxResults, startIndex), loader);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    static String normalize(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Rough retained size in bytes: two bytes per character of the text fields
+     * plus a fixed overhead per object.
+     */
+    static long weigh(GoogleBookResponse response) {
+        long weight = 64;
+        if (response.getItems() == null) {
+            return weight;
+        }
+        for (GoogleBookDto item : response.getItems()) {
+            weight += 256 + 2L * (length(item.getId()) + length(item.getTitle()) + length(item.getDescription())
+                    + length(item.getPublishedDate()) + length(item.getIsbn13()) + length(item.getIsbn10()));
+            if (item.getAuthors() != null) {
+                weight += item.getAuthors().stream().mapToLong(author -> 40 + 2L * length(author)).sum();
+            }
+            if (item.getCategories() != null) {
+                weight += item.getCategories().stream().mapToLong(category -> 40 + 2L * length(category)).sum();
+            }
+            if (item.getImageLinks() != null) {
+                weight += 2L * (length(item.getImageLinks().getThumbnail())
+                        + length(item.getImageLinks().getSmallThumbnail()));
+            }
+        }
+        return weight;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private record SearchKey(String query, int maxResults, int startIndex) {
+    }
+}
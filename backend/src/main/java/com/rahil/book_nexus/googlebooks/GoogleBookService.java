@@ -1,11 +1,16 @@
 package com.rahil.book_nexus.googlebooks;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rahil.book_nexus.common.AdaptiveRateLimiter;
+import com.rahil.book_nexus.common.CallRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -13,6 +18,8 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,12 +27,11 @@ import java.util.List;
 public class GoogleBookService {
 
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-    
-    // Simple cache to avoid repeated API calls
-    private GoogleBookResponse cachedTrendingBooks;
-    private long lastCacheTime = 0;
-    private static final long CACHE_DURATION_MS = 5 * 60 * 1000; // 5 minutes
+    private final GoogleVolumeParser volumeParser;
+    private final GoogleBookSearchCache searchCache;
+    private final GoogleBooksGuard guard;
+    private final GoogleBookEntityRepository googleBookEntityRepository;
+    private final MeterRegistry meterRegistry;
 
     @Value("${application.external.googlebooks.enabled:false}")
     private boolean googleBooksEnabled;
@@ -33,7 +39,9 @@ public class GoogleBookService {
     @Value("${application.external.googlebooks.api-key:}")
     private String googleBooksApiKey;
 
-    private static final String GOOGLE_BOOKS_BASE_URL = "https://www.googleapis.com/books/v1";
+    // Overridable so tests and load runs can point at a local stand-in
+    @Value("${application.external.googlebooks.base-url:https://www.googleapis.com/books/v1}")
+    private String googleBooksBaseUrl;
 
     public GoogleBookResponse searchBooks(String query, int maxResults, int startIndex) {
         if (!googleBooksEnabled) {
@@ -46,47 +54,49 @@ public class GoogleBookService {
         }
 
         try {
-            String apiKeyParam = (googleBooksApiKey != null && !googleBooksApiKey.isBlank())
-                    ? "&key=" + googleBooksApiKey
-                    : "";
-
-            String url = GOOGLE_BOOKS_BASE_URL + "/volumes?q="
-                    + URLEncoder.encode(query, StandardCharsets.UTF_8)
-                    + "&maxResults=" + maxResults
-                    + "&startIndex=" + startIndex
-                    + apiKeyParam;
-
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            JsonNode rootNode = objectMapper.readTree(response.getBody());
-
-            List<GoogleBookDto> books = new ArrayList<>();
-            JsonNode itemsNode = rootNode.get("items");
-            
-            if (itemsNode != null && itemsNode.isArray()) {
-                for (JsonNode itemNode : itemsNode) {
-                    GoogleBookDto book = parseGoogleBook(itemNode);
-                    if (book != null) {
-                        books.add(book);
-                    }
-                }
-            }
-
-            return GoogleBookResponse.builder()
-                    .items(books)
-                    .totalItems(rootNode.get("totalItems") != null ? rootNode.get("totalItems").asInt() : 0)
-                    .kind(rootNode.get("kind") != null ? rootNode.get("kind").asText() : null)
-                    .build();
-
+            String normalized = GoogleBookSearchCache.normalize(query);
+            return searchCache.get(normalized, maxResults, startIndex,
+                    () -> fetchVolumes(normalized, maxResults, startIndex, AdaptiveRateLimiter.Priority.INTERACTIVE));
+        } catch (CallRejectedException e) {
+            log.warn("Google Books unavailable ({}); searching local catalog", e.getMessage());
+            return searchLocalCatalog(query, maxResults, startIndex);
         } catch (Exception e) {
-            log.error("Error searching Google Books: {}", e.getMessage(), e);
-            return GoogleBookResponse.builder()
-                    .items(new ArrayList<>())
-                    .totalItems(0)
-                    .kind("books#volumes")
-                    .build();
+            log.warn("Error searching Google Books: {}; searching local catalog", e.getMessage());
+            log.debug("Google Books search failure", e);
+            return searchLocalCatalog(query, maxResults, startIndex);
         }
     }
 
+    /**
+     * Same as searchBooks but uncached and without the local fallback: transport
+     * and parse failures, and CallRejectedException while the breaker is open,
+     * propagate to callers that report per-query errors. Does not check the
+     * enabled flag. Runs at background priority.
+     */
+    public GoogleBookResponse fetchVolumes(String query, int maxResults, int startIndex) {
+        return fetchVolumes(query, maxResults, startIndex, AdaptiveRateLimiter.Priority.BACKGROUND);
+    }
+
+    /**
+     * fetchVolumes at the given priority, for callers that fetch on behalf of
+     * a waiting request.
+     */
+    public GoogleBookResponse fetchVolumes(String query, int maxResults, int startIndex,
+            AdaptiveRateLimiter.Priority priority) {
+        String apiKeyParam = (googleBooksApiKey != null && !googleBooksApiKey.isBlank())
+                ? "&key=" + googleBooksApiKey
+                : "";
+
+        String url = googleBooksBaseUrl + "/volumes?q="
+                + URLEncoder.encode(query, StandardCharsets.UTF_8)
+                + "&maxResults=" + maxResults
+                + "&startIndex=" + startIndex
+                + apiKeyParam;
+
+        return timed("search", () -> guard.call(priority, () -> restTemplate.execute(url, HttpMethod.GET, null,
+                response -> volumeParser.parseVolumes(response.getBody()))));
+    }
+
     public GoogleBookDto getBookById(String bookId) {
         if (!googleBooksEnabled) {
             log.warn("Google Books API is disabled");
@@ -94,237 +104,86 @@ public class GoogleBookService {
         }
 
         try {
-            String apiKeyParam = (googleBooksApiKey != null && !googleBooksApiKey.isBlank())
-                    ? "?key=" + googleBooksApiKey
-                    : "";
-
-            String url = GOOGLE_BOOKS_BASE_URL + "/volumes/" + bookId + apiKeyParam;
-            ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-            JsonNode rootNode = objectMapper.readTree(response.getBody());
-
-            return parseGoogleBook(rootNode);
-
+            return fetchVolume(bookId, AdaptiveRateLimiter.Priority.LOOKUP);
+        } catch (CallRejectedException e) {
+            log.warn("Google Books unavailable ({}); volume {} not fetched", e.getMessage(), bookId);
+            return null;
         } catch (Exception e) {
-            log.error("Error fetching Google Book by ID: {}", e.getMessage(), e);
+            log.warn("Error fetching Google Book {}: {}", bookId, e.getMessage());
+            log.debug("Google Books volume failure", e);
             return null;
         }
     }
 
-    private GoogleBookDto parseGoogleBook(JsonNode itemNode) {
-        try {
-            JsonNode volumeInfo = itemNode.get("volumeInfo");
-            if (volumeInfo == null) {
-                return null;
-            }
-
-            // Parse basic info
-            String title = getStringValue(volumeInfo, "title");
-            if (title == null || title.isBlank()) {
-                return null;
-            }
-
-            // Parse authors
-            List<String> authors = new ArrayList<>();
-            JsonNode authorsNode = volumeInfo.get("authors");
-            if (authorsNode != null && authorsNode.isArray()) {
-                for (JsonNode authorNode : authorsNode) {
-                    authors.add(authorNode.asText());
-                }
-            }
-
-            // Parse image links
-            GoogleBookDto.GoogleBookImageLinks imageLinks = null;
-            JsonNode imageLinksNode = volumeInfo.get("imageLinks");
-            if (imageLinksNode != null) {
-                imageLinks = GoogleBookDto.GoogleBookImageLinks.builder()
-                        .thumbnail(getStringValue(imageLinksNode, "thumbnail"))
-                        .smallThumbnail(getStringValue(imageLinksNode, "smallThumbnail"))
-                        .build();
-            }
-
-            // Parse industry identifiers (ISBN)
-            String isbn13 = null;
-            String isbn10 = null;
-            JsonNode industryIdentifiersNode = volumeInfo.get("industryIdentifiers");
-            if (industryIdentifiersNode != null && industryIdentifiersNode.isArray()) {
-                for (JsonNode identifierNode : industryIdentifiersNode) {
-                    String type = getStringValue(identifierNode, "type");
-                    String identifier = getStringValue(identifierNode, "identifier");
-                    if ("ISBN_13".equals(type)) {
-                        isbn13 = identifier;
-                    } else if ("ISBN_10".equals(type)) {
-                        isbn10 = identifier;
-                    }
-                }
-            }
+    /**
+     * Same as getBookById but failures propagate, including a 404 for a volume
+     * Google no longer has. Does not check the enabled flag. Runs at background
+     * priority.
+     */
+    public GoogleBookDto fetchVolume(String bookId) {
+        return fetchVolume(bookId, AdaptiveRateLimiter.Priority.BACKGROUND);
+    }
 
-            // Parse categories
-            List<String> categories = new ArrayList<>();
-            JsonNode categoriesNode = volumeInfo.get("categories");
-            if (categoriesNode != null && categoriesNode.isArray()) {
-                for (JsonNode categoryNode : categoriesNode) {
-                    categories.add(categoryNode.asText());
-                }
-            }
+    private GoogleBookDto fetchVolume(String bookId, AdaptiveRateLimiter.Priority priority) {
+        String apiKeyParam = (googleBooksApiKey != null && !googleBooksApiKey.isBlank())
+                ? "?key=" + googleBooksApiKey
+                : "";
 
-            return GoogleBookDto.builder()
-                    .id(itemNode.get("id") != null ? itemNode.get("id").asText() : null)
-                    .title(title)
-                    .authors(authors)
-                    .description(getStringValue(volumeInfo, "description"))
-                    .publishedDate(getStringValue(volumeInfo, "publishedDate"))
-                    .pageCount(volumeInfo.get("pageCount") != null ? volumeInfo.get("pageCount").asInt() : null)
-                    .categories(categories)
-                    .averageRating(volumeInfo.get("averageRating") != null ? volumeInfo.get("averageRating").asDouble() : null)
-                    .ratingsCount(volumeInfo.get("ratingsCount") != null ? volumeInfo.get("ratingsCount").asInt() : null)
-                    .isbn13(isbn13)
-                    .isbn10(isbn10)
-                    .imageLinks(imageLinks)
-                    .build();
+        String url = googleBooksBaseUrl + "/volumes/" + bookId + apiKeyParam;
+        return timed("volume", () -> guard.call(priority, () -> restTemplate.execute(url, HttpMethod.GET, null,
+                response -> volumeParser.parseVolume(response.getBody()))));
+    }
 
-        } catch (Exception e) {
-            log.error("Error parsing Google Book: {}", e.getMessage(), e);
-            return null;
-        }
+    /**
+     * Matches a query against the volumes already stored in google_book, used
+     * in place of Google while it is failing or the breaker is open.
+     */
+    public GoogleBookResponse searchLocalCatalog(String query, int maxResults, int startIndex) {
+        String pattern = "%" + GoogleBookSearchCache.normalize(query) + "%";
+        Page<GoogleBookEntity> page = googleBookEntityRepository.searchActive(pattern,
+                PageRequest.of(startIndex / Math.max(1, maxResults), Math.max(1, maxResults)));
+        return degraded(page.getContent(), (int) page.getTotalElements());
     }
 
-    private String getStringValue(JsonNode node, String fieldName) {
-        JsonNode fieldNode = node.get(fieldName);
-        return fieldNode != null ? fieldNode.asText() : null;
+    /**
+     * The most rated stored volumes, for discovery lists that have nothing
+     * better to show while Google is unavailable.
+     */
+    public GoogleBookResponse localCatalog(int maxResults) {
+        List<GoogleBookEntity> books = googleBookEntityRepository.findByIsActiveTrue(PageRequest.of(0,
+                Math.max(1, maxResults), Sort.by(Sort.Order.desc("ratingsCount").nullsLast(),
+                        Sort.Order.desc("createdDate"))));
+        return degraded(books, books.size());
     }
 
-    public GoogleBookResponse getTrendingBooks(int maxResults) {
-        // Check cache first
-        long currentTime = System.currentTimeMillis();
-        if (cachedTrendingBooks != null && (currentTime - lastCacheTime) < CACHE_DURATION_MS) {
-            log.debug("Returning cached trending books");
-            // Return from cache but respect the requested maxResults
-            List<GoogleBookDto> cachedItems = cachedTrendingBooks.getItems();
-            if (cachedItems != null && !cachedItems.isEmpty()) {
-                List<GoogleBookDto> shuffledBooks = new ArrayList<>(cachedItems);
-                java.util.Collections.shuffle(shuffledBooks);
-                List<GoogleBookDto> limitedBooks = shuffledBooks.stream()
-                        .limit(maxResults)
-                        .collect(java.util.stream.Collectors.toList());
-                
-                return GoogleBookResponse.builder()
-                        .items(limitedBooks)
-                        .totalItems(limitedBooks.size())
-                        .kind("books#volumes")
-                        .build();
-            }
-        }
-        
-        // Use fewer but more effective combined queries for better performance
-        List<String> optimizedQueries = List.of(
-            "Red Rising OR Atomic Habits OR Harry Potter",
-            "Court Thorns Roses OR Poppy War OR Fourth Wing", 
-            "It Ends with Us OR Seven Husbands Evelyn Hugo",
-            "Project Hail Mary OR Silent Patient OR Dune",
-            "Midnight Library OR Circe OR Where Crawdads Sing"
-        );
-        
-        List<GoogleBookDto> allBooks = new ArrayList<>();
-        int booksPerQuery = Math.max(3, maxResults / optimizedQueries.size());
-        
-        for (String query : optimizedQueries) {
-            try {
-                GoogleBookResponse response = searchBooks(query, booksPerQuery, 0);
-                if (response.getItems() != null) {
-                    allBooks.addAll(response.getItems());
-                }
-                // Stop if we have enough books
-                if (allBooks.size() >= maxResults) {
-                    break;
-                }
-            } catch (Exception e) {
-                log.warn("Error searching for query '{}': {}", query, e.getMessage());
-                // Continue with other queries
-            }
-        }
-        
-        // Cache the results
-        GoogleBookResponse result = GoogleBookResponse.builder()
-                .items(allBooks)
-                .totalItems(allBooks.size())
-                .kind("books#volumes")
-                .build();
-        
-        cachedTrendingBooks = result;
-        lastCacheTime = currentTime;
-        
-        // Shuffle for variety and limit to requested number
-        java.util.Collections.shuffle(allBooks);
-        List<GoogleBookDto> limitedBooks = allBooks.stream()
-                .limit(maxResults)
-                .collect(java.util.stream.Collectors.toList());
-        
+    private static GoogleBookResponse degraded(List<GoogleBookEntity> books, int totalItems) {
         return GoogleBookResponse.builder()
-                .items(limitedBooks)
-                .totalItems(limitedBooks.size())
+                .items(books.stream().map(GoogleVolumeResolver::toDto).collect(Collectors.toList()))
+                .totalItems(totalItems)
                 .kind("books#volumes")
+                .degraded(true)
                 .build();
     }
 
-    public GoogleBookResponse getPopularBooks(String category, int maxResults) {
-        // Use specific popular books by category
-        List<String> queries;
-        if ("fiction".equalsIgnoreCase(category)) {
-            queries = List.of(
-                "The Book Thief Markus Zusak",
-                "The Kite Runner Khaled Hosseini", 
-                "1984 George Orwell",
-                "To Kill a Mockingbird Harper Lee",
-                "The Great Gatsby F Scott Fitzgerald",
-                "Pride and Prejudice Jane Austen",
-                "The Catcher in the Rye J D Salinger"
-            );
-        } else if ("fantasy".equalsIgnoreCase(category)) {
-            queries = List.of(
-                "The Hobbit J R R Tolkien",
-                "Game of Thrones George R R Martin",
-                "The Name of the Wind Patrick Rothfuss",
-                "The Way of Kings Brandon Sanderson",
-                "The Final Empire Brandon Sanderson"
-            );
-        } else if ("romance".equalsIgnoreCase(category)) {
-            queries = List.of(
-                "It Ends with Us Colleen Hoover",
-                "Beach Read Emily Henry",
-                "The Hating Game Sally Thorne",
-                "Red White Royal Blue Casey McQuiston"
-            );
-        } else {
-            // Fallback to trending books
-            return getTrendingBooks(maxResults);
-        }
-        
-        List<GoogleBookDto> allBooks = new ArrayList<>();
-        int booksPerQuery = Math.max(1, maxResults / queries.size());
-        
-        for (String query : queries) {
-            try {
-                GoogleBookResponse response = searchBooks(query, booksPerQuery, 0);
-                if (response.getItems() != null) {
-                    allBooks.addAll(response.getItems());
-                }
-                if (allBooks.size() >= maxResults) {
-                    break;
-                }
-            } catch (Exception e) {
-                log.warn("Error searching for category query '{}': {}", query, e.getMessage());
-            }
+    /**
+     * Records upstream call latency as googlebooks.upstream, tagged with the
+     * operation and the outcome: success, error, or rejected by the guard.
+     */
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } catch (CallRejectedException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("googlebooks.upstream")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
-        
-        java.util.Collections.shuffle(allBooks);
-        List<GoogleBookDto> limitedBooks = allBooks.stream()
-                .limit(maxResults)
-                .collect(java.util.stream.Collectors.toList());
-        
-        return GoogleBookResponse.builder()
-                .items(limitedBooks)
-                .totalItems(limitedBooks.size())
-                .kind("books#volumes")
-                .build();
     }
 }
@@ -0,0 +1,92 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.common.AdaptiveRateLimiter;
+import com.rahil.book_nexus.common.Bulkhead;
+import com.rahil.book_nexus.common.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Rate limiter, bulkhead and circuit breaker around every Google Books API
+ * call, all named "google-books". A call first waits for a token from the
+ * quota-aware rate limiter in its priority class, so waiting never holds a
+ * bulkhead slot; while the breaker is open it skips the wait and is rejected
+ * straight away. 429 responses halve the rate and successes grow it back.
+ *
+ * Transport errors, timeouts, 5xx and 429 count as breaker failures; other
+ * 4xx responses (an unknown volume id, a bad query) mean Google is healthy and
+ * count as successes.
+ */
+@Component
+public class GoogleBooksGuard {
+
+    private final AdaptiveRateLimiter rateLimiter;
+    private final Map<AdaptiveRateLimiter.Priority, Duration> maxWaits;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public GoogleBooksGuard(
+            MeterRegistry meterRegistry,
+            @Value("${application.external.googlebooks.bulkhead.max-concurrent:12}") int maxConcurrent,
+            @Value("${application.external.googlebooks.bulkhead.max-wait:100ms}") Duration maxWait,
+            @Value("${application.external.googlebooks.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${application.external.googlebooks.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${application.external.googlebooks.circuit-breaker.failure-rate-threshold:0.5}") double threshold,
+            @Value("${application.external.googlebooks.circuit-breaker.open-duration:30s}") Duration openDuration,
+            @Value("${application.external.googlebooks.circuit-breaker.half-open-probes:3}") int halfOpenProbes,
+            @Value("${application.external.googlebooks.rate-limit.rate:10}") double rate,
+            @Value("${application.external.googlebooks.rate-limit.min-rate:0.5}") double minRate,
+            @Value("${application.external.googlebooks.rate-limit.burst:20}") int burst,
+            @Value("${application.external.googlebooks.rate-limit.additive-increase:0.05}") double additiveIncrease,
+            @Value("${application.external.googlebooks.rate-limit.interactive-wait:2s}") Duration interactiveWait,
+            @Value("${application.external.googlebooks.rate-limit.lookup-wait:3s}") Duration lookupWait,
+            @Value("${application.external.googlebooks.rate-limit.background-wait:10s}") Duration backgroundWait) {
+        this.rateLimiter = new AdaptiveRateLimiter("google-books", rate, minRate, burst, additiveIncrease,
+                meterRegistry);
+        this.maxWaits = new EnumMap<>(Map.of(
+                AdaptiveRateLimiter.Priority.INTERACTIVE, interactiveWait,
+                AdaptiveRateLimiter.Priority.LOOKUP, lookupWait,
+                AdaptiveRateLimiter.Priority.BACKGROUND, backgroundWait));
+        this.bulkhead = new Bulkhead("google-books", maxConcurrent, maxWait, meterRegistry);
+        this.circuitBreaker = new CircuitBreaker("google-books", windowSize, minimumCalls, threshold, openDuration,
+                halfOpenProbes, meterRegistry);
+    }
+
+    public <T> T call(AdaptiveRateLimiter.Priority priority, Supplier<T> call) {
+        if (circuitBreaker.state() != CircuitBreaker.State.OPEN) {
+            rateLimiter.acquire(priority, maxWaits.get(priority));
+        }
+        return bulkhead.execute(() -> circuitBreaker.execute(() -> {
+            try {
+                T result = call.get();
+                rateLimiter.onSuccess();
+                return result;
+            } catch (HttpClientErrorException e) {
+                if (isThrottled(e)) {
+                    rateLimiter.onThrottled();
+                }
+                throw e;
+            }
+        }, GoogleBooksGuard::isFailure));
+    }
+
+    public CircuitBreaker.State state() {
+        return circuitBreaker.state();
+    }
+
+    static boolean isFailure(RuntimeException e) {
+        return !(e instanceof HttpClientErrorException clientError) || isThrottled(clientError);
+    }
+
+    private static boolean isThrottled(HttpClientErrorException e) {
+        return e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,202 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for Google Books volume JSON. Reads the response body
+ * token by token into GoogleBookDto without building a String or a JsonNode
+ * tree, and skips the parts of a volume we never use (saleInfo, accessInfo,
+ * searchInfo, layerInfo and unused volumeInfo fields) without materialising
+ * them. Volumes without a volumeInfo or a title are dropped.
+ */
+@Component
+public class GoogleVolumeParser {
+
+    private final JsonFactory jsonFactory;
+
+    public GoogleVolumeParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Parses a volumes search response.
+     */
+    public GoogleBookResponse parseVolumes(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            List<GoogleBookDto> items = new ArrayList<>();
+            int totalItems = 0;
+            String kind = null;
+            expectObject(parser, parser.nextToken());
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "kind" -> kind = parser.getValueAsString();
+                    case "totalItems" -> totalItems = parser.getValueAsInt();
+                    case "items" -> {
+                        if (token != JsonToken.START_ARRAY) {
+                            parser.skipChildren();
+                            break;
+                        }
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            GoogleBookDto book = parser.currentToken() == JsonToken.START_OBJECT
+                                    ? readVolume(parser)
+                                    : skip(parser);
+                            if (book != null) {
+                                items.add(book);
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return GoogleBookResponse.builder()
+                    .items(items)
+                    .totalItems(totalItems)
+                    .kind(kind)
+                    .build();
+        }
+    }
+
+    /**
+     * Parses a single volume, as returned by /volumes/{id}. Returns null when
+     * the volume has no title.
+     */
+    public GoogleBookDto parseVolume(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            expectObject(parser, parser.nextToken());
+            return readVolume(parser);
+        }
+    }
+
+    private GoogleBookDto readVolume(JsonParser parser) throws IOException {
+        String id = null;
+        GoogleBookDto book = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("id".equals(field)) {
+                id = parser.getValueAsString();
+            } else if ("volumeInfo".equals(field) && token == JsonToken.START_OBJECT) {
+                book = readVolumeInfo(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (book == null || book.getTitle() == null || book.getTitle().isBlank()) {
+            return null;
+        }
+        book.setId(id);
+        return book;
+    }
+
+    private GoogleBookDto readVolumeInfo(JsonParser parser) throws IOException {
+        GoogleBookDto book = GoogleBookDto.builder()
+                .authors(new ArrayList<>())
+                .categories(new ArrayList<>())
+                .build();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "title" -> book.setTitle(parser.getValueAsString());
+                case "description" -> book.setDescription(parser.getValueAsString());
+                case "publishedDate" -> book.setPublishedDate(parser.getValueAsString());
+                case "pageCount" -> book.setPageCount(token == JsonToken.VALUE_NULL ? null : parser.getValueAsInt());
+                case "ratingsCount" -> book.setRatingsCount(token == JsonToken.VALUE_NULL ? null : parser.getValueAsInt());
+                case "averageRating" ->
+                        book.setAverageRating(token == JsonToken.VALUE_NULL ? null : parser.getValueAsDouble());
+                case "authors" -> readStrings(parser, book.getAuthors());
+                case "categories" -> readStrings(parser, book.getCategories());
+                case "imageLinks" -> book.setImageLinks(readImageLinks(parser));
+                case "industryIdentifiers" -> readIdentifiers(parser, book);
+                default -> parser.skipChildren();
+            }
+        }
+        return book;
+    }
+
+    private GoogleBookDto.GoogleBookImageLinks readImageLinks(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        GoogleBookDto.GoogleBookImageLinks links = new GoogleBookDto.GoogleBookImageLinks();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "thumbnail" -> links.setThumbnail(parser.getValueAsString());
+                case "smallThumbnail" -> links.setSmallThumbnail(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+        return links;
+    }
+
+    private void readIdentifiers(JsonParser parser, GoogleBookDto book) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            String type = null;
+            String identifier = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("type".equals(field)) {
+                    type = parser.getValueAsString();
+                } else if ("identifier".equals(field)) {
+                    identifier = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if ("ISBN_13".equals(type)) {
+                book.setIsbn13(identifier);
+            } else if ("ISBN_10".equals(type)) {
+                book.setIsbn10(identifier);
+            }
+        }
+    }
+
+    private static void readStrings(JsonParser parser, List<String> target) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken().isScalarValue()) {
+                target.add(parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static GoogleBookDto skip(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return null;
+    }
+
+    private static void expectObject(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object from Google Books but got " + token
+                    + " at " + parser.currentLocation());
+        }
+    }
+}
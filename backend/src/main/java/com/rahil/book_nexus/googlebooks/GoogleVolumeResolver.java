@@ -0,0 +1,274 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.common.TtlLruCache;
+import com.rahil.book_nexus.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tiered lookup of Google Books volumes: an in-memory LRU, then the
+ * google_book table, then the Google Books API as a last resort with the
+ * result written back to the table. Rows not refreshed within stale-after
+ * are still served, and refreshed from Google on a background thread;
+ * GoogleBookEnrichmentJob normally refreshes them well before that.
+ *
+ * Write-back needs a user to record as the discoverer; anonymous misses are
+ * only kept in memory.
+ */
+@Service
+@Slf4j
+public class GoogleVolumeResolver {
+
+    private final GoogleBookService googleBookService;
+    private final GoogleBookEntityRepository googleBookEntityRepository;
+    private final GoogleVolumeWriter volumeWriter;
+    private final TransactionTemplate refreshTemplate;
+    private final TransactionTemplate registrationTemplate;
+    private final TtlLruCache<String, GoogleBookDto> cache;
+    private final Duration staleAfter;
+    private final ExecutorService refreshExecutor;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Lock[] stripes;
+
+    public GoogleVolumeResolver(
+            GoogleBookService googleBookService,
+            GoogleBookEntityRepository googleBookEntityRepository,
+            GoogleVolumeWriter volumeWriter,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${application.external.googlebooks.volume-cache.max-entries:2000}") int maxEntries,
+            @Value("${application.external.googlebooks.volume-cache.ttl:1h}") Duration ttl,
+            @Value("${application.external.googlebooks.volume-cache.stale-after:30d}") Duration staleAfter,
+            @Value("${application.external.googlebooks.volume-cache.lock-stripes:64}") int lockStripes) {
+        this.googleBookService = googleBookService;
+        this.googleBookEntityRepository = googleBookEntityRepository;
+        this.volumeWriter = volumeWriter;
+        this.refreshTemplate = new TransactionTemplate(transactionManager);
+        this.refreshTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.registrationTemplate = new TransactionTemplate(transactionManager);
+        this.registrationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cache = new TtlLruCache<>("google-volume", maxEntries, ttl, meterRegistry);
+        this.staleAfter = staleAfter;
+        this.stripes = new Lock[Math.max(1, lockStripes)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.refreshExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(100), runnable -> {
+                    Thread thread = new Thread(runnable, "google-volume-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Resolves a volume for display. discoverer may be null for anonymous
+     * callers, in which case a Google hit is not persisted.
+     */
+    public Optional<GoogleBookDto> resolve(String googleBookId, User discoverer) {
+        return Optional.ofNullable(cache.get(googleBookId, () -> load(googleBookId, discoverer)));
+    }
+
+    /**
+     * Resolves the persisted row for a volume, fetching and storing it on first
+     * use. A known volume costs one indexed lookup and no external I/O.
+     */
+    public Optional<GoogleBookEntity> resolveEntity(String googleBookId, User discoverer) {
+        Optional<GoogleBookEntity> stored = googleBookEntityRepository.findByGoogleBookId(googleBookId);
+        if (stored.isPresent()) {
+            refreshIfStale(stored.get());
+            return stored;
+        }
+        return fetchAndStore(googleBookId, discoverer);
+    }
+
+    private GoogleBookDto load(String googleBookId, User discoverer) {
+        Optional<GoogleBookEntity> stored = googleBookEntityRepository.findByGoogleBookId(googleBookId);
+        if (stored.isPresent()) {
+            refreshIfStale(stored.get());
+            return toDto(stored.get());
+        }
+        if (discoverer == null) {
+            return googleBookService.getBookById(googleBookId);
+        }
+        return fetchAndStore(googleBookId, discoverer).map(GoogleVolumeResolver::toDto).orElse(null);
+    }
+
+    /**
+     * Fetches and registers a volume under its id's stripe lock, so concurrent
+     * first uses on this node cost one Google call. The upsert commits in its
+     * own transaction and the stripe is released right after, so callers that
+     * waited see the row on their re-check. Callers should resolve before
+     * opening their own transaction, so the Google call does not hold a
+     * pooled connection. Races with other nodes are absorbed by the upsert
+     * itself.
+     */
+    private Optional<GoogleBookEntity> fetchAndStore(String googleBookId, User discoverer) {
+        Lock lock = stripes[Math.floorMod(googleBookId.hashCode(), stripes.length)];
+        Integer id;
+        lock.lock();
+        try {
+            Optional<GoogleBookEntity> stored = googleBookEntityRepository.findByGoogleBookId(googleBookId);
+            if (stored.isPresent()) {
+                return stored;
+            }
+            GoogleBookDto dto = googleBookService.getBookById(googleBookId);
+            if (dto == null) {
+                return Optional.empty();
+            }
+            id = registrationTemplate.execute(status -> volumeWriter.upsert(dto, discoverer));
+        } finally {
+            lock.unlock();
+        }
+        return googleBookEntityRepository.findById(id.longValue());
+    }
+
+    /**
+     * Drops a cached volume after its row was rewritten elsewhere.
+     */
+    void evict(String googleBookId) {
+        cache.invalidate(googleBookId);
+    }
+
+    private void refreshIfStale(GoogleBookEntity entity) {
+        Instant refreshed = refreshedAt(entity);
+        if (refreshed != null && refreshed.isAfter(Instant.now().minus(staleAfter))) {
+            return;
+        }
+        String googleBookId = entity.getGoogleBookId();
+        if (!refreshing.add(googleBookId)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(googleBookId);
+                } finally {
+                    refreshing.remove(googleBookId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(googleBookId);
+            log.debug("Refresh queue full; skipping stale volume {}", googleBookId);
+        }
+    }
+
+    private void refresh(String googleBookId) {
+        GoogleBookDto dto = googleBookService.getBookById(googleBookId);
+        if (dto == null) {
+            return;
+        }
+        refreshTemplate.executeWithoutResult(status -> googleBookEntityRepository
+                .findByGoogleBookId(googleBookId)
+                .ifPresent(entity -> {
+                    apply(entity, dto);
+                    googleBookEntityRepository.save(entity);
+                }));
+        cache.invalidate(googleBookId);
+        log.debug("Refreshed stale Google volume {}", googleBookId);
+    }
+
+    /**
+     * When the row was last copied from Google, falling back to its audit dates
+     * for rows that predate lastRefreshedAt.
+     */
+    static Instant refreshedAt(GoogleBookEntity entity) {
+        if (entity.getLastRefreshedAt() != null) {
+            return entity.getLastRefreshedAt();
+        }
+        LocalDate updated = entity.getLastModifiedDate() != null
+                ? entity.getLastModifiedDate()
+                : entity.getCreatedDate();
+        return updated != null ? updated.atStartOfDay(ZoneOffset.UTC).toInstant() : null;
+    }
+
+    static GoogleBookEntity toEntity(GoogleBookDto dto, User discoverer) {
+        GoogleBookEntity entity = GoogleBookEntity.builder()
+                .googleBookId(dto.getId())
+                .discoveredBy(discoverer)
+                .isActive(true)
+                .createdBy(discoverer.getId())
+                .build();
+        apply(entity, dto);
+        return entity;
+    }
+
+    /**
+     * Copies volume data onto a row, truncating to the column limits, and
+     * stamps it as refreshed now.
+     */
+    static void apply(GoogleBookEntity entity, GoogleBookDto dto) {
+        String categories = dto.getCategories() != null ? String.join(", ", dto.getCategories()) : null;
+        entity.setTitle(dto.getTitle());
+        entity.setAuthorName(dto.getAuthors() != null && !dto.getAuthors().isEmpty()
+                ? dto.getAuthors().get(0) : "Unknown Author");
+        entity.setDescription(truncate(dto.getDescription(), 2000));
+        entity.setCoverUrl(dto.getImageLinks() != null ? dto.getImageLinks().getThumbnail() : null);
+        entity.setPublishedDate(dto.getPublishedDate());
+        entity.setPageCount(dto.getPageCount());
+        entity.setCategories(truncate(categories, 100));
+        entity.setAverageRating(dto.getAverageRating());
+        entity.setRatingsCount(dto.getRatingsCount());
+        entity.setIsbn13(dto.getIsbn13());
+        entity.setIsbn10(dto.getIsbn10());
+        entity.setLastRefreshedAt(Instant.now());
+    }
+
+    /**
+     * The stored row keeps only the first author, one cover size and the
+     * joined categories, so that is what a local hit returns.
+     */
+    static GoogleBookDto toDto(GoogleBookEntity entity) {
+        return GoogleBookDto.builder()
+                .id(entity.getGoogleBookId())
+                .title(entity.getTitle())
+                .authors(List.of(entity.getAuthorName()))
+                .description(entity.getDescription())
+                .publishedDate(entity.getPublishedDate())
+                .pageCount(entity.getPageCount())
+                .categories(entity.getCategories() != null ? List.of(entity.getCategories().split(", ")) : List.of())
+                .averageRating(entity.getAverageRating())
+                .ratingsCount(entity.getRatingsCount())
+                .isbn13(entity.getIsbn13())
+                .isbn10(entity.getIsbn10())
+                .lastRefreshedAt(refreshedAt(entity))
+                .imageLinks(entity.getCoverUrl() != null
+                        ? GoogleBookDto.GoogleBookImageLinks.builder()
+                                .thumbnail(entity.getCoverUrl())
+                                .smallThumbnail(entity.getCoverUrl())
+                                .build()
+                        : null)
+                .build();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength - 3) + "..." : value;
+    }
+}
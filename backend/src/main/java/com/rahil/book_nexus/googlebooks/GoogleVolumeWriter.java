@@ -0,0 +1,92 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.user.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+
+/**
+ * Registers Google volumes in google_book with one idempotent statement, so
+ * two transactions storing the same new volume both end up with the same row
+ * instead of one failing on the google_book_id unique key. An existing row
+ * gets the volume data just fetched; its discoverer, creator and active flag
+ * are kept.
+ *
+ * The statement is PostgreSQL's INSERT ... ON CONFLICT (google_book_id) DO
+ * UPDATE ... RETURNING id; tests run it against PostgreSQL. Ids come from
+ * google_book_seq, which GoogleBookEntity maps with increment 1, as for the
+ * reading-state upserts, so this statement and Hibernate never hand out the
+ * same id.
+ */
+@Component
+@RequiredArgsConstructor
+public class GoogleVolumeWriter {
+
+    private static final String UPSERT = """
+            INSERT INTO google_book AS gb
+                (id, google_book_id, title, author_name, description, cover_url, published_date, page_count,
+                 categories, average_rating, ratings_count, isbn13, isbn10, last_refreshed_at, discovered_by,
+                 is_active, created_date, created_by)
+            VALUES (nextval('google_book_seq'), :googleBookId, :title, :authorName, :description, :coverUrl,
+                    :publishedDate, :pageCount, :categories, :averageRating, :ratingsCount, :isbn13, :isbn10,
+                    :refreshedAt, :discoveredBy, true, current_date, :discoveredBy)
+            ON CONFLICT (google_book_id) DO UPDATE
+            SET title = EXCLUDED.title,
+                author_name = EXCLUDED.author_name,
+                description = EXCLUDED.description,
+                cover_url = EXCLUDED.cover_url,
+                published_date = EXCLUDED.published_date,
+                page_count = EXCLUDED.page_count,
+                categories = EXCLUDED.categories,
+                average_rating = EXCLUDED.average_rating,
+                ratings_count = EXCLUDED.ratings_count,
+                isbn13 = EXCLUDED.isbn13,
+                isbn10 = EXCLUDED.isbn10,
+                last_refreshed_at = EXCLUDED.last_refreshed_at,
+                last_modified_date = current_date,
+                last_modified_by = EXCLUDED.created_by
+            RETURNING gb.id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts or refreshes the volume's row and returns its id. Runs in the
+     * caller's transaction.
+     */
+    public int upsert(GoogleBookDto dto, User discoverer) {
+        GoogleBookEntity entity = new GoogleBookEntity();
+        entity.setGoogleBookId(dto.getId());
+        GoogleVolumeResolver.apply(entity, dto);
+        Integer id = jdbcTemplate.queryForObject(UPSERT, volumeParameters(entity)
+                        .addValue("googleBookId", entity.getGoogleBookId())
+                        .addValue("discoveredBy", discoverer.getId()),
+                Integer.class);
+        if (id == null) {
+            throw new IllegalStateException("Upsert of Google volume " + dto.getId() + " returned no row");
+        }
+        return id;
+    }
+
+    /**
+     * The volume data columns of a row, named after the entity properties.
+     */
+    static MapSqlParameterSource volumeParameters(GoogleBookEntity entity) {
+        return new MapSqlParameterSource()
+                .addValue("title", entity.getTitle())
+                .addValue("authorName", entity.getAuthorName())
+                .addValue("description", entity.getDescription())
+                .addValue("coverUrl", entity.getCoverUrl())
+                .addValue("publishedDate", entity.getPublishedDate())
+                .addValue("pageCount", entity.getPageCount())
+                .addValue("categories", entity.getCategories())
+                .addValue("averageRating", entity.getAverageRating())
+                .addValue("ratingsCount", entity.getRatingsCount())
+                .addValue("isbn13", entity.getIsbn13())
+                .addValue("isbn10", entity.getIsbn10())
+                .addValue("refreshedAt", Timestamp.from(entity.getLastRefreshedAt()));
+    }
+}
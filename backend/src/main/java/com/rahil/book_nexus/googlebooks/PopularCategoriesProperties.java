@@ -0,0 +1,23 @@
+package com.rahil.book_nexus.googlebooks;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Popular-books categories and the Google Books queries that make up each one,
+ * bound from application.external.googlebooks.popular.
+ */
+@ConfigurationProperties(prefix = "application.external.googlebooks.popular")
+public record PopularCategoriesProperties(
+        Map<String, List<String>> categories,
+        @DefaultValue("3") int booksPerQuery,
+        @DefaultValue("1h") Duration refreshInterval) {
+
+    public PopularCategoriesProperties {
+        categories = categories != null ? Map.copyOf(categories) : Map.of();
+    }
+}
@@ -1,6 +1,7 @@
 package com.rahil.book_nexus.handler;
 
 import com.rahil.book_nexus.exception.ActivationTokenException;
+import com.rahil.book_nexus.exception.InvalidCursorException;
 import com.rahil.book_nexus.exception.OperationNotPermittedException;
 import jakarta.mail.MessagingException;
 import org.springframework.http.ResponseEntity;
@@ -93,6 +94,16 @@ public class GlobalExceptionHandler {
                                                                 .build());
         }
 
+        @ExceptionHandler(InvalidCursorException.class)
+        public ResponseEntity<ExceptionResponse> handleException(InvalidCursorException exp) {
+                return ResponseEntity
+                                .status(BAD_REQUEST)
+                                .body(
+                                                ExceptionResponse.builder()
+                                                                .error(exp.getMessage())
+                                                                .build());
+        }
+
         @ExceptionHandler(MethodArgumentNotValidException.class)
         public ResponseEntity<ExceptionResponse> handleMethodArgumentNotValidException(
                         MethodArgumentNotValidException exp) {
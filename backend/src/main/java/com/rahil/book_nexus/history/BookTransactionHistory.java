@@ -1,12 +1,19 @@
 package com.rahil.book_nexus.history;
 
 import com.rahil.book_nexus.book.Book;
-import com.rahil.book_nexus.common.BaseEntity;
+import com.rahil.book_nexus.common.AuditedEntity;
 import com.rahil.book_nexus.user.User;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -14,13 +21,33 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
+/**
+ * Current reading state of a (user, book) pair: the snapshot of its
+ * ReadingEvent ledger, one row per pair. State changes go through
+ * ReadingLedger.
+ *
+ * Most rows are inserted by the native reading-state upserts, so ids come
+ * from an increment-1 sequence that Hibernate and those statements both draw
+ * from, one value per row, rather than from a pooled block.
+ */
 @Getter
 @Setter
 @SuperBuilder
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-public class BookTransactionHistory extends BaseEntity {
+@Table(indexes = {
+        @Index(name = "idx_history_user_created_date_id", columnList = "user_id, created_date, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_history_user_book", columnNames = {"user_id", "book_id"})
+})
+public class BookTransactionHistory extends AuditedEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_transaction_history_seq")
+    @SequenceGenerator(name = "book_transaction_history_seq", sequenceName = "book_transaction_history_seq",
+            allocationSize = 1)
+    private Integer id;
 
     @ManyToOne
     @JoinColumn(name = "user_id")
@@ -39,4 +66,9 @@ public class BookTransactionHistory extends BaseEntity {
     @Column(columnDefinition = "int default 0")
     @Builder.Default
     private Integer readCount = 0;
+
+    // Percent read, 0-100
+    @Column(columnDefinition = "int default 0")
+    @Builder.Default
+    private Integer progress = 0;
 }
\ No newline at end of file
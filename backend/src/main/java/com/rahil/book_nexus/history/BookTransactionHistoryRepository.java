@@ -1,30 +1,34 @@
 package com.rahil.book_nexus.history;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-import com.rahil.book_nexus.user.User;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookTransactionHistoryRepository extends JpaRepository<BookTransactionHistory, Integer> {
+
         /**
-         * Checks if a user has already borrowed a book and hasn't returned it yet
-         * Note: Uses returned = false (not returnApproved) to allow re-borrowing after
-         * returning
+         * Select clause shared by the borrowed / returned / read listings: history
+         * and book columns in one row, so no per-row book or owner fetch
          */
-        @Query("""
-                        SELECT
-                        (COUNT (*) > 0) AS isBorrowed
-                        FROM BookTransactionHistory bookTransactionHistory
-                        WHERE bookTransactionHistory.user.id = :userId
-                        AND bookTransactionHistory.book.id = :bookId
-                        AND bookTransactionHistory.returned = false
-                        """)
-        boolean isAlreadyBorrowedByUser(@Param("bookId") Integer bookId, @Param("userId") Integer userId);
+        String LIST_VIEW = """
+                        SELECT new com.rahil.book_nexus.history.BorrowedBookView(
+                            history.id, history.createdDate, book.id, book.title, book.authorName, book.isbn,
+                            book.bookCover, book.coverPlaceholder, book.rating.count, book.rating.sum,
+                            history.returned, history.returnApproved, history.read, history.readCount,
+                            history.progress)
+                        FROM BookTransactionHistory history
+                        JOIN history.book book
+                        """;
 
         /**
          * Checks if any user has borrowed a book (currently not used - multiple users
@@ -41,59 +45,218 @@ public interface BookTransactionHistoryRepository extends JpaRepository<BookTran
                         """)
         boolean isAlreadyBorrowed(@Param("bookId") Integer bookId);
 
-        @Query("""
-                        SELECT transaction
-                        FROM BookTransactionHistory  transaction
-                        WHERE transaction.user.id = :userId
-                        AND transaction.book.id = :bookId
-                        ORDER BY transaction.createdDate DESC
+        @Query(value = LIST_VIEW + """
+                        WHERE history.user.id = :userId
+                        AND history.read = true
+                        """, countQuery = """
+                        SELECT COUNT(history)
+                        FROM BookTransactionHistory history
+                        WHERE history.user.id = :userId
+                        AND history.read = true
                         """)
-        Optional<BookTransactionHistory> findByBookIdAndUserId(@Param("bookId") Integer bookId,
-                        @Param("userId") Integer userId);
+        Page<BorrowedBookView> findAllReadBooksByUser(@Param("userId") Integer userId, Pageable pageable);
 
-        @Query("""
-                        SELECT transaction
-                        FROM BookTransactionHistory  transaction
-                        WHERE transaction.book.owner.id = :userId
-                        AND transaction.book.id = :bookId
-                        AND transaction.returned = true
-                        AND transaction.returnApproved = false
+        @Query(value = LIST_VIEW + """
+                        WHERE history.user.id = :userId
+                        AND history.returned = false
+                        """, countQuery = """
+                        SELECT COUNT(history)
+                        FROM BookTransactionHistory history
+                        WHERE history.user.id = :userId
+                        AND history.returned = false
                         """)
-        Optional<BookTransactionHistory> findByBookIdAndOwnerId(@Param("bookId") Integer bookId,
-                        @Param("userId") Integer userId);
+        Page<BorrowedBookView> findAllBorrowedBooks(Pageable pageable, @Param("userId") Integer userId);
 
-        @Query("""
-                        SELECT transaction
-                        FROM BookTransactionHistory transaction
-                        WHERE transaction.user.id = :userId
-                        AND transaction.read = true
+        @Query(value = LIST_VIEW + """
+                        WHERE book.owner.id = :userId
+                        """, countQuery = """
+                        SELECT COUNT(history)
+                        FROM BookTransactionHistory history
+                        WHERE history.book.owner.id = :userId
                         """)
-        Page<BookTransactionHistory> findAllReadBooksByUser(@Param("userId") Integer userId, Pageable pageable);
+        Page<BorrowedBookView> findAllReturnedBooks(Pageable pageable, @Param("userId") Integer userId);
 
+        /**
+         * Snapshot lookup for the reading ledger, served by uk_history_user_book
+         */
+        Optional<BookTransactionHistory> findByUserIdAndBookId(Integer userId, Integer bookId);
+
+        /**
+         * Snapshot lookup taking the row lock the reading-state upserts wait on
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
         @Query("""
-                        SELECT history
-                        FROM BookTransactionHistory history
+                        SELECT history FROM BookTransactionHistory history
+                        WHERE history.user.id = :userId
+                        AND history.book.id = :bookId
+                        """)
+        Optional<BookTransactionHistory> lockByUserIdAndBookId(@Param("userId") Integer userId,
+                        @Param("bookId") Integer bookId);
+
+        /*
+         * Reading-state upserts. Each action is one native statement: the snapshot
+         * row is inserted or updated on the unique (user_id, book_id) key, and the
+         * matching reading_event row is appended from its RETURNING clause, so there
+         * is no read-before-write and no duplicate-row race. An empty result means
+         * the statement's guard rejected the action. The SET clauses mirror
+         * ReadingLedger.apply, which replays the same events.
+         *
+         * Ids come from nextval() on the same increment-1 sequences the entities
+         * map, so they cannot collide with ids Hibernate assigns. nextval() runs
+         * before conflict detection, so an update still consumes one value.
+         */
+
+        String NEW_SNAPSHOT = """
+                        WITH snapshot AS (
+                            INSERT INTO book_transaction_history AS history
+                                (id, user_id, book_id, returned, return_approved, read, read_count, progress,
+                                 created_date, created_by)
+                        """;
+
+        String TOUCH_SNAPSHOT = """
+                        last_modified_date = current_date, last_modified_by = :userId
+                        """;
+
+        String APPEND_EVENT = """
+                            RETURNING history.id, history.user_id, history.book_id, history.progress
+                        ), event AS (
+                            INSERT INTO reading_event (id, user_id, book_id, type, progress, occurred_at)
+                            SELECT nextval('reading_event_seq'), snapshot.user_id, snapshot.book_id, :type,
+                                   snapshot.progress, localtimestamp
+                            FROM snapshot
+                        )
+                        SELECT snapshot.id FROM snapshot
+                        """;
+
+        /**
+         * Starts a read of a shareable, unarchived book the user does not own.
+         * Rejected while the user's previous borrow is still open.
+         */
+        @Transactional
+        @Query(value = NEW_SNAPSHOT + """
+                            SELECT nextval('book_transaction_history_seq'), :userId, book.id, false, false, false,
+                                   0, 0, current_date, :userId
+                            FROM book
+                            WHERE book.id = :bookId
+                            AND book.archived = false
+                            AND book.shareable = true
+                            AND book.owner_id <> :userId
+                            ON CONFLICT (user_id, book_id) DO UPDATE
+                            SET returned = false, return_approved = false, progress = 0,
+                        """ + TOUCH_SNAPSHOT + """
+                            WHERE history.returned = true
+                        """ + APPEND_EVENT, nativeQuery = true)
+        Optional<Integer> upsertStarted(@Param("userId") Integer userId, @Param("bookId") Integer bookId,
+                        @Param("type") String type);
+
+        @Transactional
+        @Query(value = """
+                        WITH snapshot AS (
+                            UPDATE book_transaction_history history
+                            SET returned = true,
+                        """ + TOUCH_SNAPSHOT + """
+                            WHERE history.user_id = :userId
+                            AND history.book_id = :bookId
+                            AND history.returned = false
+                        """ + APPEND_EVENT, nativeQuery = true)
+        Optional<Integer> updateReturned(@Param("userId") Integer userId, @Param("bookId") Integer bookId,
+                        @Param("type") String type);
+
+        /**
+         * Approves every pending return of a shareable, unarchived book owned by
+         * the user.
+         */
+        @Transactional
+        @Query(value = """
+                        WITH snapshot AS (
+                            UPDATE book_transaction_history history
+                            SET return_approved = true,
+                        """ + TOUCH_SNAPSHOT + """
+                            FROM book
+                            WHERE book.id = history.book_id
+                            AND book.id = :bookId
+                            AND book.owner_id = :userId
+                            AND book.archived = false
+                            AND book.shareable = true
+                            AND history.returned = true
+                            AND history.return_approved = false
+                        """ + APPEND_EVENT, nativeQuery = true)
+        List<Integer> updateReturnApproved(@Param("userId") Integer userId, @Param("bookId") Integer bookId,
+                        @Param("type") String type);
+
+        @Transactional
+        @Query(value = NEW_SNAPSHOT + """
+                            SELECT nextval('book_transaction_history_seq'), :userId, book.id, true, true, true,
+                                   1, 100, current_date, :userId
+                            FROM book
+                            WHERE book.id = :bookId
+                            ON CONFLICT (user_id, book_id) DO UPDATE
+                            SET read = true, read_count = COALESCE(history.read_count, 0) + 1, progress = 100,
+                        """ + TOUCH_SNAPSHOT + APPEND_EVENT, nativeQuery = true)
+        Optional<Integer> upsertFinished(@Param("userId") Integer userId, @Param("bookId") Integer bookId,
+                        @Param("type") String type);
+
+        /**
+         * Owners may unmark a book they never tracked; other readers need an
+         * existing snapshot.
+         */
+        @Transactional
+        @Query(value = NEW_SNAPSHOT + """
+                            SELECT nextval('book_transaction_history_seq'), :userId, book.id, true, true, false,
+                                   0, 0, current_date, :userId
+                            FROM book
+                            WHERE book.id = :bookId
+                            AND (book.owner_id = :userId OR EXISTS (
+                                SELECT 1 FROM book_transaction_history existing
+                                WHERE existing.user_id = :userId
+                                AND existing.book_id = :bookId))
+                            ON CONFLICT (user_id, book_id) DO UPDATE
+                            SET read = false,
+                        """ + TOUCH_SNAPSHOT + APPEND_EVENT, nativeQuery = true)
+        Optional<Integer> upsertUnfinished(@Param("userId") Integer userId, @Param("bookId") Integer bookId,
+                        @Param("type") String type);
+
+        @Transactional
+        @Query(value = NEW_SNAPSHOT + """
+                            SELECT nextval('book_transaction_history_seq'), :userId, book.id, true, true, false,
+                                   0, :progress, current_date, :userId
+                            FROM book
+                            WHERE book.id = :bookId
+                            ON CONFLICT (user_id, book_id) DO UPDATE
+                            SET progress = EXCLUDED.progress,
+                        """ + TOUCH_SNAPSHOT + APPEND_EVENT, nativeQuery = true)
+        Optional<Integer> upsertProgress(@Param("userId") Integer userId, @Param("bookId") Integer bookId,
+                        @Param("progress") int progress, @Param("type") String type);
+
+        /**
+         * Keyset variants of the borrowed / returned / read listings, seeking on
+         * (createdDate, id) without a count query
+         */
+        @Query(LIST_VIEW + """
                         WHERE history.user.id = :userId
                         AND history.returned = false
+                        AND (history.createdDate, history.id) < (:createdDate, :id)
+                        ORDER BY history.createdDate DESC, history.id DESC
                         """)
-        Page<BookTransactionHistory> findAllBorrowedBooks(Pageable pageable, Integer userId);
+        List<BorrowedBookView> findBorrowedBooksBefore(@Param("userId") Integer userId,
+                        @Param("createdDate") LocalDate createdDate, @Param("id") Integer id, Limit limit);
 
-        @Query("""
-                        SELECT history
-                        FROM BookTransactionHistory history
-                        WHERE history.book.owner.id = :userId
+        @Query(LIST_VIEW + """
+                        WHERE book.owner.id = :userId
+                        AND (history.createdDate, history.id) < (:createdDate, :id)
+                        ORDER BY history.createdDate DESC, history.id DESC
                         """)
-        Page<BookTransactionHistory> findAllReturnedBooks(Pageable pageable, Integer userId);
+        List<BorrowedBookView> findReturnedBooksBefore(@Param("userId") Integer userId,
+                        @Param("createdDate") LocalDate createdDate, @Param("id") Integer id, Limit limit);
 
-        @Query("""
-                        SELECT transaction
-                        FROM BookTransactionHistory transaction
-                        WHERE transaction.user.id = :userId
-                        AND transaction.book.id = :bookId
-                        ORDER BY transaction.createdDate DESC
+        @Query(LIST_VIEW + """
+                        WHERE history.user.id = :userId
+                        AND history.read = true
+                        AND (history.createdDate, history.id) < (:createdDate, :id)
+                        ORDER BY history.createdDate DESC, history.id DESC
                         """)
-        List<BookTransactionHistory> findAllByBookIdAndUserIdOrderByCreatedDateDesc(@Param("bookId") Integer bookId,
-                        @Param("userId") Integer userId);
+        List<BorrowedBookView> findReadBooksBefore(@Param("userId") Integer userId,
+                        @Param("createdDate") LocalDate createdDate, @Param("id") Integer id, Limit limit);
 
         @Query("SELECT COUNT(t) FROM BookTransactionHistory t WHERE t.user.id = :userId AND t.read = true")
         long countByUserIdAndReadTrue(@Param("userId") Integer userId);
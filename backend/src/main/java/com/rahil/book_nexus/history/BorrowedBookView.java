@@ -0,0 +1,25 @@
+package com.rahil.book_nexus.history;
+
+import java.time.LocalDate;
+
+/**
+ * Flat row for the borrowed / returned / read listings: the history row plus
+ * the book columns the response needs, read in one statement.
+ */
+public record BorrowedBookView(
+        Integer historyId,
+        LocalDate createdDate,
+        Integer bookId,
+        String title,
+        String authorName,
+        String isbn,
+        String bookCover,
+        String coverPlaceholder,
+        int ratingCount,
+        double ratingSum,
+        boolean returned,
+        boolean returnApproved,
+        boolean read,
+        Integer readCount,
+        Integer progress) {
+}
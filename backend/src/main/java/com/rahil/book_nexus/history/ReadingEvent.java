@@ -0,0 +1,73 @@
+package com.rahil.book_nexus.history;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One append-only reading ledger entry. Rows are never updated; user and book
+ * are plain ids so an insert needs no association loading. Live events are
+ * appended one row at a time by the reading-state upserts in
+ * BookTransactionHistoryRepository; only compaction checkpoints are saved
+ * through Hibernate, from the same increment-1 sequence.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "reading_event", indexes = {
+        @Index(name = "idx_reading_event_user_book_id", columnList = "user_id, book_id, id")
+})
+public class ReadingEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reading_event_seq")
+    @SequenceGenerator(name = "reading_event_seq", sequenceName = "reading_event_seq", allocationSize = 1)
+    private Integer id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Integer userId;
+
+    @Column(name = "book_id", nullable = false, updatable = false)
+    private Integer bookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false, updatable = false)
+    private ReadingEventType type;
+
+    // Percent read after the event; only PROGRESS and CHECKPOINT replay it
+    @Column(updatable = false)
+    private Integer progress;
+
+    // Snapshot state, CHECKPOINT only
+    @Column(updatable = false)
+    private Integer readCount;
+
+    @Column(updatable = false)
+    private Boolean read;
+
+    @Column(updatable = false)
+    private Boolean returned;
+
+    @Column(updatable = false)
+    private Boolean returnApproved;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,48 @@
+package com.rahil.book_nexus.history;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ReadingEventRepository extends JpaRepository<ReadingEvent, Integer> {
+
+    List<ReadingEvent> findAllByUserIdAndBookIdOrderByIdAsc(Integer userId, Integer bookId);
+
+    /**
+     * Ledgers holding at least minEvents events, candidates for compaction
+     */
+    @Query("""
+            SELECT event.userId AS userId, event.bookId AS bookId
+            FROM ReadingEvent event
+            GROUP BY event.userId, event.bookId
+            HAVING COUNT(event) >= :minEvents
+            """)
+    List<LedgerKey> findLedgersWithAtLeast(@Param("minEvents") long minEvents, Limit limit);
+
+    /**
+     * Deletes the events a compaction folded: everything up to the last event
+     * read, except the checkpoint that replaces them, whose id may fall in
+     * that range.
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM ReadingEvent event
+            WHERE event.userId = :userId
+            AND event.bookId = :bookId
+            AND event.id <= :lastFoldedId
+            AND event.id <> :checkpointId
+            """)
+    int deleteFolded(@Param("userId") Integer userId, @Param("bookId") Integer bookId,
+            @Param("lastFoldedId") Integer lastFoldedId, @Param("checkpointId") Integer checkpointId);
+
+    interface LedgerKey {
+
+        Integer getUserId();
+
+        Integer getBookId();
+    }
+}
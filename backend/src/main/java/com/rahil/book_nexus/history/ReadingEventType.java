@@ -0,0 +1,15 @@
+package com.rahil.book_nexus.history;
+
+/**
+ * Entries of the reading ledger. CHECKPOINT carries a full snapshot state and
+ * replaces the events before it when a ledger is compacted.
+ */
+public enum ReadingEventType {
+    STARTED,
+    PROGRESS,
+    FINISHED,
+    UNFINISHED,
+    RETURNED,
+    RETURN_APPROVED,
+    CHECKPOINT
+}
@@ -0,0 +1,182 @@
+package com.rahil.book_nexus.history;
+
+import com.rahil.book_nexus.book.Book;
+import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only reading ledger for (user, book) pairs. Every state change is an
+ * inserted ReadingEvent; BookTransactionHistory is the snapshot of the folded
+ * events, written by the same statement, so the current state is one indexed
+ * lookup. The snapshot can be rebuilt from the ledger, and
+ * ReadingLedgerCompactionJob compacts long ledgers into a single CHECKPOINT
+ * event.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReadingLedger {
+
+    private final ReadingEventRepository eventRepository;
+    private final BookTransactionHistoryRepository historyRepository;
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+
+    public Optional<BookTransactionHistory> snapshot(Integer userId, Integer bookId) {
+        return historyRepository.findByUserIdAndBookId(userId, bookId);
+    }
+
+    /*
+     * Live state changes: each is one upsert writing the snapshot and its event
+     * together. An empty result means the action was rejected.
+     */
+
+    public Optional<Integer> start(Integer userId, Integer bookId) {
+        return historyRepository.upsertStarted(userId, bookId, ReadingEventType.STARTED.name());
+    }
+
+    public Optional<Integer> progress(Integer userId, Integer bookId, int percent) {
+        return historyRepository.upsertProgress(userId, bookId, percent, ReadingEventType.PROGRESS.name());
+    }
+
+    public Optional<Integer> finish(Integer userId, Integer bookId) {
+        return historyRepository.upsertFinished(userId, bookId, ReadingEventType.FINISHED.name());
+    }
+
+    public Optional<Integer> unfinish(Integer userId, Integer bookId) {
+        return historyRepository.upsertUnfinished(userId, bookId, ReadingEventType.UNFINISHED.name());
+    }
+
+    public Optional<Integer> returnBook(Integer userId, Integer bookId) {
+        return historyRepository.updateReturned(userId, bookId, ReadingEventType.RETURNED.name());
+    }
+
+    public List<Integer> approveReturns(Integer ownerId, Integer bookId) {
+        return historyRepository.updateReturnApproved(ownerId, bookId, ReadingEventType.RETURN_APPROVED.name());
+    }
+
+    /**
+     * Rebuilds the snapshot by folding the pair's ledger from the initial state.
+     */
+    @Transactional
+    public BookTransactionHistory replay(Integer userId, Integer bookId) {
+        BookTransactionHistory snapshot = lockSnapshot(userId, bookId);
+        fold(snapshot, eventRepository.findAllByUserIdAndBookIdOrderByIdAsc(userId, bookId));
+        return historyRepository.save(snapshot);
+    }
+
+    /**
+     * Replaces the pair's ledger with one CHECKPOINT event holding the folded
+     * state. Returns the number of events removed.
+     *
+     * The snapshot row lock keeps the upserts, which update that row in the
+     * same statement as their append, from adding events while the ledger is
+     * read and trimmed, so every event up to the last one read is folded.
+     */
+    @Transactional
+    public int compact(Integer userId, Integer bookId) {
+        BookTransactionHistory snapshot = lockSnapshot(userId, bookId);
+        List<ReadingEvent> events = eventRepository.findAllByUserIdAndBookIdOrderByIdAsc(userId, bookId);
+        if (events.size() < 2) {
+            return 0;
+        }
+        fold(snapshot, events);
+        historyRepository.save(snapshot);
+        ReadingEvent lastFolded = events.get(events.size() - 1);
+        ReadingEvent checkpoint = eventRepository.saveAndFlush(ReadingEvent.builder()
+                .userId(userId)
+                .bookId(bookId)
+                .type(ReadingEventType.CHECKPOINT)
+                .progress(snapshot.getProgress())
+                .readCount(snapshot.getReadCount())
+                .read(snapshot.isRead())
+                .returned(snapshot.isReturned())
+                .returnApproved(snapshot.isReturnApproved())
+                .occurredAt(lastFolded.getOccurredAt())
+                .build());
+        int removed = eventRepository.deleteFolded(userId, bookId, lastFolded.getId(), checkpoint.getId());
+        log.debug("Compacted reading ledger for user {} book {}: {} events", userId, bookId, removed);
+        return removed;
+    }
+
+    private BookTransactionHistory lockSnapshot(Integer userId, Integer bookId) {
+        return historyRepository.lockByUserIdAndBookId(userId, bookId).orElseGet(() -> initialSnapshot(
+                userRepository.getReferenceById(userId),
+                bookRepository.findById(bookId)
+                        .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId))));
+    }
+
+    /**
+     * Folds a ledger into the snapshot. Compaction deletes every event it
+     * folded, so the events left beside a CHECKPOINT all came after it, even
+     * where their ids are lower, as for checkpoints written while Hibernate
+     * drew their ids from a pooled block. The checkpoint is therefore applied
+     * first, whatever its position.
+     */
+    static void fold(BookTransactionHistory snapshot, List<ReadingEvent> events) {
+        reset(snapshot);
+        events.stream()
+                .filter(event -> event.getType() == ReadingEventType.CHECKPOINT)
+                .reduce((first, second) -> second)
+                .ifPresent(checkpoint -> apply(snapshot, checkpoint));
+        events.stream()
+                .filter(event -> event.getType() != ReadingEventType.CHECKPOINT)
+                .forEach(event -> apply(snapshot, event));
+    }
+
+    /**
+     * A pair with no events is not borrowed and not read, matching the rows
+     * created for owned or imported books and the upserts' insert values.
+     */
+    private BookTransactionHistory initialSnapshot(User user, Book book) {
+        BookTransactionHistory snapshot = BookTransactionHistory.builder()
+                .user(user)
+                .book(book)
+                .build();
+        reset(snapshot);
+        return snapshot;
+    }
+
+    private static void reset(BookTransactionHistory snapshot) {
+        snapshot.setReturned(true);
+        snapshot.setReturnApproved(true);
+        snapshot.setRead(false);
+        snapshot.setReadCount(0);
+        snapshot.setProgress(0);
+    }
+
+    static void apply(BookTransactionHistory snapshot, ReadingEvent event) {
+        switch (event.getType()) {
+            case STARTED -> {
+                snapshot.setReturned(false);
+                snapshot.setReturnApproved(false);
+                snapshot.setProgress(0);
+            }
+            case PROGRESS -> snapshot.setProgress(event.getProgress());
+            case FINISHED -> {
+                snapshot.setRead(true);
+                snapshot.setReadCount(snapshot.getReadCount() != null ? snapshot.getReadCount() + 1 : 1);
+                snapshot.setProgress(100);
+            }
+            case UNFINISHED -> snapshot.setRead(false);
+            case RETURNED -> snapshot.setReturned(true);
+            case RETURN_APPROVED -> snapshot.setReturnApproved(true);
+            case CHECKPOINT -> {
+                snapshot.setProgress(event.getProgress());
+                snapshot.setReadCount(event.getReadCount());
+                snapshot.setRead(Boolean.TRUE.equals(event.getRead()));
+                snapshot.setReturned(Boolean.TRUE.equals(event.getReturned()));
+                snapshot.setReturnApproved(Boolean.TRUE.equals(event.getReturnApproved()));
+            }
+        }
+    }
+}
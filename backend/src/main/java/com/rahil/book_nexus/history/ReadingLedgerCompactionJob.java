@@ -0,0 +1,94 @@
+package com.rahil.book_nexus.history;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps reading ledgers short. Every interval it picks up to max-per-run
+ * (user, book) ledgers holding at least min-events events and compacts each
+ * into one CHECKPOINT event through ReadingLedger.compact. A ledger that fails
+ * is left as it is and picked up again on the next run.
+ */
+@Component
+@Slf4j
+public class ReadingLedgerCompactionJob {
+
+    private final ReadingLedger readingLedger;
+    private final ReadingEventRepository eventRepository;
+    private final boolean enabled;
+    private final Duration interval;
+    private final int minEvents;
+    private final int maxPerRun;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reading-ledger-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReadingLedgerCompactionJob(
+            ReadingLedger readingLedger,
+            ReadingEventRepository eventRepository,
+            @Value("${application.reading-ledger.compaction.enabled:true}") boolean enabled,
+            @Value("${application.reading-ledger.compaction.interval:1h}") Duration interval,
+            @Value("${application.reading-ledger.compaction.min-events:50}") int minEvents,
+            @Value("${application.reading-ledger.compaction.max-per-run:200}") int maxPerRun) {
+        this.readingLedger = readingLedger;
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.minEvents = Math.max(2, minEvents);
+        this.maxPerRun = Math.max(1, maxPerRun);
+    }
+
+    @PostConstruct
+    void schedule() {
+        if (!enabled) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runOnce();
+            } catch (Exception e) {
+                log.warn("Reading ledger compaction run failed: {}", e.getMessage());
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Compacts up to max-per-run long ledgers and returns the number of events
+     * removed.
+     */
+    public synchronized int runOnce() {
+        List<ReadingEventRepository.LedgerKey> ledgers =
+                eventRepository.findLedgersWithAtLeast(minEvents, Limit.of(maxPerRun));
+        int removed = 0;
+        for (ReadingEventRepository.LedgerKey ledger : ledgers) {
+            try {
+                removed += readingLedger.compact(ledger.getUserId(), ledger.getBookId());
+            } catch (Exception e) {
+                log.debug("Reading ledger for user {} book {} not compacted: {}",
+                        ledger.getUserId(), ledger.getBookId(), e.getMessage());
+            }
+        }
+        if (removed > 0) {
+            log.info("Reading ledger compaction: {} events removed from {} ledgers", removed, ledgers.size());
+        }
+        return removed;
+    }
+}
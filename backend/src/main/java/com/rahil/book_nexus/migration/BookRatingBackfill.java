@@ -0,0 +1,80 @@
+package com.rahil.book_nexus.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the persisted book rating aggregates from the feedback table for any
+ * book whose aggregate is out of sync (e.g. rows that predate the aggregate
+ * columns). Books without rated feedback are reset to zero, and all seven
+ * columns are compared, so histogram drift is repaired too. Star buckets use
+ * FLOOR(rating + 0.5) to match BookRating.starOf. PostgreSQL only, and off
+ * unless application.rating-backfill.enabled is set: it aggregates every
+ * feedback row, which is only worth doing once after the columns appear or
+ * feedback is restored outside the application.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.database", havingValue = "postgresql")
+@RequiredArgsConstructor
+@Slf4j
+public class BookRatingBackfill implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${application.rating-backfill.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        int updated = jdbcTemplate.update("""
+                UPDATE book b
+                SET rating_count = agg.cnt,
+                    rating_sum = agg.total,
+                    rating_one_star = agg.s1,
+                    rating_two_star = agg.s2,
+                    rating_three_star = agg.s3,
+                    rating_four_star = agg.s4,
+                    rating_five_star = agg.s5
+                FROM (
+                    SELECT book.id AS book_id,
+                           COALESCE(rated.cnt, 0) AS cnt,
+                           COALESCE(rated.total, 0) AS total,
+                           COALESCE(rated.s1, 0) AS s1,
+                           COALESCE(rated.s2, 0) AS s2,
+                           COALESCE(rated.s3, 0) AS s3,
+                           COALESCE(rated.s4, 0) AS s4,
+                           COALESCE(rated.s5, 0) AS s5
+                    FROM book
+                    LEFT JOIN (
+                        SELECT f.book_id,
+                               COUNT(*) AS cnt,
+                               SUM(f.rating) AS total,
+                               COUNT(*) FILTER (WHERE GREATEST(1, LEAST(5, FLOOR(f.rating + 0.5))) = 1) AS s1,
+                               COUNT(*) FILTER (WHERE GREATEST(1, LEAST(5, FLOOR(f.rating + 0.5))) = 2) AS s2,
+                               COUNT(*) FILTER (WHERE GREATEST(1, LEAST(5, FLOOR(f.rating + 0.5))) = 3) AS s3,
+                               COUNT(*) FILTER (WHERE GREATEST(1, LEAST(5, FLOOR(f.rating + 0.5))) = 4) AS s4,
+                               COUNT(*) FILTER (WHERE GREATEST(1, LEAST(5, FLOOR(f.rating + 0.5))) = 5) AS s5
+                        FROM feedback f
+                        WHERE f.book_id IS NOT NULL
+                        AND f.rating IS NOT NULL
+                        GROUP BY f.book_id
+                    ) rated ON rated.book_id = book.id
+                ) agg
+                WHERE b.id = agg.book_id
+                AND (b.rating_count, b.rating_sum, b.rating_one_star, b.rating_two_star,
+                     b.rating_three_star, b.rating_four_star, b.rating_five_star)
+                    IS DISTINCT FROM (agg.cnt, agg.total, agg.s1, agg.s2, agg.s3, agg.s4, agg.s5)
+                """);
+        if (updated > 0) {
+            log.info("Backfilled rating aggregates for {} books", updated);
+        }
+    }
+}
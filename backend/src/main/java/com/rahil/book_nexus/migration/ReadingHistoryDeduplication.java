@@ -0,0 +1,62 @@
+package com.rahil.book_nexus.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collapses duplicate book_transaction_history rows for the same (user, book)
+ * pair, left behind by concurrent read-then-insert requests, and then creates
+ * the unique key the reading-state upserts conflict on. ddl-auto cannot add
+ * that constraint while duplicates exist. The newest row survives and keeps
+ * the read flag and highest read count of the group. Does nothing once the key
+ * exists; a failure stops startup, since every reading-state upsert needs it.
+ * PostgreSQL only.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.database", havingValue = "postgresql")
+@RequiredArgsConstructor
+@Slf4j
+public class ReadingHistoryDeduplication implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        Boolean indexed = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('uk_history_user_book') IS NOT NULL", Boolean.class);
+        if (Boolean.TRUE.equals(indexed)) {
+            return;
+        }
+        jdbcTemplate.update("""
+                UPDATE book_transaction_history keep
+                SET read = agg.any_read,
+                    read_count = agg.max_read_count
+                FROM (
+                    SELECT MAX(id) AS keep_id,
+                           BOOL_OR(read) AS any_read,
+                           MAX(COALESCE(read_count, 0)) AS max_read_count
+                    FROM book_transaction_history
+                    GROUP BY user_id, book_id
+                    HAVING COUNT(*) > 1
+                ) agg
+                WHERE keep.id = agg.keep_id
+                """);
+        int removed = jdbcTemplate.update("""
+                DELETE FROM book_transaction_history history
+                WHERE EXISTS (
+                    SELECT 1 FROM book_transaction_history newer
+                    WHERE newer.user_id = history.user_id
+                    AND newer.book_id = history.book_id
+                    AND newer.id > history.id
+                )
+                """);
+        if (removed > 0) {
+            log.info("Removed {} duplicate reading history rows", removed);
+        }
+        jdbcTemplate.execute("CREATE UNIQUE INDEX uk_history_user_book ON book_transaction_history (user_id, book_id)");
+    }
+}
@@ -0,0 +1,37 @@
+package com.rahil.book_nexus.migration;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Steps the sequences that native upserts share with Hibernate by 1. The
+ * entities map them with allocationSize 1, but databases created while they
+ * were pooled still increment by 50. Instances still running the pooled
+ * mapping must be stopped before this runs. Sequences already stepping by 1
+ * are left alone. PostgreSQL only.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.database", havingValue = "postgresql")
+@RequiredArgsConstructor
+public class SharedSequenceMigration implements CommandLineRunner {
+
+    private static final List<String> SEQUENCES = List.of(
+            "book_transaction_history_seq", "reading_event_seq", "google_book_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        List<String> pooled = jdbcTemplate.queryForList("""
+                SELECT sequencename FROM pg_sequences
+                WHERE sequencename = ANY (?)
+                AND increment_by <> 1
+                """, String.class, (Object) SEQUENCES.toArray(String[]::new));
+        pooled.forEach(sequence -> jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY 1"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.rahil.book_nexus.search;
+
+/**
+ * Source of a search hit. The order value is part of the keyset ordering
+ * (rank DESC, order DESC, id DESC), so local books win rank ties.
+ */
+public enum CatalogHitKind {
+    BOOK(2),
+    GOOGLE_BOOK(1);
+
+    private final int order;
+
+    CatalogHitKind(int order) {
+        this.order = order;
+    }
+
+    public int order() {
+        return order;
+    }
+
+    public static CatalogHitKind ofOrder(int order) {
+        for (CatalogHitKind kind : values()) {
+            if (kind.order == order) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unknown hit kind " + order);
+    }
+}
@@ -0,0 +1,38 @@
+package com.rahil.book_nexus.search;
+
+import com.rahil.book_nexus.book.BookCoverService;
+import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.googlebooks.GoogleBookEntityRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Picks the catalog search engine from application.search.engine: "postgres"
+ * (default) or "memory" for H2-backed tests.
+ */
+@Configuration
+public class CatalogSearchConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "application.search.engine", havingValue = "postgres", matchIfMissing = true)
+    public CatalogSearchEngine postgresCatalogSearchEngine(NamedParameterJdbcTemplate jdbcTemplate,
+            BookCoverService bookCoverService) {
+        return new PostgresCatalogSearchEngine(jdbcTemplate, bookCoverService);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "application.search.engine", havingValue = "postgres", matchIfMissing = true)
+    public CatalogSearchSchema catalogSearchSchema(JdbcTemplate jdbcTemplate) {
+        return new CatalogSearchSchema(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "application.search.engine", havingValue = "memory")
+    public CatalogSearchEngine inMemoryCatalogSearchEngine(BookRepository bookRepository,
+            GoogleBookEntityRepository googleBookEntityRepository, BookCoverService bookCoverService) {
+        return new InMemoryCatalogSearchEngine(bookRepository, googleBookEntityRepository, bookCoverService);
+    }
+}
@@ -0,0 +1,28 @@
+package com.rahil.book_nexus.search;
+
+import com.rahil.book_nexus.common.CursorPageResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("search")
+@RequiredArgsConstructor
+@Tag(name = "Search")
+public class CatalogSearchController {
+
+    private final CatalogSearchService service;
+
+    @GetMapping
+    public ResponseEntity<CursorPageResponse<CatalogSearchHit>> search(
+            @RequestParam("q") String query,
+            @RequestParam(name = "scope", defaultValue = "ALL", required = false) SearchScope scope,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false) int size) {
+        return ResponseEntity.ok(service.search(query, scope, cursor, size));
+    }
+}
@@ -0,0 +1,13 @@
+package com.rahil.book_nexus.search;
+
+import java.util.List;
+
+/**
+ * Ranked full-text search over local books and cached Google books. Results
+ * are ordered by (rank DESC, kind DESC, id DESC) and start strictly after the
+ * given cursor.
+ */
+public interface CatalogSearchEngine {
+
+    List<CatalogSearchHit> search(String query, SearchScope scope, SearchCursor after, int limit);
+}
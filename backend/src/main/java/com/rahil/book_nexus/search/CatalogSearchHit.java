@@ -0,0 +1,23 @@
+package com.rahil.book_nexus.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogSearchHit {
+
+    private CatalogHitKind kind;
+    private Integer id;
+    private String googleBookId;
+    private String title;
+    private String authorName;
+    private String cover;
+    private float rank;
+}
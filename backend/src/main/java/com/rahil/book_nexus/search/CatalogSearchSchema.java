@@ -0,0 +1,42 @@
+package com.rahil.book_nexus.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Adds the generated tsvector columns and GIN indexes used by catalog search.
+ * Hibernate's ddl-auto cannot express generated columns, so they are created
+ * here idempotently. Weights: title A, author and categories B, body text C.
+ * A failure stops startup: the postgres engine cannot answer without them.
+ */
+@RequiredArgsConstructor
+public class CatalogSearchSchema implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        jdbcTemplate.execute("""
+                ALTER TABLE book ADD COLUMN IF NOT EXISTS search_vector tsvector
+                GENERATED ALWAYS AS (
+                    setweight(to_tsvector('english', coalesce(title, '')), 'A')
+                    || setweight(to_tsvector('english', coalesce(author_name, '')), 'B')
+                    || setweight(to_tsvector('english', coalesce(synopsis, '')), 'C')
+                ) STORED
+                """);
+        jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS idx_book_search_vector ON book USING GIN (search_vector)");
+        jdbcTemplate.execute("""
+                ALTER TABLE google_book ADD COLUMN IF NOT EXISTS search_vector tsvector
+                GENERATED ALWAYS AS (
+                    setweight(to_tsvector('english', coalesce(title, '')), 'A')
+                    || setweight(to_tsvector('english', coalesce(author_name, '')), 'B')
+                    || setweight(to_tsvector('english', coalesce(categories, '')), 'B')
+                    || setweight(to_tsvector('english', coalesce(description, '')), 'C')
+                ) STORED
+                """);
+        jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS idx_google_book_search_vector ON google_book USING GIN (search_vector)");
+    }
+}
@@ -0,0 +1,31 @@
+package com.rahil.book_nexus.search;
+
+import com.rahil.book_nexus.common.CursorPageResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CatalogSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final CatalogSearchEngine searchEngine;
+
+    public CursorPageResponse<CatalogSearchHit> search(String query, SearchScope scope, String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        if (query == null || query.isBlank()) {
+            return new CursorPageResponse<>(List.of(), pageSize, null, false);
+        }
+        List<CatalogSearchHit> hits = searchEngine.search(query.trim(), scope, SearchCursor.decode(cursor),
+                pageSize + 1);
+        boolean hasNext = hits.size() > pageSize;
+        List<CatalogSearchHit> content = hasNext ? hits.subList(0, pageSize) : hits;
+        String nextCursor = hasNext ? SearchCursor.after(content.get(content.size() - 1)).encode() : null;
+        return new CursorPageResponse<>(content, pageSize, nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,125 @@
+package com.rahil.book_nexus.search;
+
+import com.rahil.book_nexus.book.Book;
+import com.rahil.book_nexus.book.BookCoverService;
+import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.file.ImageDerivativeService;
+import com.rahil.book_nexus.googlebooks.GoogleBookEntity;
+import com.rahil.book_nexus.googlebooks.GoogleBookEntityRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Catalog search for databases without tsvector support (H2 in tests). Scans
+ * the catalog in memory, requires every query term to match a whole word and
+ * ranks with the same field weights as the PostgreSQL engine.
+ */
+@RequiredArgsConstructor
+public class InMemoryCatalogSearchEngine implements CatalogSearchEngine {
+
+    private static final float TITLE_WEIGHT = 1.0f;
+    private static final float AUTHOR_WEIGHT = 0.4f;
+    private static final float BODY_WEIGHT = 0.2f;
+
+    private final BookRepository bookRepository;
+    private final GoogleBookEntityRepository googleBookEntityRepository;
+    private final BookCoverService bookCoverService;
+
+    @Override
+    public List<CatalogSearchHit> search(String query, SearchScope scope, SearchCursor after, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        List<CatalogSearchHit> hits = new ArrayList<>();
+        if (scope.includesBooks()) {
+            for (Book book : bookRepository.findAll()) {
+                if (book.isArchived() || !book.isShareable()) {
+                    continue;
+                }
+                float rank = rank(terms, book.getTitle(), book.getAuthorName(), null, book.getSynopsis());
+                if (rank > 0) {
+                    hits.add(CatalogSearchHit.builder()
+                            .kind(CatalogHitKind.BOOK)
+                            .id(book.getId())
+                            .title(book.getTitle())
+                            .authorName(book.getAuthorName())
+                            .cover(bookCoverService.coverUrl(book.getId(), book.getBookCover(),
+                                    ImageDerivativeService.LIST_WIDTH))
+                            .rank(rank)
+                            .build());
+                }
+            }
+        }
+        if (scope.includesGoogleBooks()) {
+            for (GoogleBookEntity book : googleBookEntityRepository.findByIsActiveTrue()) {
+                float rank = rank(terms, book.getTitle(), book.getAuthorName(), book.getCategories(),
+                        book.getDescription());
+                if (rank > 0) {
+                    hits.add(CatalogSearchHit.builder()
+                            .kind(CatalogHitKind.GOOGLE_BOOK)
+                            .id(book.getId())
+                            .googleBookId(book.getGoogleBookId())
+                            .title(book.getTitle())
+                            .authorName(book.getAuthorName())
+                            .cover(book.getCoverUrl())
+                            .rank(rank)
+                            .build());
+                }
+            }
+        }
+        return hits.stream()
+                .filter(after::precedes)
+                .sorted(Comparator.comparing(CatalogSearchHit::getRank)
+                        .thenComparing(hit -> hit.getKind().order())
+                        .thenComparing(CatalogSearchHit::getId)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Weighted term frequency, or 0 when any query term is missing.
+     */
+    private float rank(List<String> terms, String title, String author, String categories, String body) {
+        List<String> titleWords = tokenize(title);
+        List<String> authorWords = tokenize(author);
+        List<String> categoryWords = tokenize(categories);
+        List<String> bodyWords = tokenize(body);
+        float rank = 0;
+        for (String term : terms) {
+            float termRank = TITLE_WEIGHT * count(titleWords, term)
+                    + AUTHOR_WEIGHT * (count(authorWords, term) + count(categoryWords, term))
+                    + BODY_WEIGHT * count(bodyWords, term);
+            if (termRank == 0) {
+                return 0;
+            }
+            rank += termRank;
+        }
+        return rank;
+    }
+
+    private int count(List<String> words, String term) {
+        int count = 0;
+        for (String word : words) {
+            if (word.equals(term)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+}
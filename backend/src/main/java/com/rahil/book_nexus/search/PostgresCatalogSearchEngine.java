@@ -0,0 +1,82 @@
+package com.rahil.book_nexus.search;
+
+import com.rahil.book_nexus.book.BookCoverService;
+import com.rahil.book_nexus.file.ImageDerivativeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Searches the generated search_vector columns (see CatalogSearchSchema) with
+ * websearch_to_tsquery, ranks with ts_rank and seeks past the cursor instead of
+ * using OFFSET.
+ */
+@RequiredArgsConstructor
+public class PostgresCatalogSearchEngine implements CatalogSearchEngine {
+
+    private static final String BOOK_HITS = """
+            SELECT 2 AS kind, b.id, NULL AS google_book_id, b.title, b.author_name, b.book_cover AS cover,
+                   ts_rank(b.search_vector, q.query) AS rank
+            FROM book b, q
+            WHERE b.search_vector @@ q.query
+            AND b.archived = false
+            AND b.shareable = true
+            """;
+
+    private static final String GOOGLE_BOOK_HITS = """
+            SELECT 1 AS kind, g.id, g.google_book_id, g.title, g.author_name, g.cover_url AS cover,
+                   ts_rank(g.search_vector, q.query) AS rank
+            FROM google_book g, q
+            WHERE g.search_vector @@ q.query
+            AND g.is_active = true
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final BookCoverService bookCoverService;
+
+    @Override
+    public List<CatalogSearchHit> search(String query, SearchScope scope, SearchCursor after, int limit) {
+        List<String> sources = new ArrayList<>();
+        if (scope.includesBooks()) {
+            sources.add(BOOK_HITS);
+        }
+        if (scope.includesGoogleBooks()) {
+            sources.add(GOOGLE_BOOK_HITS);
+        }
+        String sql = """
+                WITH q AS (SELECT websearch_to_tsquery('english', :query) AS query)
+                SELECT * FROM (
+                %s
+                ) hits
+                WHERE (rank, kind, id) < (CAST(:rank AS real), :kind, :id)
+                ORDER BY rank DESC, kind DESC, id DESC
+                LIMIT :limit
+                """.formatted(String.join("UNION ALL\n", sources));
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("rank", after.rank())
+                .addValue("kind", after.kind())
+                .addValue("id", after.id())
+                .addValue("limit", limit);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            CatalogHitKind kind = CatalogHitKind.ofOrder(rs.getInt("kind"));
+            int id = rs.getInt("id");
+            String cover = rs.getString("cover");
+            return CatalogSearchHit.builder()
+                    .kind(kind)
+                    .id(id)
+                    .googleBookId(rs.getString("google_book_id"))
+                    .title(rs.getString("title"))
+                    .authorName(rs.getString("author_name"))
+                    .cover(kind == CatalogHitKind.BOOK
+                            ? bookCoverService.coverUrl(id, cover, ImageDerivativeService.LIST_WIDTH)
+                            : cover)
+                    .rank(rs.getFloat("rank"))
+                    .build();
+        });
+    }
+}
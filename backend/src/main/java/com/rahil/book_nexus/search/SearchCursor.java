@@ -0,0 +1,56 @@
+package com.rahil.book_nexus.search;
+
+import com.rahil.book_nexus.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Seek position for ranked search results ordered by (rank DESC, kind DESC,
+ * id DESC). The rank is the exact float returned for the last hit, so the
+ * comparison on the next page is stable.
+ */
+public record SearchCursor(float rank, int kind, int id) {
+
+    public static final SearchCursor START = new SearchCursor(Float.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    public static SearchCursor after(CatalogSearchHit hit) {
+        return new SearchCursor(hit.getRank(), hit.getKind().order(), hit.getId());
+    }
+
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new InvalidCursorException("Invalid search cursor");
+            }
+            return new SearchCursor(Float.parseFloat(parts[0]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid search cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = rank + "|" + kind + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * True when the hit sorts strictly after this cursor.
+     */
+    boolean precedes(CatalogSearchHit hit) {
+        int byRank = Float.compare(hit.getRank(), rank);
+        if (byRank != 0) {
+            return byRank < 0;
+        }
+        if (hit.getKind().order() != kind) {
+            return hit.getKind().order() < kind;
+        }
+        return hit.getId() < id;
+    }
+}
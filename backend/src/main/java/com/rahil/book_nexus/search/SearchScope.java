@@ -0,0 +1,15 @@
+package com.rahil.book_nexus.search;
+
+public enum SearchScope {
+    ALL,
+    BOOKS,
+    GOOGLE_BOOKS;
+
+    boolean includesBooks() {
+        return this != GOOGLE_BOOKS;
+    }
+
+    boolean includesGoogleBooks() {
+        return this != BOOKS;
+    }
+}
@@ -51,6 +51,7 @@ public class SecurityConfig {
                                 "/profiles/**",
                                 "/google-books/**",
                                 "/google-books/search",
+                                "/search",
                                 "/google-books/trending", 
                                 "/google-books/popular",
                                 "/user-book-lists/test",
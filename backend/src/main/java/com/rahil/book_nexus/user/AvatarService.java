@@ -0,0 +1,51 @@
+package com.rahil.book_nexus.user;
+
+import com.rahil.book_nexus.file.ImageDerivativeService;
+import com.rahil.book_nexus.file.LocalImageServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Serves uploaded avatars the same way book covers are served: versioned URLs,
+ * strong ETags and fixed-width derivatives selected with ?size=.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AvatarService {
+
+    private final UserProfileRepository userProfileRepository;
+    private final LocalImageServer localImageServer;
+    private final ImageDerivativeService imageDerivativeService;
+
+    public String avatarUrl(Integer userId, String avatarPath) {
+        return localImageServer.publicUrl(
+                "/profiles/" + userId + "/avatar?v=" + LocalImageServer.version(avatarPath));
+    }
+
+    public void writeAvatar(Integer userId, Integer size, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String avatarPath = userProfileRepository.findAvatarPathByUserId(userId).orElse(null);
+        if (StringUtils.isBlank(avatarPath)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path original = Path.of(avatarPath);
+        Path variant = imageDerivativeService.resolveVariant(original, size);
+        boolean exact = size == null || !variant.equals(original);
+        String cacheControl = exact && LocalImageServer.version(avatarPath).equals(request.getParameter("v"))
+                ? LocalImageServer.IMMUTABLE_CACHE_CONTROL
+                : LocalImageServer.REVALIDATE_CACHE_CONTROL;
+        if (!localImageServer.write(variant, cacheControl, request, response)) {
+            log.warn("Avatar file missing for user {}: {}", userId, variant);
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+}
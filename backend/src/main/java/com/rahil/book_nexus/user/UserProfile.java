@@ -36,6 +36,13 @@ public class UserProfile extends BaseEntity {
     @Column(length = 200)
     private String avatarUrl;
 
+    // Stored upload behind avatarUrl when the avatar was uploaded here
+    @Column(length = 500)
+    private String avatarPath;
+
+    @Column(length = 4000)
+    private String avatarPlaceholder;
+
     @Column(length = 50)
     private String twitterHandle;
 
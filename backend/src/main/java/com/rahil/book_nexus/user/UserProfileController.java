@@ -1,12 +1,18 @@
 package com.rahil.book_nexus.user;
 
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,6 +22,7 @@ import java.util.List;
 public class UserProfileController {
 
     private final UserProfileService userProfileService;
+    private final AvatarService avatarService;
 
     @GetMapping("/{userId}")
     public ResponseEntity<UserProfileResponse> getUserProfile(
@@ -32,6 +39,23 @@ public class UserProfileController {
         return ResponseEntity.ok(userProfileService.updateUserProfile(userId, request, connectedUser));
     }
 
+    @PostMapping(value = "/{userId}/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UserProfileResponse> uploadAvatar(
+            @PathVariable Integer userId,
+            @Parameter() @RequestPart("file") MultipartFile file,
+            Authentication connectedUser) {
+        return ResponseEntity.ok(userProfileService.uploadAvatar(userId, file, connectedUser));
+    }
+
+    @GetMapping("/{userId}/avatar")
+    public void getAvatar(
+            @PathVariable Integer userId,
+            @RequestParam(name = "size", required = false) Integer size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        avatarService.writeAvatar(userId, size, request, response);
+    }
+
     @PostMapping("/{userId}/follow")
     public ResponseEntity<String> followUser(
             @PathVariable Integer userId,
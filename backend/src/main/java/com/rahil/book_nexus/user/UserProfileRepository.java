@@ -1,7 +1,11 @@
 package com.rahil.book_nexus.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -12,4 +16,21 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Intege
     
     Optional<UserProfile> findByDisplayNameIgnoreCase(String displayName);
     boolean existsByDisplayNameIgnoreCase(String displayName);
+
+    @Query("SELECT profile.avatarPath FROM UserProfile profile WHERE profile.user.id = :userId")
+    Optional<String> findAvatarPathByUserId(@Param("userId") Integer userId);
+
+    /**
+     * Stores a generated avatar placeholder unless the avatar changed meanwhile.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UserProfile profile
+            SET profile.avatarPlaceholder = :placeholder
+            WHERE profile.user.id = :userId
+            AND profile.avatarPath = :avatarPath
+            """)
+    int updateAvatarPlaceholder(@Param("userId") Integer userId, @Param("avatarPath") String avatarPath,
+            @Param("placeholder") String placeholder);
 }
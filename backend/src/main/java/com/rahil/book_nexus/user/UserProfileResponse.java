@@ -27,6 +27,7 @@ public class UserProfileResponse {
     private String location;
     private String website;
     private String avatarUrl;
+    private String avatarPlaceholder;
     private String twitterHandle;
     private String instagramHandle;
     private String goodreadsHandle;
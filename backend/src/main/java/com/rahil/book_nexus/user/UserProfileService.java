@@ -1,5 +1,7 @@
 package com.rahil.book_nexus.user;
 
+import com.rahil.book_nexus.file.FileStorageService;
+import com.rahil.book_nexus.file.ImageDerivativeService;
 import com.rahil.book_nexus.history.BookTransactionHistoryRepository;
 import com.rahil.book_nexus.feedback.FeedbackRepository;
 import com.rahil.book_nexus.googlebooks.GoogleBookIntegrationService;
@@ -10,6 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +31,9 @@ public class UserProfileService {
     private final GoogleBookFeedbackRepository googleBookFeedbackRepository;
     private final GoogleBookIntegrationService googleBookIntegrationService;
     private final com.rahil.book_nexus.websocket.NotificationService notificationService;
+    private final FileStorageService fileStorageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final AvatarService avatarService;
 
     public UserProfileResponse getUserProfile(Integer userId, Authentication connectedUser) {
         User user = userRepository.findById(userId)
@@ -75,6 +81,28 @@ public class UserProfileService {
         return buildProfileResponse(user, savedProfile, user, true);
     }
 
+    public UserProfileResponse uploadAvatar(Integer userId, MultipartFile file, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        if (!user.getId().equals(userId)) {
+            throw new IllegalArgumentException("You can only update your own avatar");
+        }
+
+        UserProfile profile = userProfileRepository.findByUserId(userId)
+                .orElseGet(() -> createDefaultProfile(user));
+        String avatarPath = fileStorageService.saveFile(file);
+        if (avatarPath == null) {
+            throw new IllegalStateException("Avatar could not be stored");
+        }
+        fileStorageService.releaseFile(profile.getAvatarPath());
+        profile.setAvatarPath(avatarPath);
+        profile.setAvatarPlaceholder(null);
+        profile.setAvatarUrl(avatarService.avatarUrl(userId, avatarPath));
+        UserProfile savedProfile = userProfileRepository.save(profile);
+        imageDerivativeService.generateAfterCommit(avatarPath,
+                placeholder -> userProfileRepository.updateAvatarPlaceholder(userId, avatarPath, placeholder));
+        return buildProfileResponse(user, savedProfile, user, true);
+    }
+
     public void followUser(Integer targetUserId, Authentication connectedUser) {
         User follower = (User) connectedUser.getPrincipal();
         User following = userRepository.findById(targetUserId)
@@ -292,6 +320,7 @@ public class UserProfileService {
                 .location(profile.getLocation())
                 .website(profile.getWebsite())
                 .avatarUrl(profile.getAvatarUrl())
+                .avatarPlaceholder(profile.getAvatarPlaceholder())
                 .twitterHandle(profile.getTwitterHandle())
                 .instagramHandle(profile.getInstagramHandle())
                 .goodreadsHandle(profile.getGoodreadsHandle())
@@ -0,0 +1,25 @@
+package com.rahil.book_nexus;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Points a test context at a throwaway PostgreSQL container, for tests of
+ * native statements the H2 test database cannot run. Pair with
+ * {@code @Testcontainers(disabledWithoutDocker = true)} so the tests are
+ * skipped where Docker is not available.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresContainerConfig {
+
+    public static final DockerImageName IMAGE = DockerImageName.parse("postgres:16-alpine");
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>(IMAGE);
+    }
+}
@@ -0,0 +1,30 @@
+package com.rahil.book_nexus;
+
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+
+/**
+ * Enabled test users with password "secret", named after the local part of
+ * their email.
+ */
+public final class TestUsers {
+
+    private TestUsers() {
+    }
+
+    /**
+     * Unsaved user, for tests that add roles or save it themselves
+     */
+    public static User.UserBuilder builder(String email) {
+        return User.builder()
+                .firstName(email.substring(0, email.indexOf('@')))
+                .lastName("Tester")
+                .email(email)
+                .password("secret")
+                .enabled(true);
+    }
+
+    public static User save(UserRepository userRepository, String email) {
+        return userRepository.save(builder(email).build());
+    }
+}
@@ -0,0 +1,125 @@
+package com.rahil.book_nexus.admin;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.book.Book;
+import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.feedback.Feedback;
+import com.rahil.book_nexus.feedback.FeedbackRepository;
+import com.rahil.book_nexus.history.BookTransactionHistory;
+import com.rahil.book_nexus.history.BookTransactionHistoryRepository;
+import com.rahil.book_nexus.role.Role;
+import com.rahil.book_nexus.role.RoleRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "application.admin.purge.chunk-size=3")
+@ActiveProfiles("test")
+class BulkPurgeServiceTest {
+
+    @Autowired
+    private BulkPurgeService bulkPurgeService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        Role role = roleRepository.findByName(Role.USER)
+                .orElseGet(() -> roleRepository.save(Role.builder().name(Role.USER).build()));
+        owner = userRepository.save(TestUsers.builder("purge@example.com").roles(List.of(role)).build());
+        // Seven books spread over three chunks
+        for (int i = 0; i < 7; i++) {
+            Book book = Book.builder()
+                    .title("Purge " + i)
+                    .authorName("Author")
+                    .isbn("purge-" + i)
+                    .shareable(true)
+                    .owner(owner)
+                    .build();
+            book.setCreatedBy(owner.getId());
+            book = bookRepository.save(book);
+
+            BookTransactionHistory history = BookTransactionHistory.builder().user(owner).book(book).build();
+            history.setCreatedBy(owner.getId());
+            historyRepository.save(history);
+
+            Feedback feedback = Feedback.builder()
+                    .rating(4.0)
+                    .review("Fine")
+                    .googleBookId("local-" + i)
+                    .source(Feedback.ReviewSource.LOCAL)
+                    .user(owner)
+                    .book(book)
+                    .build();
+            feedback.setCreatedBy(owner.getId());
+            feedbackRepository.save(feedback);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        feedbackRepository.deleteAll();
+        historyRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void purgesBooksAndReferencingRowsInChunks() throws Exception {
+        PurgeJobStatus status = await(bulkPurgeService.start(PurgeScope.BOOKS));
+
+        assertThat(status.state()).isEqualTo(PurgeJobStatus.State.COMPLETED);
+        assertThat(status.deleted()).containsEntry("book", 7L)
+                .containsEntry("feedback", 7L)
+                .containsEntry("book_transaction_history", 7L);
+        assertThat(bookRepository.count()).isZero();
+        assertThat(historyRepository.count()).isZero();
+        assertThat(userRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void purgesAllUserData() throws Exception {
+        PurgeJobStatus status = await(bulkPurgeService.start(PurgeScope.ALL));
+
+        assertThat(status.state()).isEqualTo(PurgeJobStatus.State.COMPLETED);
+        assertThat(status.deleted()).containsEntry("_user", 1L);
+        assertThat(status.totalDeleted()).isEqualTo(22);
+        assertThat(userRepository.count()).isZero();
+        assertThat(roleRepository.findByName(Role.USER)).isPresent();
+    }
+
+    private PurgeJobStatus await(PurgeJobStatus started) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            PurgeJobStatus status = bulkPurgeService.status(started.id()).orElseThrow();
+            if (status.state() == PurgeJobStatus.State.COMPLETED || status.state() == PurgeJobStatus.State.FAILED) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Purge did not finish");
+    }
+}
@@ -0,0 +1,37 @@
+package com.rahil.book_nexus.book;
+
+import com.rahil.book_nexus.file.LocalImageServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookCoverServiceTest {
+
+    private static final String STORED_COVER = "/uploads/covers/"
+            + "0f1e2d3c4b5a69788796a5b4c3d2e1f00f1e2d3c4b5a69788796a5b4c3d2e1f0.jpg";
+
+    @Autowired
+    private BookCoverService bookCoverService;
+
+    @Test
+    void uploadedCoverUrlIsAbsoluteWithoutRequest() {
+        assertThat(RequestContextHolder.getRequestAttributes()).isNull();
+
+        assertThat(bookCoverService.coverUrl(7, STORED_COVER, 320)).isEqualTo(
+                "http://localhost:8080/api/v1/books/cover/7?v=" + LocalImageServer.version(STORED_COVER)
+                        + "&size=320");
+    }
+
+    @Test
+    void remoteCoverUrlIsReturnedAsIs() {
+        assertThat(bookCoverService.coverUrl(7, "https://books.google.com/cover.jpg"))
+                .isEqualTo("https://books.google.com/cover.jpg");
+        assertThat(bookCoverService.coverUrl(7, null)).isNull();
+    }
+}
@@ -0,0 +1,141 @@
+package com.rahil.book_nexus.book;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.history.BookTransactionHistory;
+import com.rahil.book_nexus.history.BookTransactionHistoryRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the listing endpoints against N+1 regressions: a full page must cost
+ * one statement (cursor) or one statement plus the count query (offset),
+ * however many distinct owners and books are on it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookListQueryCountTest {
+
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Authentication reader;
+
+    @BeforeEach
+    void setUp() {
+        User readerUser = saveUser("reader");
+        reader = new UsernamePasswordAuthenticationToken(readerUser, null, List.of());
+        // Six distinct owners, so any per-row owner or book fetch shows up in the count
+        for (int i = 0; i < 6; i++) {
+            User owner = saveUser("owner" + i);
+            Book book = saveBook(owner, "Book " + i);
+            saveHistory(readerUser, book, false, true);
+            Book ownBook = saveBook(readerUser, "Own book " + i);
+            saveHistory(owner, ownBook, false, false);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        historyRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void allBooksPage() {
+        assertStatements(2, () -> bookService.findAllBooks(0, PAGE_SIZE, reader).getContent());
+        assertStatements(1, () -> bookService.findAllBooks(null, PAGE_SIZE, reader).getContent());
+    }
+
+    @Test
+    void ownerBooksPage() {
+        assertStatements(2, () -> bookService.findAllBooksByOwner(0, PAGE_SIZE, reader).getContent());
+        assertStatements(1, () -> bookService.findAllBooksByOwner(null, PAGE_SIZE, reader).getContent());
+    }
+
+    @Test
+    void borrowedBooksPage() {
+        assertStatements(2, () -> bookService.findAllBorrowedBooks(0, PAGE_SIZE, reader).getContent());
+        assertStatements(1, () -> bookService.findAllBorrowedBooks(null, PAGE_SIZE, reader).getContent());
+    }
+
+    @Test
+    void returnedBooksPage() {
+        assertStatements(2, () -> bookService.findAllReturnedBooks(0, PAGE_SIZE, reader).getContent());
+        assertStatements(1, () -> bookService.findAllReturnedBooks(null, PAGE_SIZE, reader).getContent());
+    }
+
+    @Test
+    void readBooksPage() {
+        assertStatements(2, () -> bookService.findAllReadBooks(0, PAGE_SIZE, reader).getContent());
+        assertStatements(1, () -> bookService.findAllReadBooks(null, PAGE_SIZE, reader).getContent());
+    }
+
+    private void assertStatements(long expected, Supplier<List<?>> page) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<?> content = page.get();
+        assertThat(content).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+
+    private User saveUser(String name) {
+        return TestUsers.save(userRepository, name + "@example.com");
+    }
+
+    private Book saveBook(User owner, String title) {
+        Book book = Book.builder()
+                .title(title)
+                .authorName("Author")
+                .isbn("isbn-" + title.hashCode())
+                .synopsis("Synopsis")
+                .shareable(true)
+                .owner(owner)
+                .build();
+        book.setCreatedBy(owner.getId());
+        return bookRepository.save(book);
+    }
+
+    private void saveHistory(User user, Book book, boolean returned, boolean read) {
+        BookTransactionHistory history = BookTransactionHistory.builder()
+                .user(user)
+                .book(book)
+                .returned(returned)
+                .returnApproved(returned)
+                .read(read)
+                .readCount(read ? 1 : 0)
+                .build();
+        history.setCreatedBy(user.getId());
+        historyRepository.save(history);
+    }
+}
@@ -0,0 +1,181 @@
+package com.rahil.book_nexus.book;
+
+import com.rahil.book_nexus.PostgresContainerConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offset vs keyset latency for page 1000 of the book listing, e.g.
+ *
+ * mvn test -Dtest=BookPaginationBenchmark -Dbenchmark.pagination=true -Dbenchmark.rows=3000000
+ *
+ * Starts a throwaway PostgreSQL container (the image PostgresContainerConfig
+ * uses), so Docker must be available; pass -Dbenchmark.jdbc.url (with
+ * benchmark.jdbc.user and benchmark.jdbc.password) to use an existing server
+ * instead. Data is seeded into a bench_book table shaped like book, with the
+ * same (created_date, id) index the keyset queries rely on. Runs in-process
+ * (no fork) for the same reason as GoogleVolumeParserBenchmark.
+ */
+@EnabledIfSystemProperty(named = "benchmark.pagination", matches = "true")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(0)
+public class BookPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int PAGE_NUMBER = 1000;
+
+    private static final String OFFSET_QUERY = """
+            SELECT id, created_date, title FROM bench_book
+            WHERE archived = false AND shareable = true
+            ORDER BY created_date DESC
+            LIMIT ? OFFSET ?
+            """;
+    private static final String COUNT_QUERY = """
+            SELECT COUNT(*) FROM bench_book WHERE archived = false AND shareable = true
+            """;
+    private static final String KEYSET_QUERY = """
+            SELECT id, created_date, title FROM bench_book
+            WHERE archived = false AND shareable = true
+            AND (created_date, id) < (?, ?)
+            ORDER BY created_date DESC, id DESC
+            LIMIT ?
+            """;
+
+    private PostgreSQLContainer<?> container;
+    private Connection connection;
+    private PreparedStatement offsetPage;
+    private PreparedStatement count;
+    private PreparedStatement keysetPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc.url");
+        if (url != null) {
+            connection = DriverManager.getConnection(url,
+                    System.getProperty("benchmark.jdbc.user", "postgres"),
+                    System.getProperty("benchmark.jdbc.password", "postgres"));
+        } else {
+            container = new PostgreSQLContainer<>(PostgresContainerConfig.IMAGE);
+            container.start();
+            connection = DriverManager.getConnection(container.getJdbcUrl(), container.getUsername(),
+                    container.getPassword());
+        }
+        seed(Integer.getInteger("benchmark.rows", 3_000_000));
+
+        // Cursor for the last row of page 999, as a client walking pages would hold it
+        Date cursorDate;
+        int cursorId;
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT created_date, id FROM bench_book
+                WHERE archived = false AND shareable = true
+                ORDER BY created_date DESC, id DESC
+                LIMIT 1 OFFSET ?
+                """)) {
+            statement.setInt(1, (PAGE_NUMBER - 1) * PAGE_SIZE - 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                cursorDate = resultSet.getDate(1);
+                cursorId = resultSet.getInt(2);
+            }
+        }
+
+        offsetPage = connection.prepareStatement(OFFSET_QUERY);
+        offsetPage.setInt(1, PAGE_SIZE);
+        offsetPage.setInt(2, (PAGE_NUMBER - 1) * PAGE_SIZE);
+        count = connection.prepareStatement(COUNT_QUERY);
+        keysetPage = connection.prepareStatement(KEYSET_QUERY);
+        keysetPage.setDate(1, cursorDate);
+        keysetPage.setInt(2, cursorId);
+        keysetPage.setInt(3, PAGE_SIZE + 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    /**
+     * Page 1000 the way the offset listing serves it: the page plus its count
+     */
+    @Benchmark
+    public void offsetPlusCount(Blackhole blackhole) throws SQLException {
+        drain(offsetPage.executeQuery(), blackhole);
+        drain(count.executeQuery(), blackhole);
+    }
+
+    @Benchmark
+    public void keyset(Blackhole blackhole) throws SQLException {
+        drain(keysetPage.executeQuery(), blackhole);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BookPaginationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    private void seed(int rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_book");
+            statement.execute("""
+                    CREATE TABLE bench_book (
+                        id integer PRIMARY KEY,
+                        created_date date NOT NULL,
+                        archived boolean NOT NULL,
+                        shareable boolean NOT NULL,
+                        title varchar(1000)
+                    )
+                    """);
+            statement.execute("""
+                    INSERT INTO bench_book (id, created_date, archived, shareable, title)
+                    SELECT g, DATE '2020-01-01' + (g / 1000), g % 50 = 0, g % 7 <> 0, 'Book ' || g
+                    FROM generate_series(1, %d) g
+                    """.formatted(rows));
+            statement.execute("CREATE INDEX bench_book_created_date_id ON bench_book (created_date, id)");
+            statement.execute("ANALYZE bench_book");
+        }
+    }
+
+    private static void drain(ResultSet resultSet, Blackhole blackhole) throws SQLException {
+        try (resultSet) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getObject(1));
+            }
+        }
+    }
+}
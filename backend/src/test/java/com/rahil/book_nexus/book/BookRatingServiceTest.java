@@ -0,0 +1,107 @@
+package com.rahil.book_nexus.book;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookRatingServiceTest {
+
+    @Autowired
+    private BookRatingService bookRatingService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        User owner = TestUsers.save(userRepository, "rating-owner@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, List.of()));
+        book = bookRepository.save(Book.builder()
+                .title("Rated Book")
+                .authorName("Author")
+                .isbn("rating-1")
+                .shareable(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createEditAndDeleteKeepAggregateInStep() {
+        bookRatingService.ratingAdded(book.getId(), 4.0);
+        bookRatingService.ratingAdded(book.getId(), 2.4);
+        assertRating(2, 6.4, 0, 1, 0, 1, 0);
+
+        bookRatingService.ratingChanged(book.getId(), 2.4, 4.6);
+        assertRating(2, 8.6, 0, 0, 0, 1, 1);
+
+        bookRatingService.ratingRemoved(book.getId(), 4.0);
+        assertRating(1, 4.6, 0, 0, 0, 0, 1);
+
+        bookRatingService.ratingRemoved(book.getId(), 4.6);
+        assertRating(0, 0.0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void editToOrFromNoRatingAddsOrRemoves() {
+        bookRatingService.ratingChanged(book.getId(), null, 3.0);
+        assertRating(1, 3.0, 0, 0, 1, 0, 0);
+
+        bookRatingService.ratingChanged(book.getId(), 3.0, 3.0);
+        assertRating(1, 3.0, 0, 0, 1, 0, 0);
+
+        bookRatingService.ratingChanged(book.getId(), 3.0, null);
+        assertRating(0, 0.0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void distributionReportsAverageAndStarsFromFiveDown() {
+        bookRatingService.ratingAdded(book.getId(), 5.0);
+        bookRatingService.ratingAdded(book.getId(), 1.0);
+        bookRatingService.ratingAdded(book.getId(), 4.5);
+
+        BookRatingResponse response = bookRatingService.getRatingDistribution(book.getId());
+
+        assertThat(response.getCount()).isEqualTo(3);
+        assertThat(response.getAverage()).isEqualTo(3.5);
+        assertThat(response.getDistribution()).containsExactly(
+                Map.entry(5, 2), Map.entry(4, 0), Map.entry(3, 0),
+                Map.entry(2, 0), Map.entry(1, 1));
+    }
+
+    private void assertRating(int count, double sum, int one, int two, int three, int four, int five) {
+        BookRating rating = bookRepository.findRatingByBookId(book.getId()).orElseThrow();
+        assertThat(rating.getCount()).isEqualTo(count);
+        assertThat(rating.getSum()).isCloseTo(sum, within(1e-9));
+        assertThat(List.of(rating.getOneStar(), rating.getTwoStar(), rating.getThreeStar(),
+                rating.getFourStar(), rating.getFiveStar())).containsExactly(one, two, three, four, five);
+    }
+}
@@ -0,0 +1,112 @@
+package com.rahil.book_nexus.book;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.exception.OperationNotPermittedException;
+import com.rahil.book_nexus.history.BookTransactionHistoryRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookServiceSaveTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookRatingService bookRatingService;
+
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Authentication owner;
+
+    private Authentication stranger;
+
+    @BeforeEach
+    void setUp() {
+        owner = authentication(saveUser("owner"));
+        stranger = authentication(saveUser("stranger"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        historyRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void requestWithIdEditsBookAndKeepsRatingAndHistory() {
+        Integer bookId = bookService.save(request(null, "Draft Title"), owner);
+        bookRatingService.ratingAdded(bookId, 4.0);
+        bookRatingService.ratingAdded(bookId, 5.0);
+        // Populate the detail cache so a missed eviction would show the old title
+        assertThat(bookService.findById(bookId).getTitle()).isEqualTo("Draft Title");
+
+        assertThat(bookService.save(request(bookId, "Final Title"), owner)).isEqualTo(bookId);
+
+        Book updated = bookRepository.findById(bookId).orElseThrow();
+        assertThat(updated.getTitle()).isEqualTo("Final Title");
+        assertThat(updated.getRating().getCount()).isEqualTo(2);
+        assertThat(updated.getRate()).isEqualTo(4.5);
+        assertThat(historyRepository.count()).isEqualTo(1);
+        assertThat(bookService.findById(bookId).getTitle()).isEqualTo("Final Title");
+    }
+
+    @Test
+    void ratingDeltaBetweenLoadAndSaveSurvivesTheEdit() {
+        Integer bookId = bookService.save(request(null, "Loaded"), owner);
+        Book loaded = bookRepository.findById(bookId).orElseThrow();
+
+        // A review lands after the edit read the book but before it is flushed
+        bookRatingService.ratingAdded(bookId, 3.0);
+        loaded.setTitle("Edited");
+        bookRepository.save(loaded);
+
+        Book stored = bookRepository.findById(bookId).orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo("Edited");
+        assertThat(stored.getRating().getCount()).isEqualTo(1);
+        assertThat(stored.getRating().getThreeStar()).isEqualTo(1);
+    }
+
+    @Test
+    void requestWithIdOfAnotherOwnersBookIsRejected() {
+        Integer bookId = bookService.save(request(null, "Mine"), owner);
+
+        assertThatThrownBy(() -> bookService.save(request(bookId, "Hijacked"), stranger))
+                .isInstanceOf(OperationNotPermittedException.class);
+        assertThat(bookRepository.findById(bookId).orElseThrow().getTitle()).isEqualTo("Mine");
+    }
+
+    private static BookRequest request(Integer id, String title) {
+        return new BookRequest(id, title, "Author", "isbn-1", "Synopsis", true, null);
+    }
+
+    private static Authentication authentication(User user) {
+        return new UsernamePasswordAuthenticationToken(user, null, List.of());
+    }
+
+    private User saveUser(String name) {
+        return TestUsers.save(userRepository, name + "@example.com");
+    }
+}
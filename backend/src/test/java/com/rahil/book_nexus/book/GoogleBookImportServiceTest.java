@@ -0,0 +1,73 @@
+package com.rahil.book_nexus.book;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.googlebooks.GoogleBookDto;
+import com.rahil.book_nexus.history.BookTransactionHistoryRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GoogleBookImportServiceTest {
+
+    @Autowired
+    private GoogleBookImportService importService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        historyRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void nullAuthorsDoNotAbortTheBatch() {
+        User owner = TestUsers.save(userRepository, "import@example.com");
+        Map<String, List<GoogleBookDto>> items = new LinkedHashMap<>();
+        items.put("nulls", List.of(
+                volume("Second Author Wins", "9780000000001", Arrays.asList(null, "Second Author")),
+                volume("Only Null", "9780000000002", Arrays.asList((String) null))));
+        items.put("after", List.of(volume("Plain", "9780000000003", List.of("Author"))));
+        List<GoogleImportStats> done = new ArrayList<>();
+
+        List<GoogleImportStats> stats = importService.importItems(items, owner, done::add);
+
+        assertThat(stats).extracting(GoogleImportStats::query).containsExactly("nulls", "after");
+        assertThat(stats).extracting(GoogleImportStats::error).containsOnlyNulls();
+        assertThat(stats).extracting(GoogleImportStats::imported).containsExactly(2, 1);
+        assertThat(done).isEqualTo(stats);
+        assertThat(bookRepository.findAll()).extracting(Book::getAuthorName)
+                .containsExactlyInAnyOrder("Second Author", "", "Author");
+    }
+
+    private static GoogleBookDto volume(String title, String isbn, List<String> authors) {
+        return GoogleBookDto.builder()
+                .id(isbn)
+                .title(title)
+                .isbn13(isbn)
+                .authors(authors)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.rahil.book_nexus.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void queuedCallersAreServedByPriority() throws Exception {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter("test", 10, 1, 1, 0, meterRegistry);
+        limiter.acquire(AdaptiveRateLimiter.Priority.BACKGROUND, Duration.ZERO);
+        List<AdaptiveRateLimiter.Priority> served = new CopyOnWriteArrayList<>();
+
+        // Queue lowest priority first; the next tokens must still go to the highest
+        Thread background = start(limiter, AdaptiveRateLimiter.Priority.BACKGROUND, served);
+        Thread lookup = start(limiter, AdaptiveRateLimiter.Priority.LOOKUP, served);
+        Thread interactive = start(limiter, AdaptiveRateLimiter.Priority.INTERACTIVE, served);
+        background.join();
+        lookup.join();
+        interactive.join();
+
+        assertThat(served).containsExactly(AdaptiveRateLimiter.Priority.INTERACTIVE,
+                AdaptiveRateLimiter.Priority.LOOKUP, AdaptiveRateLimiter.Priority.BACKGROUND);
+    }
+
+    @Test
+    void waitBeyondDeadlineIsRejected() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter("test", 1, 1, 1, 0, meterRegistry);
+        limiter.acquire(AdaptiveRateLimiter.Priority.INTERACTIVE, Duration.ZERO);
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> limiter.acquire(AdaptiveRateLimiter.Priority.BACKGROUND, Duration.ofMillis(50)))
+                .isInstanceOf(CallRejectedException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(500));
+        assertThat(meterRegistry.get("ratelimiter.rejected").tag("priority", "background").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void throttlingHalvesRateAndSuccessesRestoreIt() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter("test", 8, 1, 10, 0.5, meterRegistry);
+
+        limiter.onThrottled();
+        assertThat(limiter.rate()).isEqualTo(4);
+        // Concurrent 429s from the same burst back off only once
+        limiter.onThrottled();
+        assertThat(limiter.rate()).isEqualTo(4);
+        assertThat(meterRegistry.get("ratelimiter.throttled").counter().count()).isEqualTo(2);
+        // The bucket was emptied
+        assertThatThrownBy(() -> limiter.acquire(AdaptiveRateLimiter.Priority.INTERACTIVE, Duration.ZERO))
+                .isInstanceOf(CallRejectedException.class);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.onSuccess();
+        }
+        assertThat(limiter.rate()).isEqualTo(8);
+    }
+
+    private static Thread start(AdaptiveRateLimiter limiter, AdaptiveRateLimiter.Priority priority,
+            List<AdaptiveRateLimiter.Priority> served) throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            limiter.acquire(priority, Duration.ofSeconds(5));
+            served.add(priority);
+        });
+        thread.start();
+        // Let it queue before the next caller arrives
+        Thread.sleep(20);
+        return thread;
+    }
+}
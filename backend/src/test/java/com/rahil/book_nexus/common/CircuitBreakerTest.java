@@ -0,0 +1,126 @@
+package com.rahil.book_nexus.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void opensAtFailureRateAndRejectsWithoutCalling() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 0.5, Duration.ofMinutes(1), 1, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        succeed(breaker, calls);
+        fail(breaker, calls);
+        succeed(breaker, calls);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker, calls);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> succeed(breaker, calls)).isInstanceOf(CallRejectedException.class);
+        assertThat(calls).hasValue(4);
+        assertThat(meterRegistry.get("circuit.breaker.calls").tag("outcome", "rejected").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("circuit.breaker.state").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoredExceptionsCountAsSuccess() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 4, 4, 0.5, Duration.ofMinutes(1), 1, meterRegistry);
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> breaker.execute(() -> {
+                throw new IllegalArgumentException("not found");
+            }, e -> !(e instanceof IllegalArgumentException))).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenProbesCloseOrReopen() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 2, 2, 0.5, Duration.ofMillis(50), 2, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        fail(breaker, calls);
+        fail(breaker, calls);
+        Thread.sleep(80);
+
+        // A failed probe reopens immediately
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        fail(breaker, calls);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        Thread.sleep(80);
+
+        // Only halfOpenProbes calls are let through at once
+        CountDownLatch probing = new CountDownLatch(2);
+        CountDownLatch finish = new CountDownLatch(1);
+        Thread[] probes = new Thread[2];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = new Thread(() -> breaker.execute(() -> {
+                probing.countDown();
+                await(finish);
+                return null;
+            }, e -> true));
+            probes[i].start();
+        }
+        assertThat(probing.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> succeed(breaker, calls)).isInstanceOf(CallRejectedException.class);
+        finish.countDown();
+        for (Thread probe : probes) {
+            probe.join();
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        succeed(breaker, calls);
+    }
+
+    @Test
+    void bulkheadRejectsBeyondCapacity() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("test", 1, Duration.ofMillis(20), meterRegistry);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Thread holder = new Thread(() -> bulkhead.execute(() -> {
+            inside.countDown();
+            await(finish);
+            return null;
+        }));
+        holder.start();
+        assertThat(inside.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> bulkhead.execute(() -> "second")).isInstanceOf(CallRejectedException.class);
+        assertThat(meterRegistry.get("bulkhead.rejected").counter().count()).isEqualTo(1);
+
+        finish.countDown();
+        holder.join();
+        assertThat(bulkhead.execute(() -> "third")).isEqualTo("third");
+    }
+
+    private static void succeed(CircuitBreaker breaker, AtomicInteger calls) {
+        breaker.execute(calls::incrementAndGet, e -> true);
+    }
+
+    private static void fail(CircuitBreaker breaker, AtomicInteger calls) {
+        assertThatThrownBy(() -> breaker.execute(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("upstream down");
+        }, e -> true)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
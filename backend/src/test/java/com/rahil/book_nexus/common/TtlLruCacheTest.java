@@ -0,0 +1,146 @@
+package com.rahil.book_nexus.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TtlLruCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void servesHitsAndCountsMisses() {
+        TtlLruCache<Integer, String> cache = new TtlLruCache<>("test", 10, Duration.ofMinutes(1), registry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, () -> "one-" + loads.incrementAndGet());
+        String second = cache.get(1, () -> "one-" + loads.incrementAndGet());
+
+        assertThat(second).isEqualTo("one-1");
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondCap() {
+        TtlLruCache<Integer, String> cache = new TtlLruCache<>("test", 2, Duration.ofMinutes(1), registry);
+        cache.get(1, () -> "a");
+        cache.get(2, () -> "b");
+        cache.get(1, () -> "unused");
+        cache.get(3, () -> "c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1, () -> "reloaded")).isEqualTo("a");
+        assertThat(cache.get(2, () -> "reloaded")).isEqualTo("reloaded");
+        assertThat(registry.get("cache.evictions").tag("cause", "size").counter().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        TtlLruCache<Integer, String> cache = new TtlLruCache<>("test", 10, Duration.ZERO, registry);
+        cache.get(1, () -> "stale");
+
+        assertThat(cache.get(1, () -> "fresh")).isEqualTo("fresh");
+        assertThat(registry.get("cache.evictions").tag("cause", "expired").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotStoreALoadThatOverlappedAnInvalidation() {
+        TtlLruCache<Integer, String> cache = new TtlLruCache<>("test", 10, Duration.ofMinutes(1), registry);
+
+        String loaded = cache.get(1, () -> {
+            cache.invalidate(1);
+            return "old";
+        });
+
+        assertThat(loaded).isEqualTo("old");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void doesNotCacheNulls() {
+        TtlLruCache<Integer, String> cache = new TtlLruCache<>("test", 10, Duration.ofMinutes(1), registry);
+
+        assertThat(cache.get(1, () -> null)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        TtlLruCache<Integer, String> cache = new TtlLruCache<>("test", 10, Duration.ofMinutes(1), registry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> cache.get(1, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "shared";
+            }));
+            loading.await();
+            List<Future<String>> joiners = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                joiners.add(executor.submit(() -> cache.get(1, () -> "own-" + loads.incrementAndGet())));
+            }
+            while (registry.get("cache.gets").tag("result", "coalesced").counter().count() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("shared");
+            for (Future<String> joiner : joiners) {
+                assertThat(joiner.get(5, TimeUnit.SECONDS)).isEqualTo("shared");
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedLoadPropagatesAndIsRetried() {
+        TtlLruCache<Integer, String> cache = new TtlLruCache<>("test", 10, Duration.ofMinutes(1), registry);
+
+        assertThatThrownBy(() -> cache.get(1, () -> {
+            throw new IllegalStateException("upstream down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.get(1, () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void evictsByWeight() {
+        TtlLruCache<Integer, String> cache = new TtlLruCache<>("test", 10, 10, String::length,
+                Duration.ofMinutes(1), registry);
+        cache.get(1, () -> "aaaa");
+        cache.get(2, () -> "bbbb");
+        cache.get(3, () -> "cccc");
+        cache.get(4, () -> "way too heavy");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.weight()).isEqualTo(8);
+        assertThat(cache.get(1, () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
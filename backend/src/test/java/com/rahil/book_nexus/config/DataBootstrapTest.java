@@ -0,0 +1,68 @@
+package com.rahil.book_nexus.config;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.history.BookTransactionHistoryRepository;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "application.bootstrap.source=snapshot")
+@ActiveProfiles("test")
+class DataBootstrapTest {
+
+    @Autowired
+    private DataBootstrap dataBootstrap;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        historyRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void seedsFromBundledSnapshotInBackground() throws Exception {
+        // The startup run finds no users and skips
+        assertThat(await().state()).isEqualTo(BootstrapStatus.State.SKIPPED);
+
+        TestUsers.save(userRepository, "seed@example.com");
+        dataBootstrap.start();
+        BootstrapStatus status = await();
+
+        assertThat(status.state()).isEqualTo(BootstrapStatus.State.COMPLETED);
+        assertThat(status.queriesDone()).isEqualTo(status.queriesTotal()).isEqualTo(5);
+        assertThat(status.booksImported()).isEqualTo(20);
+        assertThat(bookRepository.count()).isEqualTo(20);
+        assertThat(historyRepository.count()).isEqualTo(20);
+
+        dataBootstrap.start();
+        assertThat(await().message()).isEqualTo("Books already present");
+        assertThat(bookRepository.count()).isEqualTo(20);
+    }
+
+    private BootstrapStatus await() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            BootstrapStatus status = dataBootstrap.status();
+            if (status.state() != BootstrapStatus.State.RUNNING && status.state() != BootstrapStatus.State.PENDING) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Bootstrap did not finish");
+    }
+}
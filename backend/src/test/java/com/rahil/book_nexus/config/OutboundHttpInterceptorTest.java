@@ -0,0 +1,119 @@
+package com.rahil.book_nexus.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboundHttpInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch stalling = new CountDownLatch(1);
+    private HttpServer server;
+    private OutboundHttpInterceptor interceptor;
+    private RestTemplate restTemplate;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/fast", exchange -> {
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // Sends headers and part of the body, then stalls until released
+        server.createContext("/stall", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("partial".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                stalling.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            } catch (Exception ignored) {
+                // client went away
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        interceptor = new OutboundHttpInterceptor(meterRegistry, 1, Duration.ofMillis(200), Duration.ofSeconds(1));
+        restTemplate = new RestTemplate(new JdkClientHttpRequestFactory(HttpClient.newHttpClient()));
+        restTemplate.setInterceptors(List.of(interceptor));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        interceptor.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void slotIsReleasedWhenResponseIsClosed() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(restTemplate.getForObject(baseUrl + "/fast", String.class)).isEqualTo("ok");
+        }
+        assertThat(meterRegistry.get("http.client.outbound.in-flight").tag("host", "127.0.0.1").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    void stalledBodyFailsAtTotalDeadline() {
+        long started = System.nanoTime();
+
+        assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/stall", String.class))
+                .isInstanceOf(RestClientException.class)
+                .hasRootCauseInstanceOf(InterruptedException.class)
+                .hasStackTraceContaining("exceeded PT1S");
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        assertThat(meterRegistry.get("http.client.outbound.rejected").tag("reason", "deadline").counter().count())
+                .isEqualTo(1);
+        assertThat(restTemplate.getForObject(baseUrl + "/fast", String.class)).isEqualTo("ok");
+    }
+
+    @Test
+    void saturatedHostIsRejected() throws Exception {
+        CompletableFuture<Void> stalled = CompletableFuture.runAsync(() -> {
+            try {
+                restTemplate.getForObject(baseUrl + "/stall", String.class);
+            } catch (RestClientException ignored) {
+                // expected once the deadline passes
+            }
+        });
+        // The stalled request holds the only slot once the server is streaming it
+        assertThat(stalling.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> restTemplate.getForObject(baseUrl + "/fast", String.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessageContaining("Too many concurrent requests");
+        assertThat(meterRegistry.get("http.client.outbound.rejected").tag("reason", "saturated").counter().count())
+                .isEqualTo(1);
+        stalled.get(5, TimeUnit.SECONDS);
+    }
+}
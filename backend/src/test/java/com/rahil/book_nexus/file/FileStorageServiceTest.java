@@ -0,0 +1,75 @@
+package com.rahil.book_nexus.file;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class FileStorageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private StoredFileRepository repository;
+    private FileStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StoredFileRepository.class);
+        service = new FileStorageService(repository);
+        ReflectionTestUtils.setField(service, "fileUploadPath", root.toString());
+    }
+
+    @Test
+    void storesUnderShardedContentAddress() throws Exception {
+        String stored = service.saveFile(cover("cover.JPG", "cover bytes"));
+
+        Path path = Path.of(stored);
+        String hash = path.getFileName().toString().replace(".jpg", "");
+        assertThat(hash).matches("[0-9a-f]{64}");
+        assertThat(root.relativize(path).toString().replace('\\', '/'))
+                .isEqualTo(hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + ".jpg");
+        assertThat(Files.readString(path)).isEqualTo("cover bytes");
+        verify(repository).retain(root.relativize(path).toString().replace('\\', '/'), hash, 11);
+    }
+
+    @Test
+    void duplicateUploadReusesFileAndAddsReference() throws Exception {
+        String first = service.saveFile(cover("a.png", "same content"));
+        String second = service.saveFile(cover("b.png", "same content"));
+
+        assertThat(second).isEqualTo(first);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+        String relative = root.relativize(Path.of(first)).toString().replace('\\', '/');
+        verify(repository, times(2)).retain(eq(relative), anyString(), eq(12L));
+    }
+
+    @Test
+    void releaseIgnoresRemoteAndForeignPaths() {
+        service.releaseFile("http://books.google.com/cover.jpg");
+        service.releaseFile("/somewhere/else/cover.jpg");
+        service.releaseFile(root.resolve("ab/cd/file.jpg").toString());
+
+        verify(repository).release("ab/cd/file.jpg");
+        verify(repository, times(1)).release(anyString());
+    }
+
+    private MockMultipartFile cover(String name, String content) {
+        return new MockMultipartFile("file", name, "image/jpeg", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
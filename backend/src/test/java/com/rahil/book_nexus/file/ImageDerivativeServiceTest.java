@@ -0,0 +1,100 @@
+package com.rahil.book_nexus.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageDerivativeServiceTest {
+
+    @TempDir
+    Path root;
+
+    private ImageDerivativeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImageDerivativeService(1, 4, 1_000_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void writesEachWidthAndPlaceholderWithoutUpscaling() throws Exception {
+        Path original = image("cover.png", 400, 600);
+
+        String placeholder = service.generate(original).get(10, TimeUnit.SECONDS);
+
+        assertThat(placeholder).startsWith("data:image/jpeg;base64,");
+        assertThat(ImageIO.read(ImageDerivativeService.variantPath(original, 96).toFile()).getWidth()).isEqualTo(96);
+        BufferedImage medium = ImageIO.read(ImageDerivativeService.variantPath(original, 256).toFile());
+        assertThat(medium.getWidth()).isEqualTo(256);
+        assertThat(medium.getHeight()).isEqualTo(384);
+        assertThat(ImageIO.read(ImageDerivativeService.variantPath(original, 512).toFile()).getWidth())
+                .isEqualTo(400);
+    }
+
+    @Test
+    void resolvesSmallestSufficientVariantOnceGenerated() throws Exception {
+        Path original = image("avatar.png", 300, 300);
+
+        assertThat(service.resolveVariant(original, 200)).isEqualTo(original);
+        service.generate(original).get(10, TimeUnit.SECONDS);
+
+        assertThat(service.resolveVariant(original, 200)).isEqualTo(root.resolve("avatar.w256.jpg"));
+        assertThat(service.resolveVariant(original, 96)).isEqualTo(root.resolve("avatar.w96.jpg"));
+        assertThat(service.resolveVariant(original, 2000)).isEqualTo(original);
+        assertThat(service.resolveVariant(original, null)).isEqualTo(original);
+    }
+
+    @Test
+    void decodesLargeImagesSubsampledToTheWidestDerivative() throws Exception {
+        Path original = image("large.png", 1200, 800);
+
+        service.generate(original).get(10, TimeUnit.SECONDS);
+
+        BufferedImage widest = ImageIO.read(ImageDerivativeService.variantPath(original, 512).toFile());
+        assertThat(widest.getWidth()).isEqualTo(512);
+        assertThat(widest.getHeight()).isEqualTo(341);
+    }
+
+    @Test
+    void skipsImagesOverThePixelBudget() throws Exception {
+        Path original = image("huge.png", 1001, 1000);
+
+        assertThat(service.generate(original).get(10, TimeUnit.SECONDS)).isNull();
+        assertThat(ImageDerivativeService.variantPath(original, 96)).doesNotExist();
+    }
+
+    @Test
+    void skipsFilesThatAreNotImages() throws Exception {
+        Path original = Files.writeString(root.resolve("notes.txt"), "not an image");
+
+        assertThat(service.generate(original).get(10, TimeUnit.SECONDS)).isNull();
+        assertThat(ImageDerivativeService.variantPath(original, 96)).doesNotExist();
+    }
+
+    private Path image(String name, int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        Path path = root.resolve(name);
+        ImageIO.write(image, "png", path.toFile());
+        return path;
+    }
+}
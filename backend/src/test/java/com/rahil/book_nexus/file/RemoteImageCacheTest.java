@@ -0,0 +1,184 @@
+package com.rahil.book_nexus.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RemoteImageCacheTest {
+
+    private static final String URL = "http://books.example.com/cover?id=1";
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final List<HttpHeaders> requestHeaders = new CopyOnWriteArrayList<>();
+
+    @Test
+    void servesHitsFromDiskWithUpstreamContentType() throws Exception {
+        RemoteImageCache cache = cache(okResponse("png bytes", MediaType.IMAGE_PNG), 1024, Duration.ofHours(1));
+
+        RemoteImageCache.CachedImage first = cache.get(URL);
+        RemoteImageCache.CachedImage second = cache.get(URL);
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(second.path()).isEqualTo(first.path());
+        assertThat(second.contentType()).isEqualTo(MediaType.IMAGE_PNG_VALUE);
+        assertThat(Files.readString(second.path())).isEqualTo("png bytes");
+    }
+
+    @Test
+    void refusesNonRasterContentTypes() throws Exception {
+        for (MediaType contentType : List.of(MediaType.TEXT_HTML, MediaType.valueOf("image/svg+xml"),
+                MediaType.APPLICATION_OCTET_STREAM)) {
+            RemoteImageCache cache = cache(okResponse("<script>alert(1)</script>", contentType), 1024,
+                    Duration.ofHours(1));
+
+            assertThatThrownBy(() -> cache.get(URL + contentType.getSubtype()))
+                    .isInstanceOf(RestClientException.class)
+                    .hasMessageContaining("unsupported content type");
+        }
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void servesMissingContentTypeAsJpeg() throws Exception {
+        RemoteImageCache cache = cache(okResponse("jpeg bytes", null), 1024, Duration.ofHours(1));
+
+        assertThat(cache.get(URL).contentType()).isEqualTo(MediaType.IMAGE_JPEG_VALUE);
+        assertThat(RemoteImageCache.imageContentType(MediaType.valueOf("image/WEBP;q=1"))).isEqualTo("image/webp");
+    }
+
+    @Test
+    void collapsesConcurrentMissesIntoOneFetch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RemoteImageCache cache = cache(() -> {
+            release.await(5, TimeUnit.SECONDS);
+            return okResponse("jpeg bytes", MediaType.IMAGE_JPEG).get();
+        }, 1024, Duration.ofHours(1));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RemoteImageCache.CachedImage>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get(URL)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<RemoteImageCache.CachedImage> result : results) {
+                assertThat(Files.readString(result.get(5, TimeUnit.SECONDS).path())).isEqualTo("jpeg bytes");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void revalidatesStaleEntriesWithUpstreamValidators() throws Exception {
+        AtomicInteger call = new AtomicInteger();
+        RemoteImageCache cache = cache(() -> {
+            if (call.getAndIncrement() == 0) {
+                MockClientHttpResponse response = okResponse("v1", MediaType.IMAGE_JPEG).get();
+                response.getHeaders().setETag("\"upstream-1\"");
+                return response;
+            }
+            return new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+        }, 1024, Duration.ZERO);
+
+        RemoteImageCache.CachedImage first = cache.get(URL);
+        RemoteImageCache.CachedImage revalidated = cache.get(URL);
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(requestHeaders.get(1).getIfNoneMatch()).containsExactly("\"upstream-1\"");
+        assertThat(revalidated.path()).isEqualTo(first.path());
+        assertThat(Files.readString(revalidated.path())).isEqualTo("v1");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesOverBudget() throws Exception {
+        RemoteImageCache cache = cache(okResponse("0123456789", MediaType.IMAGE_JPEG), 25, Duration.ofHours(1));
+
+        RemoteImageCache.CachedImage a = cache.get(URL + "a");
+        RemoteImageCache.CachedImage b = cache.get(URL + "b");
+        cache.get(URL + "a");
+        cache.get(URL + "c");
+
+        assertThat(cache.totalBytes()).isEqualTo(20);
+        assertThat(a.path()).exists();
+        assertThat(b.path()).doesNotExist();
+    }
+
+    @Test
+    void reloadsIndexFromDisk() throws Exception {
+        RemoteImageCache cache = cache(okResponse("cached", MediaType.IMAGE_GIF), 1024, Duration.ofHours(1));
+        cache.get(URL);
+
+        RemoteImageCache reloaded = cache(okResponse("other", MediaType.IMAGE_GIF), 1024, Duration.ofHours(1));
+
+        assertThat(Files.readString(reloaded.get(URL).path())).isEqualTo("cached");
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    private RemoteImageCache cache(ResponseSupplier upstream, long maxBytes, Duration freshFor) throws Exception {
+        RestTemplate restTemplate = new RestTemplate((uri, method) -> {
+            upstreamCalls.incrementAndGet();
+            return new MockClientHttpRequest(method, uri) {
+                @Override
+                protected ClientHttpResponse executeInternal() {
+                    requestHeaders.add(HttpHeaders.readOnlyHttpHeaders(getHeaders()));
+                    try {
+                        return upstream.get();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            };
+        });
+        RemoteImageCache cache = new RemoteImageCache(restTemplate, directory.toString(), maxBytes, 1024, freshFor);
+        cache.load();
+        return cache;
+    }
+
+    private static ResponseSupplier okResponse(String body, MediaType contentType) {
+        return () -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8),
+                    HttpStatus.OK);
+            if (contentType != null) {
+                response.getHeaders().setContentType(contentType);
+            }
+            return response;
+        };
+    }
+
+    @FunctionalInterface
+    private interface ResponseSupplier {
+        MockClientHttpResponse get() throws Exception;
+    }
+}
@@ -0,0 +1,102 @@
+package com.rahil.book_nexus.file;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StoredFileSweeperTest {
+
+    @TempDir
+    Path root;
+
+    @Autowired
+    private StoredFileRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StoredFileSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new StoredFileSweeper(repository, transactionManager, root.toString(), false,
+                Duration.ofHours(1), Duration.ofHours(1), 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void sweepsReleasedBlobAndDerivativesAfterGracePeriod() throws Exception {
+        Path blob = blob("aa/bb/released.jpg", 1);
+        Path derivative = ImageDerivativeService.variantPath(blob, 96);
+        Files.writeString(derivative, "thumb");
+        release("aa/bb/released.jpg");
+
+        assertThat(sweeper.runOnce()).isZero();
+        assertThat(blob).exists();
+
+        releasedAgo("aa/bb/released.jpg", Duration.ofHours(2));
+        assertThat(sweeper.runOnce()).isEqualTo(1);
+
+        assertThat(repository.findById("aa/bb/released.jpg")).isEmpty();
+        assertThat(blob).doesNotExist();
+        assertThat(derivative).doesNotExist();
+    }
+
+    @Test
+    void keepsReferencedBlobs() throws Exception {
+        Path shared = blob("cc/dd/shared.jpg", 2);
+        release("cc/dd/shared.jpg");
+        releasedAgo("cc/dd/shared.jpg", Duration.ofHours(2));
+
+        assertThat(sweeper.runOnce()).isZero();
+        assertThat(repository.findById("cc/dd/shared.jpg")).get()
+                .extracting(StoredFile::getRefCount).isEqualTo(1);
+        assertThat(shared).exists();
+    }
+
+    private Path blob(String path, int refCount) throws Exception {
+        Path blob = root.resolve(path);
+        Files.createDirectories(blob.getParent());
+        Files.writeString(blob, "bytes");
+        repository.save(StoredFile.builder()
+                .path(path)
+                .sha256("0".repeat(64))
+                .sizeBytes(5)
+                .refCount(refCount)
+                .createdAt(LocalDateTime.now())
+                .build());
+        return blob;
+    }
+
+    private void release(String path) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> repository.release(path));
+    }
+
+    private void releasedAgo(String path, Duration age) {
+        StoredFile file = repository.findById(path).orElseThrow();
+        file.setCreatedAt(file.getCreatedAt().minus(age));
+        if (file.getReleasedAt() != null) {
+            file.setReleasedAt(file.getReleasedAt().minus(age));
+        }
+        repository.save(file);
+    }
+}
@@ -0,0 +1,209 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.common.AdaptiveRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GoogleBookDiscoveryServiceTest {
+
+    private GoogleBookService googleBookService;
+    private GoogleBookDiscoveryService discoveryService;
+
+    @BeforeEach
+    void setUp() {
+        googleBookService = mock(GoogleBookService.class);
+        PopularCategoriesProperties popular = new PopularCategoriesProperties(
+                Map.of("Fantasy", List.of("The Hobbit", "The Way of Kings")), 2, Duration.ofHours(1));
+        discoveryService = new GoogleBookDiscoveryService(googleBookService, popular, true, 2,
+                Duration.ofMinutes(4), Duration.ofSeconds(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        discoveryService.shutdown();
+    }
+
+    @Test
+    void queriesAreFetchedInParallel() throws Exception {
+        // Every query blocks until all five are in flight at once
+        CountDownLatch allStarted = new CountDownLatch(5);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            allStarted.countDown();
+            allStarted.await(1, TimeUnit.SECONDS);
+            return response(invocation.getArgument(0));
+        });
+
+        GoogleBookResponse trending = discoveryService.getTrendingBooks(100);
+
+        assertThat(allStarted.getCount()).isZero();
+        assertThat(threads).hasSize(5);
+        assertThat(trending.getItems()).hasSize(10);
+        discoveryService.getTrendingBooks(5);
+        verify(googleBookService, times(5)).fetchVolumes(anyString(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void failedQueryKeepsItsPreviousBooks() throws Exception {
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> response(invocation.getArgument(0)));
+        GoogleBookDiscoveryService.ShelfSnapshot first = discoveryService.refresh(trending());
+
+        when(googleBookService.fetchVolumes(startsWith("Red Rising"), anyInt(), anyInt(), any()))
+                .thenThrow(new ResourceAccessException("quota exceeded"));
+        GoogleBookDiscoveryService.ShelfSnapshot second = discoveryService.refresh(trending());
+
+        assertThat(second.books()).hasSize(10);
+        assertThat(second.byQuery()).isEqualTo(first.byQuery());
+        assertThat(second.refreshedAt()).isAfterOrEqualTo(first.refreshedAt());
+    }
+
+    @Test
+    void totalFailureServesPreviousSnapshot() throws Exception {
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> response(invocation.getArgument(0)));
+        discoveryService.refresh(trending());
+
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any()))
+                .thenThrow(new ResourceAccessException("unavailable"));
+        discoveryService.refresh(trending());
+
+        assertThat(discoveryService.getTrendingBooks(100).getItems()).hasSize(10);
+    }
+
+    @Test
+    void coldStartWithNoResultsServesLocalCatalog() throws Exception {
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any()))
+                .thenThrow(new ResourceAccessException("unavailable"));
+        when(googleBookService.localCatalog(10)).thenReturn(GoogleBookResponse.builder()
+                .items(List.of(GoogleBookDto.builder().id("local-1").title("Stored").build()))
+                .totalItems(1)
+                .degraded(true)
+                .build());
+
+        GoogleBookResponse trending = discoveryService.getTrendingBooks(10);
+
+        assertThat(trending.getDegraded()).isTrue();
+        assertThat(trending.getItems()).extracting(GoogleBookDto::getId).containsExactly("local-1");
+    }
+
+    @Test
+    void callersNeverShareOrMutateTheSnapshot() throws Exception {
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> response(invocation.getArgument(0)));
+        GoogleBookDiscoveryService.ShelfSnapshot snapshot = discoveryService.refresh(trending());
+        List<String> before = ids(snapshot.books());
+
+        List<GoogleBookDto> served = discoveryService.getTrendingBooks(3).getItems();
+        served.clear();
+
+        assertThat(served).isEmpty();
+        assertThat(ids(snapshot.books())).isEqualTo(before);
+        assertThat(discoveryService.getTrendingBooks(100).getItems()).hasSize(10);
+    }
+
+    @Test
+    void popularCategoryIsServedFromItsOwnSnapshot() throws Exception {
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> response(invocation.getArgument(0)));
+        discoveryService.refresh(discoveryService.shelf("fantasy"));
+
+        GoogleBookResponse fantasy = discoveryService.getPopularBooks("FANTASY", 10);
+        GoogleBookResponse again = discoveryService.getPopularBooks("fantasy", 10);
+
+        assertThat(fantasy.getItems()).hasSize(4)
+                .allSatisfy(book -> assertThat(book.getTitle()).isIn("The Hobbit", "The Way of Kings"));
+        assertThat(fantasy.getRefreshedAt()).isNotNull().isEqualTo(again.getRefreshedAt());
+        verify(googleBookService, times(2)).fetchVolumes(anyString(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void coldCallerFetchesAtInteractivePriority() throws Exception {
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> response(invocation.getArgument(0)));
+
+        discoveryService.getTrendingBooks(10);
+        discoveryService.refresh(trending());
+
+        verify(googleBookService, times(5)).fetchVolumes(anyString(), anyInt(), anyInt(),
+                eq(AdaptiveRateLimiter.Priority.INTERACTIVE));
+        verify(googleBookService, times(5)).fetchVolumes(anyString(), anyInt(), anyInt(),
+                eq(AdaptiveRateLimiter.Priority.BACKGROUND));
+    }
+
+    @Test
+    void timedOutQueryIsInterrupted() throws Exception {
+        GoogleBookDiscoveryService quick = new GoogleBookDiscoveryService(googleBookService,
+                new PopularCategoriesProperties(Map.of(), 2, Duration.ofHours(1)), true, 2,
+                Duration.ofMinutes(4), Duration.ofMillis(200));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any())).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+            return response(invocation.getArgument(0));
+        });
+        try {
+            GoogleBookDiscoveryService.ShelfSnapshot snapshot = quick.refresh(
+                    quick.shelf(GoogleBookDiscoveryService.TRENDING));
+
+            assertThat(snapshot.byQuery()).hasSize(4);
+            assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            quick.shutdown();
+        }
+    }
+
+    @Test
+    void unknownCategoryFallsBackToTrending() throws Exception {
+        when(googleBookService.fetchVolumes(anyString(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> response(invocation.getArgument(0)));
+
+        assertThat(discoveryService.getPopularBooks("poetry", 100).getItems()).hasSize(10);
+        verify(googleBookService, times(5)).fetchVolumes(anyString(), anyInt(), anyInt(), any());
+    }
+
+    private GoogleBookDiscoveryService.Shelf trending() {
+        return discoveryService.shelf(GoogleBookDiscoveryService.TRENDING);
+    }
+
+    private static List<String> ids(List<GoogleBookDto> books) {
+        return books.stream().map(GoogleBookDto::getId).collect(Collectors.toList());
+    }
+
+    private static GoogleBookResponse response(String query) {
+        List<GoogleBookDto> items = List.of(
+                GoogleBookDto.builder().id(query + "-1").title(query).build(),
+                GoogleBookDto.builder().id(query + "-2").title(query).build());
+        return GoogleBookResponse.builder().items(items).totalItems(items.size()).build();
+    }
+}
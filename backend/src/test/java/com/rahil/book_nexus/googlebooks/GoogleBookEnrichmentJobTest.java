@@ -0,0 +1,124 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.common.CallRejectedException;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "application.bootstrap.source=none",
+        "application.external.googlebooks.enrichment.batch-size=2",
+        "application.external.googlebooks.enrichment.max-age=7d"
+})
+@ActiveProfiles("test")
+class GoogleBookEnrichmentJobTest {
+
+    @Autowired
+    private GoogleBookEnrichmentJob enrichmentJob;
+
+    @Autowired
+    private GoogleBookEntityRepository googleBookEntityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private GoogleBookService googleBookService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.save(userRepository, "enrichment@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        googleBookEntityRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void staleRowsAreRefreshedAndFreshRowsLeftAlone() {
+        store("stale-1", "Old One", Instant.now().minus(Duration.ofDays(30)));
+        store("legacy-1", "Old Legacy", null);
+        store("gone-1", "Withdrawn", Instant.now().minus(Duration.ofDays(30)));
+        store("fresh-1", "Fresh", Instant.now().minus(Duration.ofDays(1)));
+        when(googleBookService.fetchVolume("stale-1")).thenReturn(volume("stale-1", "New One", 812));
+        when(googleBookService.fetchVolume("legacy-1")).thenReturn(volume("legacy-1", "New Legacy", 9));
+        when(googleBookService.fetchVolume("gone-1")).thenThrow(HttpClientErrorException.create(
+                HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        GoogleBookEnrichmentJob.EnrichmentRun run = enrichmentJob.runOnce();
+
+        assertThat(run).isEqualTo(new GoogleBookEnrichmentJob.EnrichmentRun(3, 2, 1, 0));
+        GoogleBookEntity refreshed = googleBookEntityRepository.findByGoogleBookId("stale-1").orElseThrow();
+        assertThat(refreshed.getTitle()).isEqualTo("New One");
+        assertThat(refreshed.getRatingsCount()).isEqualTo(812);
+        assertThat(refreshed.getLastRefreshedAt()).isAfter(Instant.now().minus(Duration.ofMinutes(1)));
+        assertThat(googleBookEntityRepository.findByGoogleBookId("legacy-1").orElseThrow().getTitle())
+                .isEqualTo("New Legacy");
+        GoogleBookEntity gone = googleBookEntityRepository.findByGoogleBookId("gone-1").orElseThrow();
+        assertThat(gone.getTitle()).isEqualTo("Withdrawn");
+        assertThat(gone.getLastRefreshedAt()).isAfter(Instant.now().minus(Duration.ofMinutes(1)));
+        verify(googleBookService, never()).fetchVolume("fresh-1");
+
+        // Everything is current, so the next pass has nothing to do
+        assertThat(enrichmentJob.runOnce().examined()).isZero();
+    }
+
+    @Test
+    void rejectedCallPausesRunAndNextRunResumes() {
+        store("paused-1", "Old Paused", null);
+        store("paused-2", "Old Paused Two", null);
+        when(googleBookService.fetchVolume("paused-1"))
+                .thenThrow(new CallRejectedException("google-books", "circuit open"))
+                .thenReturn(volume("paused-1", "Paused", 1));
+        when(googleBookService.fetchVolume("paused-2")).thenReturn(volume("paused-2", "Paused Two", 2));
+
+        assertThat(enrichmentJob.runOnce().examined()).isZero();
+        GoogleBookEnrichmentJob.EnrichmentRun resumed = enrichmentJob.runOnce();
+
+        assertThat(resumed.refreshed()).isEqualTo(2);
+        assertThat(googleBookEntityRepository.findByGoogleBookId("paused-1").orElseThrow().getTitle())
+                .isEqualTo("Paused");
+    }
+
+    private void store(String id, String title, Instant lastRefreshedAt) {
+        googleBookEntityRepository.save(GoogleVolumeResolver.toEntity(volume(id, title, 0), user));
+        jdbcTemplate.update("UPDATE google_book SET last_refreshed_at = ? WHERE google_book_id = ?",
+                lastRefreshedAt != null ? Timestamp.from(lastRefreshedAt) : null, id);
+    }
+
+    private static GoogleBookDto volume(String id, String title, int ratingsCount) {
+        return GoogleBookDto.builder()
+                .id(id)
+                .title(title)
+                .authors(List.of("Author"))
+                .ratingsCount(ratingsCount)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.PostgresContainerConfig;
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.activity.ActivityFeedRepository;
+import com.rahil.book_nexus.book.UserBookList;
+import com.rahil.book_nexus.book.UserBookListRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class GoogleBookIntegrationConcurrencyTest {
+
+    private static final int THREADS = 48;
+    private static final int USERS = 24;
+    private static final List<String> VOLUMES = List.of("race-1", "race-2", "race-3", "race-4", "race-5");
+
+    @Autowired
+    private GoogleBookIntegrationService googleBookIntegrationService;
+
+    @Autowired
+    private GoogleBookEntityRepository googleBookEntityRepository;
+
+    @Autowired
+    private UserBookListRepository userBookListRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityFeedRepository activityFeedRepository;
+
+    @Autowired
+    private GoogleVolumeWriter volumeWriter;
+
+    @MockitoBean
+    private GoogleBookService googleBookService;
+
+    @AfterEach
+    void tearDown() {
+        activityFeedRepository.deleteAll();
+        userBookListRepository.deleteAll();
+        googleBookEntityRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void parallelAddsOfNewVolumesStoreEachOnceAndAllSucceed() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(user(i));
+        }
+        // Slow enough that every add of a volume arrives while its first fetch is in flight
+        when(googleBookService.getBookById(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            String id = invocation.getArgument(0);
+            return GoogleBookDto.builder()
+                    .id(id)
+                    .title("Title " + id)
+                    .authors(List.of("Author"))
+                    .build();
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> adds = new ArrayList<>();
+        // Every user adds every volume to every list once: 360 adds, 72 racing per volume
+        for (User user : users) {
+            for (String volume : VOLUMES) {
+                for (UserBookList.ListType listType : UserBookList.ListType.values()) {
+                    adds.add(executor.submit(() -> {
+                        try {
+                            start.await();
+                            SecurityContextHolder.getContext().setAuthentication(
+                                    new UsernamePasswordAuthenticationToken(user, null, List.of()));
+                            googleBookIntegrationService.addGoogleBookToList(volume, user, listType);
+                        } catch (Throwable e) {
+                            failures.add(e);
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                        }
+                    }));
+                }
+            }
+        }
+        start.countDown();
+        for (Future<?> add : adds) {
+            add.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(failures).isEmpty();
+        assertThat(userBookListRepository.count()).isEqualTo(adds.size());
+        assertThat(googleBookEntityRepository.count()).isEqualTo(VOLUMES.size());
+        for (String volume : VOLUMES) {
+            verify(googleBookService, times(1)).getBookById(volume);
+            GoogleBookEntity stored = googleBookEntityRepository.findByGoogleBookId(volume).orElseThrow();
+            assertThat(stored.getTitle()).isEqualTo("Title " + volume);
+            assertThat(stored.getLastRefreshedAt()).isNotNull();
+        }
+    }
+
+    @Test
+    void upsertRefreshesAnExistingRowAndKeepsItsDiscoverer() {
+        User discoverer = user(0);
+        User later = user(1);
+
+        int id = volumeWriter.upsert(volume("upsert-1", "First Title"), discoverer);
+        assertThat(volumeWriter.upsert(volume("upsert-1", "Second Title"), later)).isEqualTo(id);
+
+        assertThat(googleBookEntityRepository.count()).isEqualTo(1);
+        GoogleBookEntity stored = googleBookEntityRepository.findByGoogleBookId("upsert-1").orElseThrow();
+        assertThat(stored.getId()).isEqualTo(id);
+        assertThat(stored.getTitle()).isEqualTo("Second Title");
+        assertThat(stored.getDiscoveredBy().getId()).isEqualTo(discoverer.getId());
+        assertThat(stored.getCreatedBy()).isEqualTo(discoverer.getId());
+        assertThat(stored.getLastModifiedBy()).isEqualTo(later.getId());
+        assertThat(stored.getIsActive()).isTrue();
+    }
+
+    private User user(int i) {
+        return TestUsers.save(userRepository, "race" + i + "@example.com");
+    }
+
+    private static GoogleBookDto volume(String id, String title) {
+        return GoogleBookDto.builder()
+                .id(id)
+                .title(title)
+                .authors(List.of("Author"))
+                .build();
+    }
+}
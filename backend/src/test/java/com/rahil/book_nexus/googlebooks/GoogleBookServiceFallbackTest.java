@@ -0,0 +1,88 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.common.CircuitBreaker;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "application.external.googlebooks.enabled=true",
+        "application.bootstrap.source=none",
+        "application.external.googlebooks.circuit-breaker.window-size=2",
+        "application.external.googlebooks.circuit-breaker.minimum-calls=2",
+        "application.external.googlebooks.circuit-breaker.open-duration=1m"
+})
+@ActiveProfiles("test")
+class GoogleBookServiceFallbackTest {
+
+    @Autowired
+    private GoogleBookService googleBookService;
+
+    @Autowired
+    private GoogleBooksGuard guard;
+
+    @Autowired
+    private GoogleBookEntityRepository googleBookEntityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private RestTemplate restTemplate;
+
+    // Keeps the refresh scheduler from calling the mocked client
+    @MockitoBean
+    private GoogleBookDiscoveryService discoveryService;
+
+    @AfterEach
+    void tearDown() {
+        googleBookEntityRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failingGoogleOpensBreakerAndDegradesToLocalCatalog() {
+        User user = TestUsers.save(userRepository, "local@example.com");
+        googleBookEntityRepository.save(GoogleVolumeResolver.toEntity(GoogleBookDto.builder()
+                .id("dune-1")
+                .title("Dune")
+                .authors(List.of("Frank Herbert"))
+                .ratingsCount(10)
+                .build(), user));
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+                .thenThrow(new ResourceAccessException("connect timed out"));
+
+        GoogleBookResponse first = googleBookService.searchBooks("dune", 10, 0);
+        googleBookService.searchBooks("herbert", 10, 0);
+        assertThat(guard.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        GoogleBookResponse whileOpen = googleBookService.searchBooks("  DUNE ", 10, 0);
+
+        assertThat(first.getDegraded()).isTrue();
+        assertThat(first.getItems()).extracting(GoogleBookDto::getId).containsExactly("dune-1");
+        assertThat(whileOpen.getItems()).extracting(GoogleBookDto::getId).containsExactly("dune-1");
+        assertThat(googleBookService.getBookById("dune-1")).isNull();
+        verify(restTemplate, times(2)).execute(anyString(), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class));
+    }
+}
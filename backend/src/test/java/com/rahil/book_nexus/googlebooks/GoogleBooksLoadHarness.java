@@ -0,0 +1,242 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.PostgresContainerConfig;
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.book.GoogleBookImportService;
+import com.rahil.book_nexus.book.UserBookList;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drives the search, trending, add-to-shelf and import flows concurrently
+ * against GoogleBooksStubServer and prints p50/p99/max latency per flow plus
+ * the upstream calls the stub received, e.g.
+ *
+ * mvn test -Dtest=GoogleBooksLoadHarness -Dbenchmark.load=true -Dload.threads=32
+ * -Dload.iterations=400 -Dstub.latency-ms=80 -Dstub.jitter-ms=40 -Dstub.error-rate=0.02
+ * -Dstub.throttle-rate=0.01
+ *
+ * "degraded" counts local-catalog fallbacks and import queries that failed.
+ * The client rate limit defaults to 1000/s so the numbers show the service
+ * rather than the quota; pass -Dload.rate-limit=10 to run with the real one.
+ * The database is a PostgreSQL container, so Docker must be available.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark.load", matches = "true")
+class GoogleBooksLoadHarness {
+
+    private static final List<String> QUERIES = List.of("tolkien", "orwell", "austen", "dune", "fantasy",
+            "mystery", "romance", "science fiction", "history", "king", "gatsby", "poetry");
+    private static final UserBookList.ListType[] LIST_TYPES = UserBookList.ListType.values();
+
+    private static GoogleBooksStubServer stub;
+
+    @Autowired
+    private GoogleBookService googleBookService;
+
+    @Autowired
+    private GoogleBookDiscoveryService discoveryService;
+
+    @Autowired
+    private GoogleBookIntegrationService googleBookIntegrationService;
+
+    @Autowired
+    private GoogleBookImportService googleBookImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void googleBooks(DynamicPropertyRegistry registry) throws IOException {
+        stub = GoogleBooksStubServer.start(0);
+        registry.add("application.external.googlebooks.enabled", () -> "true");
+        registry.add("application.external.googlebooks.base-url", stub::baseUrl);
+        registry.add("application.external.googlebooks.rate-limit.rate",
+                () -> System.getProperty("load.rate-limit", "1000"));
+        registry.add("application.external.googlebooks.rate-limit.burst",
+                () -> System.getProperty("load.rate-limit", "1000"));
+        registry.add("application.bootstrap.source", () -> "none");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void searchTrendingShelfAndImportUnderLoad() throws Exception {
+        int threads = Integer.getInteger("load.threads", 16);
+        int iterations = Integer.getInteger("load.iterations", 200);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            users.add(TestUsers.save(userRepository, "load" + i + "@example.com"));
+        }
+        List<String> volumeIds = stub.volumeIds();
+
+        Map<String, Flow> flows = new LinkedHashMap<>();
+        flows.put("search", new Flow(i -> degraded(googleBookService.searchBooks(pick(QUERIES), 10, 0))));
+        flows.put("trending", new Flow(i -> degraded(discoveryService.getTrendingBooks(10))));
+        flows.put("add-to-shelf", new Flow(i -> {
+            User user = users.get(i % users.size());
+            // Auditing reads the signed-in user, as it would inside a request
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(user, null, List.of()));
+            try {
+                googleBookIntegrationService.addGoogleBookToList(pick(volumeIds), user,
+                        LIST_TYPES[i % LIST_TYPES.length]);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+            return false;
+        }));
+        flows.put("import", new Flow(i -> {
+            return googleBookImportService.importQueries(List.of(pick(QUERIES)), 5, users.get(i % users.size()))
+                    .stream()
+                    .anyMatch(stats -> stats.error() != null);
+        }));
+
+        // Warm up the JIT, connection pool and caches with a clean upstream
+        run(flows, threads, Math.max(1, iterations / 10));
+        flows.values().forEach(Flow::reset);
+        stub.resetCounters();
+        stub.latency(Duration.ofMillis(Long.getLong("stub.latency-ms", 80)),
+                        Duration.ofMillis(Long.getLong("stub.jitter-ms", 40)))
+                .errorRate(Double.parseDouble(System.getProperty("stub.error-rate", "0")))
+                .throttleRate(Double.parseDouble(System.getProperty("stub.throttle-rate", "0")));
+
+        long started = System.nanoTime();
+        run(flows, threads, iterations);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        System.out.printf("%d threads, %d iterations per flow, %d ms%n", threads, iterations, elapsed.toMillis());
+        System.out.printf("%-14s %8s %8s %8s %8s %8s%n", "flow", "p50 ms", "p99 ms", "max ms", "errors", "degraded");
+        flows.forEach((name, flow) -> {
+            long[] latencies = flow.latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%-14s %8.1f %8.1f %8.1f %8d %8d%n", name,
+                    millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                    millis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]),
+                    flow.errors.get(), flow.degraded.get());
+        });
+        flows.forEach((name, flow) -> {
+            if (flow.firstError.get() != null) {
+                System.out.printf("first %s error: %s%n", name, flow.firstError.get());
+            }
+        });
+        System.out.printf("upstream: %d searches, %d volume lookups, %d injected 500s, %d injected 429s%n",
+                stub.searches(), stub.lookups(), stub.errors(), stub.throttled());
+    }
+
+    /**
+     * Runs iterations calls of every flow, interleaved across one pool so the
+     * flows compete for the same connections and limits.
+     */
+    private static void run(Map<String, Flow> flows, int threads, int iterations) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < iterations; i++) {
+                int iteration = i;
+                for (Flow flow : flows.values()) {
+                    futures.add(executor.submit(() -> flow.call(iteration)));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static boolean degraded(GoogleBookResponse response) {
+        return response == null || Boolean.TRUE.equals(response.getDegraded());
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        /**
+         * Returns whether the result was degraded rather than a full answer.
+         */
+        boolean run(int iteration) throws Exception;
+    }
+
+    private static final class Flow {
+
+        private final Call call;
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final AtomicInteger degraded = new AtomicInteger();
+        private final AtomicReference<Exception> firstError = new AtomicReference<>();
+
+        private Flow(Call call) {
+            this.call = call;
+        }
+
+        private void call(int iteration) {
+            long started = System.nanoTime();
+            try {
+                if (call.run(iteration)) {
+                    degraded.incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                firstError.compareAndSet(null, e);
+            } finally {
+                latencies.add(System.nanoTime() - started);
+            }
+        }
+
+        private void reset() {
+            latencies.clear();
+            errors.set(0);
+            degraded.set(0);
+            firstError.set(null);
+        }
+    }
+}
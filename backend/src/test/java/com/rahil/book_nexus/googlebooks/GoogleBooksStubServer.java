@@ -0,0 +1,348 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Google Books /books/v1/volumes endpoints, serving
+ * the recorded seed/catalog-snapshot.json volumes as full Google JSON (with
+ * the saleInfo, accessInfo and searchInfo sections the real API sends).
+ * Volume ids are "stub-" plus the ISBN-13.
+ *
+ * Searches match query words against title, authors and categories; a query
+ * matching nothing gets a stable slice of the corpus so every query returns
+ * results. Latency, jitter, the 500 rate and the 429 rate can be changed
+ * while it runs. Standalone:
+ *
+ * java ... GoogleBooksStubServer 8089
+ * and set application.external.googlebooks.base-url=http://localhost:8089/books/v1
+ */
+public final class GoogleBooksStubServer implements AutoCloseable {
+
+    private static final String CONTEXT = "/books/v1/volumes";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ObjectNode> corpus = new ArrayList<>();
+    private final Map<String, ObjectNode> byId = new HashMap<>();
+    private final Map<String, String> searchText = new HashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile double throttleRate;
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    private GoogleBooksStubServer(int port) throws IOException {
+        loadCorpus();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(executor);
+        server.createContext(CONTEXT, this::handle);
+        server.start();
+    }
+
+    public static GoogleBooksStubServer start(int port) throws IOException {
+        return new GoogleBooksStubServer(port);
+    }
+
+    /**
+     * Value for application.external.googlebooks.base-url.
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/books/v1";
+    }
+
+    public List<String> volumeIds() {
+        return corpus.stream().map(volume -> volume.get("id").asText()).toList();
+    }
+
+    public GoogleBooksStubServer latency(Duration latency, Duration jitter) {
+        this.latency = latency;
+        this.jitter = jitter;
+        return this;
+    }
+
+    public GoogleBooksStubServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public GoogleBooksStubServer throttleRate(double throttleRate) {
+        this.throttleRate = throttleRate;
+        return this;
+    }
+
+    public long searches() {
+        return searches.get();
+    }
+
+    public long lookups() {
+        return lookups.get();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    public long throttled() {
+        return throttled.get();
+    }
+
+    public void resetCounters() {
+        searches.set(0);
+        lookups.set(0);
+        errors.set(0);
+        throttled.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            boolean search = path.equals(CONTEXT) || path.equals(CONTEXT + "/");
+            (search ? searches : lookups).incrementAndGet();
+            delay();
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < throttleRate) {
+                throttled.incrementAndGet();
+                send(exchange, 429, error(429, "Quota exceeded for quota metric 'Queries'", "rateLimitExceeded"));
+                return;
+            }
+            if (roll < throttleRate + errorRate) {
+                errors.incrementAndGet();
+                send(exchange, 500, error(500, "Backend Error", "backendError"));
+                return;
+            }
+
+            if (search) {
+                send(exchange, 200, search(queryParams(exchange.getRequestURI().getRawQuery())));
+                return;
+            }
+            ObjectNode volume = byId.get(path.substring(CONTEXT.length() + 1));
+            if (volume == null) {
+                send(exchange, 404, error(404, "The volume ID could not be found.", "notFound"));
+                return;
+            }
+            send(exchange, 200, volume);
+        }
+    }
+
+    private ObjectNode search(Map<String, String> params) {
+        String query = params.getOrDefault("q", "");
+        int maxResults = Math.min(40, parseInt(params.get("maxResults"), 10));
+        int startIndex = parseInt(params.get("startIndex"), 0);
+
+        List<String> words = Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> word.length() > 2 && !word.equals("subject"))
+                .toList();
+        List<ObjectNode> matches = corpus.stream()
+                .filter(volume -> words.stream().anyMatch(searchText.get(volume.get("id").asText())::contains))
+                .toList();
+        if (matches.isEmpty()) {
+            // Stable per-query rotation, like Google answering loose queries with something
+            int offset = Math.floorMod(query.hashCode(), corpus.size());
+            matches = new ArrayList<>(corpus.subList(offset, corpus.size()));
+            matches.addAll(corpus.subList(0, offset));
+        }
+
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("kind", "books#volumes");
+        body.put("totalItems", matches.size());
+        ArrayNode items = body.putArray("items");
+        matches.stream().skip(startIndex).limit(maxResults).forEach(volume -> items.add(withSnippet(volume)));
+        return body;
+    }
+
+    private ObjectNode withSnippet(ObjectNode volume) {
+        ObjectNode copy = volume.deepCopy();
+        String description = volume.path("volumeInfo").path("description").asText("");
+        copy.putObject("searchInfo").put("textSnippet", description.length() > 120
+                ? description.substring(0, 120) + "..." : description);
+        return copy;
+    }
+
+    private void delay() {
+        long millis = latency.toMillis();
+        if (!jitter.isZero()) {
+            millis += ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, ObjectNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private ObjectNode error(int code, String message, String reason) {
+        ObjectNode body = objectMapper.createObjectNode();
+        ObjectNode error = body.putObject("error");
+        error.put("code", code);
+        error.put("message", message);
+        error.putArray("errors").addObject()
+                .put("message", message)
+                .put("domain", "global")
+                .put("reason", reason);
+        return body;
+    }
+
+    private void loadCorpus() throws IOException {
+        Map<String, List<GoogleBookDto>> snapshot;
+        try (InputStream in = GoogleBooksStubServer.class.getResourceAsStream("/seed/catalog-snapshot.json")) {
+            if (in == null) {
+                throw new IllegalStateException("seed/catalog-snapshot.json not on the classpath");
+            }
+            snapshot = objectMapper.readValue(in, new TypeReference<LinkedHashMap<String, List<GoogleBookDto>>>() {
+            });
+        }
+        int position = 0;
+        for (List<GoogleBookDto> books : snapshot.values()) {
+            for (GoogleBookDto book : books) {
+                String id = "stub-" + book.getIsbn13();
+                if (book.getIsbn13() == null || byId.containsKey(id)) {
+                    continue;
+                }
+                ObjectNode volume = toVolume(id, book, position++);
+                corpus.add(volume);
+                byId.put(id, volume);
+                searchText.put(id, String.join(" ", book.getTitle(),
+                        String.join(" ", nullToEmpty(book.getAuthors())),
+                        String.join(" ", nullToEmpty(book.getCategories()))).toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    private ObjectNode toVolume(String id, GoogleBookDto book, int position) {
+        ObjectNode volume = objectMapper.createObjectNode();
+        volume.put("kind", "books#volume");
+        volume.put("id", id);
+        volume.put("etag", Integer.toHexString(id.hashCode()));
+        volume.put("selfLink", "https://www.googleapis.com/books/v1/volumes/" + id);
+
+        ObjectNode info = volume.putObject("volumeInfo");
+        info.put("title", book.getTitle());
+        ArrayNode authors = info.putArray("authors");
+        nullToEmpty(book.getAuthors()).forEach(authors::add);
+        info.put("publisher", "Stub House");
+        info.put("publishedDate", book.getPublishedDate());
+        info.put("description", book.getDescription());
+        ArrayNode identifiers = info.putArray("industryIdentifiers");
+        identifiers.addObject().put("type", "ISBN_13").put("identifier", book.getIsbn13());
+        identifiers.addObject().put("type", "ISBN_10").put("identifier", book.getIsbn13().substring(3));
+        info.putObject("readingModes").put("text", true).put("image", false);
+        if (book.getPageCount() != null) {
+            info.put("pageCount", book.getPageCount());
+        }
+        info.put("printType", "BOOK");
+        ArrayNode categories = info.putArray("categories");
+        nullToEmpty(book.getCategories()).forEach(categories::add);
+        info.put("averageRating", 3.5 + (position % 4) * 0.5);
+        info.put("ratingsCount", 50 + position * 37 % 2000);
+        info.put("maturityRating", "NOT_MATURE");
+        info.put("contentVersion", "1.2.3.0.preview.2");
+        info.putObject("imageLinks")
+                .put("smallThumbnail", "http://books.google.com/books/content?id=" + id + "&img=1&zoom=5")
+                .put("thumbnail", "http://books.google.com/books/content?id=" + id + "&img=1&zoom=1");
+        info.put("language", "en");
+        info.put("previewLink", "http://books.google.com/books?id=" + id + "&printsec=frontcover");
+        info.put("infoLink", "http://books.google.com/books?id=" + id);
+
+        ObjectNode saleInfo = volume.putObject("saleInfo");
+        saleInfo.put("country", "US");
+        saleInfo.put("saleability", "FOR_SALE");
+        saleInfo.put("isEbook", true);
+        saleInfo.putObject("listPrice").put("amount", 9.99).put("currencyCode", "USD");
+        saleInfo.put("buyLink", "https://play.google.com/store/books/details?id=" + id);
+
+        ObjectNode accessInfo = volume.putObject("accessInfo");
+        accessInfo.put("country", "US");
+        accessInfo.put("viewability", "PARTIAL");
+        accessInfo.put("embeddable", true);
+        accessInfo.put("publicDomain", false);
+        accessInfo.putObject("epub").put("isAvailable", true);
+        accessInfo.putObject("pdf").put("isAvailable", false);
+        accessInfo.put("accessViewStatus", "SAMPLE");
+        return volume;
+    }
+
+    private static Map<String, String> queryParams(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return value == null ? fallback : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static List<String> nullToEmpty(List<String> values) {
+        return values == null ? List.of() : values;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8089;
+        GoogleBooksStubServer stub = start(port)
+                .latency(Duration.ofMillis(Long.getLong("stub.latency-ms", 80)),
+                        Duration.ofMillis(Long.getLong("stub.jitter-ms", 40)))
+                .errorRate(Double.parseDouble(System.getProperty("stub.error-rate", "0")))
+                .throttleRate(Double.parseDouble(System.getProperty("stub.throttle-rate", "0")));
+        System.out.printf("Google Books stub serving %d volumes at %s%n", stub.corpus.size(), stub.baseUrl());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,114 @@
+package com.rahil.book_nexus.googlebooks;
+
+/**
+ * Google Books volume JSON shaped like real /volumes responses, including
+ * the saleInfo, accessInfo and searchInfo sections the parsers skip.
+ */
+final class GoogleVolumeFixtures {
+
+    private static final String VOLUME = """
+            {
+              "kind": "books#volume",
+              "id": "%1$s",
+              "etag": "Xh4Rq1bVbN8",
+              "selfLink": "https://www.googleapis.com/books/v1/volumes/%1$s",
+              "volumeInfo": {
+                "title": "The Name of the Wind %2$d",
+                "subtitle": "The Kingkiller Chronicle: Day One",
+                "authors": ["Patrick Rothfuss", "Second Author"],
+                "publisher": "Penguin",
+                "publishedDate": "2007-03-27",
+                "description": "%3$s",
+                "industryIdentifiers": [
+                  {"type": "ISBN_10", "identifier": "0756404746"},
+                  {"type": "ISBN_13", "identifier": "97807564047%2$02d"},
+                  {"type": "OTHER", "identifier": "UOM:39015066726098"}
+                ],
+                "readingModes": {"text": true, "image": false},
+                "pageCount": 672,
+                "printType": "BOOK",
+                "categories": ["Fiction", "Fantasy / Epic"],
+                "averageRating": 4.5,
+                "ratingsCount": 1234,
+                "maturityRating": "NOT_MATURE",
+                "allowAnonLogging": true,
+                "contentVersion": "1.7.5.0.preview.2",
+                "panelizationSummary": {"containsEpubBubbles": false, "containsImageBubbles": false},
+                "imageLinks": {
+                  "smallThumbnail": "http://books.google.com/books/content?id=%1$s&printsec=frontcover&img=1&zoom=5",
+                  "thumbnail": "http://books.google.com/books/content?id=%1$s&printsec=frontcover&img=1&zoom=1"
+                },
+                "language": "en",
+                "previewLink": "http://books.google.com/books?id=%1$s&printsec=frontcover&dq=fantasy",
+                "infoLink": "http://books.google.com/books?id=%1$s&dq=fantasy",
+                "canonicalVolumeLink": "https://books.google.com/books/about/The_Name_of_the_Wind.html?id=%1$s"
+              },
+              "saleInfo": {
+                "country": "US",
+                "saleability": "FOR_SALE",
+                "isEbook": true,
+                "listPrice": {"amount": 9.99, "currencyCode": "USD"},
+                "retailPrice": {"amount": 9.99, "currencyCode": "USD"},
+                "buyLink": "https://play.google.com/store/books/details?id=%1$s",
+                "offers": [{"finskyOfferType": 1, "listPrice": {"amountInMicros": 9990000, "currencyCode": "USD"}}]
+              },
+              "accessInfo": {
+                "country": "US",
+                "viewability": "PARTIAL",
+                "embeddable": true,
+                "publicDomain": false,
+                "textToSpeechPermission": "ALLOWED",
+                "epub": {"isAvailable": true, "acsTokenLink": "http://books.google.com/books/download/acs?id=%1$s"},
+                "pdf": {"isAvailable": false},
+                "webReaderLink": "http://play.google.com/books/reader?id=%1$s",
+                "accessViewStatus": "SAMPLE",
+                "quoteSharingAllowed": false
+              },
+              "searchInfo": {"textSnippet": "Told in Kvothe&#39;s own voice, this is the tale of the magically gifted young man."}
+            }""";
+
+    /**
+     * Edge cases the parsers must agree on: a volume without volumeInfo, one
+     * with a blank title, a sparse one, and unexpected value types.
+     */
+    static final String EDGE_CASES = """
+            {
+              "kind": "books#volumes",
+              "totalItems": 4,
+              "items": [
+                {"id": "no-info", "saleInfo": {"country": "US"}},
+                {"id": "blank-title", "volumeInfo": {"title": "  "}},
+                {"volumeInfo": {"title": "No Id", "pageCount": "321", "ratingsCount": 7}},
+                {
+                  "id": "odd-types",
+                  "volumeInfo": {
+                    "title": "Odd Types",
+                    "authors": ["Single Author"],
+                    "industryIdentifiers": [{"type": "ISBN_13", "identifier": "9780000000002"}],
+                    "averageRating": 3,
+                    "imageLinks": {"thumbnail": "http://example.com/t.jpg", "large": "http://example.com/l.jpg"}
+                  }
+                }
+              ]
+            }""";
+
+    private GoogleVolumeFixtures() {
+    }
+
+    /**
+     * A search page of items volumes, each with a description of about
+     * descriptionLength characters.
+     */
+    static String page(int items, int descriptionLength) {
+        String description = "A long description of a young man's rise to legend. ".repeat(
+                Math.max(1, descriptionLength / 52));
+        StringBuilder json = new StringBuilder("{\"kind\": \"books#volumes\", \"totalItems\": 1873, \"items\": [");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(VOLUME.formatted("vol" + i + "ABCDEFG", i, description));
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming vs tree parsing of a Google Books search page. The number to
+ * compare is gc.alloc.rate.norm, bytes allocated per parsed response, e.g.
+ *
+ * mvn test -Dtest=GoogleVolumeParserBenchmark -Dbenchmark.jmh=true
+ *
+ * Runs in-process (no fork) because the surefire classpath is not visible to
+ * a forked JVM; allocation per operation is unaffected by that.
+ */
+@EnabledIfSystemProperty(named = "benchmark.jmh", matches = "true")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(0)
+public class GoogleVolumeParserBenchmark {
+
+    @Param({"10", "40"})
+    public int items;
+
+    @Param({"2000"})
+    public int descriptionLength;
+
+    private byte[] body;
+    private GoogleVolumeParser streamingParser;
+    private TreeVolumeParser treeParser;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        body = GoogleVolumeFixtures.page(items, descriptionLength).getBytes(StandardCharsets.UTF_8);
+        streamingParser = new GoogleVolumeParser(objectMapper);
+        treeParser = new TreeVolumeParser(objectMapper);
+    }
+
+    @Benchmark
+    public GoogleBookResponse streaming() throws IOException {
+        return streamingParser.parseVolumes(new ByteArrayInputStream(body));
+    }
+
+    @Benchmark
+    public GoogleBookResponse tree() throws IOException {
+        return treeParser.parseVolumes(new ByteArrayInputStream(body));
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GoogleVolumeParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
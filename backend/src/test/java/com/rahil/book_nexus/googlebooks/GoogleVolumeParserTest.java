@@ -0,0 +1,66 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoogleVolumeParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GoogleVolumeParser parser = new GoogleVolumeParser(objectMapper);
+    private final TreeVolumeParser treeParser = new TreeVolumeParser(objectMapper);
+
+    @Test
+    void searchPageMatchesTreeParser() throws IOException {
+        String json = GoogleVolumeFixtures.page(40, 2000);
+
+        GoogleBookResponse streamed = parser.parseVolumes(stream(json));
+
+        assertThat(streamed).isEqualTo(treeParser.parseVolumes(stream(json)));
+        assertThat(streamed.getTotalItems()).isEqualTo(1873);
+        assertThat(streamed.getItems()).hasSize(40);
+        GoogleBookDto first = streamed.getItems().get(0);
+        assertThat(first.getId()).isEqualTo("vol0ABCDEFG");
+        assertThat(first.getIsbn13()).isEqualTo("9780756404700");
+        assertThat(first.getIsbn10()).isEqualTo("0756404746");
+        assertThat(first.getAuthors()).containsExactly("Patrick Rothfuss", "Second Author");
+        assertThat(first.getImageLinks().getThumbnail()).endsWith("zoom=1");
+    }
+
+    @Test
+    void edgeCasesMatchTreeParser() throws IOException {
+        GoogleBookResponse streamed = parser.parseVolumes(stream(GoogleVolumeFixtures.EDGE_CASES));
+
+        assertThat(streamed).isEqualTo(treeParser.parseVolumes(stream(GoogleVolumeFixtures.EDGE_CASES)));
+        assertThat(streamed.getItems()).extracting(GoogleBookDto::getTitle).containsExactly("No Id", "Odd Types");
+        assertThat(streamed.getItems().get(0).getPageCount()).isEqualTo(321);
+        assertThat(streamed.getItems().get(1).getAverageRating()).isEqualTo(3.0);
+    }
+
+    @Test
+    void singleVolumeAndEmptySearch() throws IOException {
+        String page = GoogleVolumeFixtures.page(1, 100);
+        String volume = objectMapper.readTree(page).get("items").get(0).toString();
+
+        assertThat(parser.parseVolume(stream(volume)))
+                .isEqualTo(treeParser.parseGoogleBook(objectMapper.readTree(volume)));
+        assertThat(parser.parseVolumes(stream("{\"kind\": \"books#volumes\", \"totalItems\": 0}")).getItems())
+                .isEmpty();
+    }
+
+    @Test
+    void nonObjectBodyIsRejected() {
+        assertThatThrownBy(() -> parser.parseVolumes(stream("[]"))).isInstanceOf(IOException.class);
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
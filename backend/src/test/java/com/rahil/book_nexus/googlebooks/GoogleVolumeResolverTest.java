@@ -0,0 +1,126 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.rahil.book_nexus.PostgresContainerConfig;
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class GoogleVolumeResolverTest {
+
+    @Autowired
+    private GoogleVolumeResolver resolver;
+
+    @Autowired
+    private GoogleBookEntityRepository googleBookEntityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private GoogleBookService googleBookService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.save(userRepository, "volume@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        googleBookEntityRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void knownVolumeNeedsNoGoogleCall() {
+        googleBookEntityRepository.save(GoogleVolumeResolver.toEntity(volume("known-1", "Stored Title"), user));
+
+        assertThat(resolver.resolveEntity("known-1", user)).get()
+                .extracting(GoogleBookEntity::getTitle).isEqualTo("Stored Title");
+        assertThat(resolver.resolve("known-1", null)).get()
+                .extracting(GoogleBookDto::getTitle).isEqualTo("Stored Title");
+        verify(googleBookService, never()).getBookById(anyString());
+    }
+
+    @Test
+    void missIsFetchedOnceAndWrittenBack() {
+        when(googleBookService.getBookById("new-1")).thenReturn(volume("new-1", "Fetched Title"));
+
+        assertThat(resolver.resolve("new-1", user)).get()
+                .extracting(GoogleBookDto::getTitle).isEqualTo("Fetched Title");
+        assertThat(resolver.resolveEntity("new-1", user)).isPresent();
+        assertThat(resolver.resolve("new-1", null)).isPresent();
+
+        verify(googleBookService, times(1)).getBookById("new-1");
+        assertThat(googleBookEntityRepository.findByGoogleBookId("new-1")).get()
+                .extracting(entity -> entity.getDiscoveredBy().getId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void anonymousMissIsNotPersisted() {
+        when(googleBookService.getBookById("anon-1")).thenReturn(volume("anon-1", "Anonymous Title"));
+
+        assertThat(resolver.resolve("anon-1", null)).isPresent();
+        assertThat(googleBookEntityRepository.existsByGoogleBookId("anon-1")).isFalse();
+    }
+
+    @Test
+    void staleRowIsServedAndRefreshedInBackground() throws Exception {
+        googleBookEntityRepository.save(GoogleVolumeResolver.toEntity(volume("stale-1", "Old Title"), user));
+        jdbcTemplate.update("UPDATE google_book SET last_refreshed_at = ? WHERE google_book_id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(365))), "stale-1");
+        when(googleBookService.getBookById("stale-1")).thenReturn(volume("stale-1", "New Title"));
+
+        assertThat(resolver.resolveEntity("stale-1", user)).get()
+                .extracting(GoogleBookEntity::getTitle).isEqualTo("Old Title");
+
+        verify(googleBookService, timeout(5000)).getBookById("stale-1");
+        for (int i = 0; i < 100; i++) {
+            if ("New Title".equals(googleBookEntityRepository.findByGoogleBookId("stale-1").orElseThrow().getTitle())) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Stale volume was not refreshed");
+    }
+
+    private static GoogleBookDto volume(String id, String title) {
+        return GoogleBookDto.builder()
+                .id(id)
+                .title(title)
+                .authors(List.of("Author"))
+                .categories(List.of("Fiction", "Classics"))
+                .build();
+    }
+}
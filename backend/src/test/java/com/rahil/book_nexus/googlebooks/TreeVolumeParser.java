@@ -0,0 +1,128 @@
+package com.rahil.book_nexus.googlebooks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The JsonNode tree parser GoogleBookService used before GoogleVolumeParser:
+ * body read into a String, parsed with readTree, then walked. Kept as the
+ * reference for the equivalence test and the allocation benchmark.
+ */
+class TreeVolumeParser {
+
+    private final ObjectMapper objectMapper;
+
+    TreeVolumeParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    GoogleBookResponse parseVolumes(InputStream in) throws IOException {
+        JsonNode rootNode = objectMapper.readTree(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+
+        List<GoogleBookDto> books = new ArrayList<>();
+        JsonNode itemsNode = rootNode.get("items");
+
+        if (itemsNode != null && itemsNode.isArray()) {
+            for (JsonNode itemNode : itemsNode) {
+                GoogleBookDto book = parseGoogleBook(itemNode);
+                if (book != null) {
+                    books.add(book);
+                }
+            }
+        }
+
+        return GoogleBookResponse.builder()
+                .items(books)
+                .totalItems(rootNode.get("totalItems") != null ? rootNode.get("totalItems").asInt() : 0)
+                .kind(rootNode.get("kind") != null ? rootNode.get("kind").asText() : null)
+                .build();
+    }
+
+    GoogleBookDto parseGoogleBook(JsonNode itemNode) {
+        try {
+            JsonNode volumeInfo = itemNode.get("volumeInfo");
+            if (volumeInfo == null) {
+                return null;
+            }
+
+            // Parse basic info
+            String title = getStringValue(volumeInfo, "title");
+            if (title == null || title.isBlank()) {
+                return null;
+            }
+
+            // Parse authors
+            List<String> authors = new ArrayList<>();
+            JsonNode authorsNode = volumeInfo.get("authors");
+            if (authorsNode != null && authorsNode.isArray()) {
+                for (JsonNode authorNode : authorsNode) {
+                    authors.add(authorNode.asText());
+                }
+            }
+
+            // Parse image links
+            GoogleBookDto.GoogleBookImageLinks imageLinks = null;
+            JsonNode imageLinksNode = volumeInfo.get("imageLinks");
+            if (imageLinksNode != null) {
+                imageLinks = GoogleBookDto.GoogleBookImageLinks.builder()
+                        .thumbnail(getStringValue(imageLinksNode, "thumbnail"))
+                        .smallThumbnail(getStringValue(imageLinksNode, "smallThumbnail"))
+                        .build();
+            }
+
+            // Parse industry identifiers (ISBN)
+            String isbn13 = null;
+            String isbn10 = null;
+            JsonNode industryIdentifiersNode = volumeInfo.get("industryIdentifiers");
+            if (industryIdentifiersNode != null && industryIdentifiersNode.isArray()) {
+                for (JsonNode identifierNode : industryIdentifiersNode) {
+                    String type = getStringValue(identifierNode, "type");
+                    String identifier = getStringValue(identifierNode, "identifier");
+                    if ("ISBN_13".equals(type)) {
+                        isbn13 = identifier;
+                    } else if ("ISBN_10".equals(type)) {
+                        isbn10 = identifier;
+                    }
+                }
+            }
+
+            // Parse categories
+            List<String> categories = new ArrayList<>();
+            JsonNode categoriesNode = volumeInfo.get("categories");
+            if (categoriesNode != null && categoriesNode.isArray()) {
+                for (JsonNode categoryNode : categoriesNode) {
+                    categories.add(categoryNode.asText());
+                }
+            }
+
+            return GoogleBookDto.builder()
+                    .id(itemNode.get("id") != null ? itemNode.get("id").asText() : null)
+                    .title(title)
+                    .authors(authors)
+                    .description(getStringValue(volumeInfo, "description"))
+                    .publishedDate(getStringValue(volumeInfo, "publishedDate"))
+                    .pageCount(volumeInfo.get("pageCount") != null ? volumeInfo.get("pageCount").asInt() : null)
+                    .categories(categories)
+                    .averageRating(volumeInfo.get("averageRating") != null ? volumeInfo.get("averageRating").asDouble() : null)
+                    .ratingsCount(volumeInfo.get("ratingsCount") != null ? volumeInfo.get("ratingsCount").asInt() : null)
+                    .isbn13(isbn13)
+                    .isbn10(isbn10)
+                    .imageLinks(imageLinks)
+                    .build();
+
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private String getStringValue(JsonNode node, String fieldName) {
+        JsonNode fieldNode = node.get(fieldName);
+        return fieldNode != null ? fieldNode.asText() : null;
+    }
+}
@@ -0,0 +1,188 @@
+package com.rahil.book_nexus.history;
+
+import com.rahil.book_nexus.PostgresContainerConfig;
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.book.Book;
+import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ReadingLedgerPostgresTest {
+
+    @Autowired
+    private ReadingLedger readingLedger;
+
+    @Autowired
+    private ReadingEventRepository eventRepository;
+
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User reader;
+    private Book book;
+    private Book otherBook;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestUsers.save(userRepository, "owner@example.com");
+        reader = TestUsers.save(userRepository, "reader@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, List.of()));
+        book = bookRepository.save(book(owner, "pg-ledger-1"));
+        otherBook = bookRepository.save(book(owner, "pg-ledger-2"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        eventRepository.deleteAll();
+        historyRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void startAndReturnFollowTheBorrowCycle() {
+        assertThat(readingLedger.start(owner.getId(), book.getId())).isEmpty();
+        Integer historyId = readingLedger.start(reader.getId(), book.getId()).orElseThrow();
+        assertThat(readingLedger.start(reader.getId(), book.getId())).isEmpty();
+
+        assertThat(readingLedger.returnBook(reader.getId(), book.getId())).contains(historyId);
+        assertThat(readingLedger.returnBook(reader.getId(), book.getId())).isEmpty();
+        assertThat(readingLedger.approveReturns(reader.getId(), book.getId())).isEmpty();
+        assertThat(readingLedger.approveReturns(owner.getId(), book.getId())).containsExactly(historyId);
+
+        assertThat(readingLedger.start(reader.getId(), book.getId())).contains(historyId);
+        BookTransactionHistory snapshot = snapshot();
+        assertThat(snapshot.isReturned()).isFalse();
+        assertThat(snapshot.isReturnApproved()).isFalse();
+        assertThat(events()).extracting(ReadingEvent::getType).containsExactly(
+                ReadingEventType.STARTED, ReadingEventType.RETURNED, ReadingEventType.RETURN_APPROVED,
+                ReadingEventType.STARTED);
+        assertReplayMatchesSnapshot();
+    }
+
+    @Test
+    void readingUpsertsKeepOneSnapshotAndAppendOneEventEach() {
+        assertThat(readingLedger.progress(reader.getId(), book.getId(), 40)).isPresent();
+        assertThat(readingLedger.finish(reader.getId(), book.getId())).isPresent();
+        assertThat(readingLedger.finish(reader.getId(), book.getId())).isPresent();
+        assertThat(readingLedger.unfinish(reader.getId(), book.getId())).isPresent();
+        assertThat(readingLedger.progress(reader.getId(), book.getId(), 15)).isPresent();
+
+        assertThat(historyRepository.count()).isEqualTo(1);
+        BookTransactionHistory snapshot = snapshot();
+        assertThat(snapshot.isRead()).isFalse();
+        assertThat(snapshot.getReadCount()).isEqualTo(2);
+        assertThat(snapshot.getProgress()).isEqualTo(15);
+        assertThat(snapshot.getLastModifiedBy()).isEqualTo(reader.getId());
+
+        // One sequence value per appended event, none burnt in blocks
+        List<ReadingEvent> events = events();
+        assertThat(events).extracting(ReadingEvent::getType).containsExactly(
+                ReadingEventType.PROGRESS, ReadingEventType.FINISHED, ReadingEventType.FINISHED,
+                ReadingEventType.UNFINISHED, ReadingEventType.PROGRESS);
+        assertThat(events.get(events.size() - 1).getId() - events.get(0).getId()).isEqualTo(events.size() - 1);
+        assertReplayMatchesSnapshot();
+    }
+
+    @Test
+    void unfinishNeedsOwnershipOrAnExistingSnapshot() {
+        assertThat(readingLedger.unfinish(reader.getId(), book.getId())).isEmpty();
+        assertThat(readingLedger.unfinish(owner.getId(), book.getId())).isPresent();
+
+        assertThat(historyRepository.findByUserIdAndBookId(owner.getId(), book.getId())).isPresent();
+        assertThat(historyRepository.findByUserIdAndBookId(reader.getId(), book.getId())).isEmpty();
+    }
+
+    @Test
+    void nativeAndHibernateIdsShareOneSequence() {
+        Integer nativeId = readingLedger.finish(reader.getId(), book.getId()).orElseThrow();
+        BookTransactionHistory saved = historyRepository.save(BookTransactionHistory.builder()
+                .user(reader)
+                .book(otherBook)
+                .build());
+
+        assertThat(saved.getId()).isEqualTo(nativeId + 1);
+    }
+
+    @Test
+    void compactionFoldsEachEventOnce() {
+        eventRepository.save(ReadingEvent.builder()
+                .userId(reader.getId())
+                .bookId(otherBook.getId())
+                .type(ReadingEventType.STARTED)
+                .occurredAt(LocalDateTime.now())
+                .build());
+        assertThat(readingLedger.start(reader.getId(), book.getId())).isPresent();
+        assertThat(readingLedger.finish(reader.getId(), book.getId())).isPresent();
+
+        assertThat(readingLedger.compact(reader.getId(), book.getId())).isEqualTo(2);
+
+        assertThat(events()).extracting(ReadingEvent::getType).containsExactly(ReadingEventType.CHECKPOINT);
+        assertThat(readingLedger.replay(reader.getId(), book.getId()).getReadCount()).isEqualTo(1);
+
+        assertThat(readingLedger.finish(reader.getId(), book.getId())).isPresent();
+        assertThat(readingLedger.replay(reader.getId(), book.getId()).getReadCount()).isEqualTo(2);
+        assertThat(readingLedger.compact(reader.getId(), book.getId())).isEqualTo(2);
+        assertThat(readingLedger.replay(reader.getId(), book.getId()).getReadCount()).isEqualTo(2);
+        assertThat(snapshot().getReadCount()).isEqualTo(2);
+    }
+
+    private BookTransactionHistory snapshot() {
+        return historyRepository.findByUserIdAndBookId(reader.getId(), book.getId()).orElseThrow();
+    }
+
+    /**
+     * The upserts' SET clauses and ReadingLedger.apply must agree
+     */
+    private void assertReplayMatchesSnapshot() {
+        BookTransactionHistory written = snapshot();
+        BookTransactionHistory replayed = readingLedger.replay(reader.getId(), book.getId());
+        assertThat(replayed.isReturned()).isEqualTo(written.isReturned());
+        assertThat(replayed.isReturnApproved()).isEqualTo(written.isReturnApproved());
+        assertThat(replayed.isRead()).isEqualTo(written.isRead());
+        assertThat(replayed.getReadCount()).isEqualTo(written.getReadCount());
+        assertThat(replayed.getProgress()).isEqualTo(written.getProgress());
+    }
+
+    private List<ReadingEvent> events() {
+        return eventRepository.findAllByUserIdAndBookIdOrderByIdAsc(reader.getId(), book.getId());
+    }
+
+    private static Book book(User owner, String isbn) {
+        return Book.builder()
+                .title("Ledger Book")
+                .authorName("Author")
+                .isbn(isbn)
+                .shareable(true)
+                .owner(owner)
+                .build();
+    }
+}
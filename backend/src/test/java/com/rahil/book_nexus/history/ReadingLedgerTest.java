@@ -0,0 +1,159 @@
+package com.rahil.book_nexus.history;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.book.Book;
+import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadingLedgerTest {
+
+    @Autowired
+    private ReadingLedger readingLedger;
+
+    @Autowired
+    private ReadingEventRepository eventRepository;
+
+    @Autowired
+    private BookTransactionHistoryRepository historyRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User reader;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        reader = TestUsers.save(userRepository, "ledger@example.com");
+        // Audited columns are filled from the authenticated user, as in a request
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(reader, null, List.of()));
+        book = Book.builder()
+                .title("Ledger Book")
+                .authorName("Author")
+                .isbn("ledger-1")
+                .shareable(true)
+                .owner(reader)
+                .build();
+        book = bookRepository.save(book);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        eventRepository.deleteAll();
+        historyRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void replayFoldsEventsIntoOneSnapshot() {
+        append(ReadingEventType.STARTED, 0);
+        append(ReadingEventType.PROGRESS, 40);
+        append(ReadingEventType.FINISHED, 100);
+        append(ReadingEventType.RETURNED, 100);
+        append(ReadingEventType.STARTED, 0);
+        append(ReadingEventType.FINISHED, 100);
+
+        BookTransactionHistory snapshot = readingLedger.replay(reader.getId(), book.getId());
+
+        assertThat(historyRepository.count()).isEqualTo(1);
+        assertThat(snapshot.isRead()).isTrue();
+        assertThat(snapshot.getReadCount()).isEqualTo(2);
+        assertThat(snapshot.isReturned()).isFalse();
+        assertThat(snapshot.getProgress()).isEqualTo(100);
+    }
+
+    @Test
+    void replayAndCompactionPreserveState() {
+        append(ReadingEventType.FINISHED, 100);
+        append(ReadingEventType.UNFINISHED, 100);
+        append(ReadingEventType.FINISHED, 100);
+        append(ReadingEventType.PROGRESS, 15);
+
+        assertState(readingLedger.replay(reader.getId(), book.getId()));
+
+        assertThat(readingLedger.compact(reader.getId(), book.getId())).isEqualTo(4);
+        assertThat(eventRepository.findAllByUserIdAndBookIdOrderByIdAsc(reader.getId(), book.getId()))
+                .extracting(ReadingEvent::getType)
+                .containsExactly(ReadingEventType.CHECKPOINT);
+        assertState(readingLedger.replay(reader.getId(), book.getId()));
+
+        append(ReadingEventType.FINISHED, 100);
+        assertThat(readingLedger.replay(reader.getId(), book.getId()).getReadCount()).isEqualTo(3);
+    }
+
+    @Test
+    void foldAppliesCheckpointBeforeEventsWithLowerIds() {
+        BookTransactionHistory snapshot = BookTransactionHistory.builder().user(reader).book(book).build();
+
+        ReadingLedger.fold(snapshot, List.of(
+                event(3, ReadingEventType.FINISHED),
+                ReadingEvent.builder()
+                        .id(7)
+                        .type(ReadingEventType.CHECKPOINT)
+                        .progress(100)
+                        .readCount(2)
+                        .read(true)
+                        .returned(true)
+                        .returnApproved(true)
+                        .build(),
+                event(9, ReadingEventType.UNFINISHED)));
+
+        assertThat(snapshot.getReadCount()).isEqualTo(3);
+        assertThat(snapshot.isRead()).isFalse();
+    }
+
+    @Test
+    void rejectsSecondSnapshotForSamePair() {
+        historyRepository.save(BookTransactionHistory.builder().user(reader).book(book).build());
+
+        assertThatThrownBy(() -> historyRepository.saveAndFlush(
+                BookTransactionHistory.builder().user(reader).book(book).build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private void append(ReadingEventType type, int progress) {
+        eventRepository.save(ReadingEvent.builder()
+                .userId(reader.getId())
+                .bookId(book.getId())
+                .type(type)
+                .progress(progress)
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static ReadingEvent event(int id, ReadingEventType type) {
+        return ReadingEvent.builder().id(id).type(type).progress(100).build();
+    }
+
+    private void assertState(BookTransactionHistory snapshot) {
+        assertThat(snapshot.isRead()).isTrue();
+        assertThat(snapshot.getReadCount()).isEqualTo(2);
+        assertThat(snapshot.getProgress()).isEqualTo(15);
+        assertThat(snapshot.isReturned()).isTrue();
+        assertThat(snapshot.isReturnApproved()).isTrue();
+    }
+}
@@ -0,0 +1,128 @@
+package com.rahil.book_nexus.migration;
+
+import com.rahil.book_nexus.PostgresContainerConfig;
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.book.Book;
+import com.rahil.book_nexus.book.BookRating;
+import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.feedback.Feedback;
+import com.rahil.book_nexus.feedback.FeedbackRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.database=postgresql",
+        "application.rating-backfill.enabled=true"
+})
+@ActiveProfiles("test")
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class BookRatingBackfillTest {
+
+    @Autowired
+    private BookRatingBackfill backfill;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User reviewer;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestUsers.save(userRepository, "backfill-owner@example.com");
+        reviewer = TestUsers.save(userRepository, "backfill-reviewer@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(reviewer, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        feedbackRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void resetsBooksWhoseFeedbackIsGone() {
+        Book book = book("stale", BookRating.builder().count(2).sum(7).fourStar(1).threeStar(1).build());
+
+        backfill.run();
+
+        assertRating(book, 0, 0.0, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void repairsHistogramDriftWithMatchingCountAndSum() {
+        Book book = book("drifted", BookRating.builder().count(2).sum(8).fourStar(2).build());
+        review(book, 3.0);
+        review(book, 5.0);
+
+        backfill.run();
+
+        assertRating(book, 2, 8.0, 0, 0, 1, 0, 1);
+    }
+
+    @Test
+    void leavesBooksInSyncUntouched() {
+        Book book = book("in-sync", BookRating.builder().count(1).sum(4.4).fourStar(1).build());
+        review(book, 4.4);
+        Book empty = book("empty", new BookRating());
+
+        backfill.run();
+
+        assertRating(book, 1, 4.4, 0, 0, 0, 1, 0);
+        assertRating(empty, 0, 0.0, 0, 0, 0, 0, 0);
+    }
+
+    private Book book(String isbn, BookRating rating) {
+        return bookRepository.save(Book.builder()
+                .title("Backfill " + isbn)
+                .authorName("Author")
+                .isbn(isbn)
+                .shareable(true)
+                .owner(owner)
+                .rating(rating)
+                .build());
+    }
+
+    private void review(Book book, double rating) {
+        feedbackRepository.save(Feedback.builder()
+                .rating(rating)
+                .review("review")
+                .googleBookId("local-" + book.getId())
+                .source(Feedback.ReviewSource.LOCAL)
+                .user(reviewer)
+                .book(book)
+                .build());
+    }
+
+    private void assertRating(Book book, int count, double sum, int one, int two, int three, int four, int five) {
+        BookRating rating = bookRepository.findRatingByBookId(book.getId()).orElseThrow();
+        assertThat(rating.getCount()).isEqualTo(count);
+        assertThat(rating.getSum()).isEqualTo(sum);
+        assertThat(List.of(rating.getOneStar(), rating.getTwoStar(), rating.getThreeStar(),
+                rating.getFourStar(), rating.getFiveStar())).containsExactly(one, two, three, four, five);
+    }
+}
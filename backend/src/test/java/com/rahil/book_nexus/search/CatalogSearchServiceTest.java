@@ -0,0 +1,111 @@
+package com.rahil.book_nexus.search;
+
+import com.rahil.book_nexus.TestUsers;
+import com.rahil.book_nexus.book.Book;
+import com.rahil.book_nexus.book.BookRepository;
+import com.rahil.book_nexus.common.CursorPageResponse;
+import com.rahil.book_nexus.googlebooks.GoogleBookEntity;
+import com.rahil.book_nexus.googlebooks.GoogleBookEntityRepository;
+import com.rahil.book_nexus.user.User;
+import com.rahil.book_nexus.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogSearchServiceTest {
+
+    @Autowired
+    private CatalogSearchService searchService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private GoogleBookEntityRepository googleBookEntityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestUsers.save(userRepository, "ada@example.com");
+        saveBook("Dune", "Frank Herbert", "A desert planet and its spice.", false);
+        saveBook("Children of Dune", "Frank Herbert", "The sequel.", false);
+        saveBook("Desert Notes", "Barry Lopez", "Essays that mention Dune once.", false);
+        saveBook("Dune Messiah", "Frank Herbert", "Archived copy.", true);
+        googleBookEntityRepository.save(GoogleBookEntity.builder()
+                .googleBookId("B1gDune")
+                .title("Dune: Deluxe Edition")
+                .authorName("Frank Herbert")
+                .categories("Fiction")
+                .isActive(true)
+                .createdBy(owner.getId())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        googleBookEntityRepository.deleteAll();
+        bookRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void ranksTitleMatchesAboveBodyMatchesAndSkipsArchivedBooks() {
+        CursorPageResponse<CatalogSearchHit> page = searchService.search("dune", SearchScope.BOOKS, null, 10);
+
+        // Equal title ranks tie-break on id DESC
+        assertThat(page.getContent()).extracting(CatalogSearchHit::getTitle)
+                .containsExactly("Children of Dune", "Dune", "Desert Notes");
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    void pagesThroughAllHitsWithCursorWithoutDuplicates() {
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<CatalogSearchHit> page = searchService.search("dune", SearchScope.ALL, cursor, 1);
+            page.getContent().forEach(hit -> titles.add(hit.getTitle()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(titles).containsExactlyInAnyOrder(
+                "Dune", "Children of Dune", "Desert Notes", "Dune: Deluxe Edition");
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        CursorPageResponse<CatalogSearchHit> page = searchService.search("dune herbert", SearchScope.ALL, null, 10);
+
+        assertThat(page.getContent()).extracting(CatalogSearchHit::getTitle)
+                .doesNotContain("Desert Notes")
+                .contains("Dune", "Dune: Deluxe Edition");
+    }
+
+    private void saveBook(String title, String author, String synopsis, boolean archived) {
+        Book book = Book.builder()
+                .title(title)
+                .authorName(author)
+                .isbn("978" + Math.abs(title.hashCode()))
+                .synopsis(synopsis)
+                .shareable(true)
+                .archived(archived)
+                .owner(owner)
+                .build();
+        book.setCreatedBy(owner.getId());
+        bookRepository.save(book);
+    }
+}
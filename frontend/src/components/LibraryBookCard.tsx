@@ -87,10 +87,8 @@ const LibraryBookCard: React.FC<LibraryBookCardProps> = ({
     if (isGoogleBook) {
       coverUrl = bookListItem.googleBook?.coverUrl;
     } else if (bookListItem.book?.cover) {
-      const cover = bookListItem.book.cover;
-      coverUrl = typeof cover === 'string' && cover.startsWith('http') 
-        ? `http://localhost:8088/api/v1/books/cover/${bookListItem.book.id}` 
-        : `data:image/jpeg;base64,${cover}`;
+      // Uploaded covers arrive as absolute, versioned URLs
+      coverUrl = bookListItem.book.cover;
     }
 
     return (
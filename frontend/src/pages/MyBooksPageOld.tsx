@@ -13,9 +13,7 @@ const MyBooksPage: React.FC = () => {
     if (book.cover) {
       return (
         <img
-          src={typeof book.cover === 'string' && book.cover.startsWith('http') ? 
-               `http://localhost:8088/api/v1/books/cover/${book.id}` : 
-               `data:image/jpeg;base64,${book.cover}`}
+          src={book.cover}
           alt={book.title}
           style={{
             width: '100%',